@@ -0,0 +1,141 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.SuggestionSearcher;
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Shared fixtures for benchmarks.
+ */
+final class BenchmarkData {
+    static final String ENGLISH_DICTIONARY = "/dictionaries/en_dictionary_80k.txt";
+
+    // Word lists shipped with the library, loaded by the dictionaries of each language
+    static final Map<Language, String> DICTIONARY_PATHS = new EnumMap<>(Language.class);
+
+    static final String[] MISSPELLED_WORDS = {"catn", "belive", "helo", "wrold", "accomodate", "darknes", "mayself", "frend"};
+    // The spellchecker's order of suggestions: higher match percentage first, then closer sound
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparing(Suggestion::getMatchPercentage, Comparator.reverseOrder())
+            .thenComparing(Suggestion::getSoundexCodeDistance);
+
+    static final String[] COMPOUNDS = {"holyshit", "helloworld", "thankyou", "goodmorning"};
+
+    static final String SHORT_TEXT = "hello, darknes, my old frend!";
+    static final String MEDIUM_TEXT = "i can liift a car all by mayself, but I belive it's not a big deal. " +
+            "Little piece of shit and silly cunt, seee you later, aaligator.";
+    static final String LONG_TEXT = repeat(MEDIUM_TEXT + " Hello fucking world holy cow, pi3ce of sh1t @nd b1tch. ", 20);
+    // Many distinct phrases, some spelled out or overlapping longer ones
+    static final String PROFANE_TEXT = repeat("Shit, you ASSHOLE, f u c k off and kiss my ass, bitch-ass cunt, " +
+            "cocksucker! What a dumbass motherfucker. ", 20);
+
+    private BenchmarkData() {
+        throw new AssertionError("This class is not meant to be instantiated.");
+    }
+
+    static {
+        DICTIONARY_PATHS.put(Language.ENGLISH, ENGLISH_DICTIONARY);
+        DICTIONARY_PATHS.put(Language.RUSSIAN, "/dictionaries/ru_dictionary_130k.txt");
+        DICTIONARY_PATHS.put(Language.UKRAINIAN, "/dictionaries/uk_dictionary_110k.txt");
+        DICTIONARY_PATHS.put(Language.GERMAN, "/dictionaries/de_dictionary_160k.txt");
+        DICTIONARY_PATHS.put(Language.SPANISH, "/dictionaries/es_dictionary_70k.txt");
+        DICTIONARY_PATHS.put(Language.FRENCH, "/dictionaries/fr_dictionary_80k.txt");
+        DICTIONARY_PATHS.put(Language.POLISH, "/dictionaries/pl_dictionary_290k.txt");
+    }
+
+    static List<String> loadWords(String dictionaryPath) throws IOException {
+        List<String> words = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                BenchmarkData.class.getResourceAsStream(dictionaryPath), StandardCharsets.UTF_8))) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    words.add(line);
+                }
+            }
+        }
+
+        return words;
+    }
+
+    static WordSuggester loadWordSuggester(String dictionaryPath) throws IOException {
+        WordSuggester wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : loadWords(dictionaryPath)) {
+            wordSuggester.add(word);
+        }
+
+        wordSuggester.compact();
+        return wordSuggester;
+    }
+
+    static SuggestionSearcher loadSuggestionSearcher(String dictionaryPath) throws IOException {
+        return new SuggestionSearcher(loadWords(dictionaryPath));
+    }
+
+    /**
+     * @return random words of the list with one random edit each (deletion, insertion, substitution
+     * or transposition), the same ones on every call.
+     */
+    static String[] misspell(List<String> words, int count) {
+        Random random = new Random(42);
+        String[] misspelled = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            StringBuilder word = new StringBuilder(words.get(random.nextInt(words.size())).toLowerCase());
+            // A letter of another word, so it's from the same alphabet
+            String donor = words.get(random.nextInt(words.size())).toLowerCase();
+            char letter = donor.charAt(random.nextInt(donor.length()));
+            int position = random.nextInt(word.length());
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (word.length() > 1) {
+                        word.deleteCharAt(position);
+                    }
+                    break;
+                case 1:
+                    word.insert(position, letter);
+                    break;
+                case 2:
+                    word.setCharAt(position, letter);
+                    break;
+                default:
+                    if (position + 1 < word.length()) {
+                        char next = word.charAt(position + 1);
+                        word.setCharAt(position + 1, word.charAt(position));
+                        word.setCharAt(position, next);
+                    }
+            }
+
+            misspelled[i] = word.toString();
+        }
+
+        return misspelled;
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder builder = new StringBuilder(text.length() * times);
+
+        for (int i = 0; i < times; i++) {
+            builder.append(text);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unrestricted and bounded restricted (optimal string alignment) edit distance between a misspelled word
+ * and its correction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamerauLevenshteinDistanceBenchmark {
+
+    @Param({"catn:cant", "belive:believe", "accomodate:accommodation", "darknes:happiness"})
+    private String pair;
+
+    @Param({"2"})
+    private int max;
+
+    private String word;
+    private String wordToMatch;
+
+    @Setup
+    public void setUp() {
+        String[] words = pair.split(":");
+        word = words[0];
+        wordToMatch = words[1];
+    }
+
+    @Benchmark
+    public int distance() {
+        return DamerauLevenshteinDistance.distance(word, wordToMatch);
+    }
+
+    @Benchmark
+    public int osaDistance() {
+        return DamerauLevenshteinDistance.osaDistance(word, wordToMatch, max);
+    }
+}
@@ -0,0 +1,56 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.SuggestionEngine;
+import com.filter.textcorrector.spellchecking.dictionary.AbstractDictionary;
+import com.filter.textcorrector.spellchecking.dictionary.BkTreeDictionary;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.MinimalDictionary;
+import com.filter.textcorrector.spellchecking.dictionary.SymmetricDeleteDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load the dictionary of every shipped language. Dictionaries are built directly,
+ * bypassing the shared instances of DictionaryFactory, so every invocation really loads one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DictionaryLoadBenchmark {
+
+    @Param({"ENGLISH", "RUSSIAN", "UKRAINIAN", "GERMAN", "SPANISH", "FRENCH", "POLISH"})
+    private Language language;
+
+    @Param({"TRIE", "DAWG", "SYMMETRIC_DELETE", "BK_TREE"})
+    private SuggestionEngine suggestionEngine;
+
+    @Benchmark
+    public Dictionary load() {
+        String dictionaryPath = BenchmarkData.DICTIONARY_PATHS.get(language);
+
+        switch (suggestionEngine) {
+            case DAWG:
+                return new MinimalDictionary(dictionaryPath);
+            case SYMMETRIC_DELETE:
+                return new SymmetricDeleteDictionary(dictionaryPath);
+            case BK_TREE:
+                return new BkTreeDictionary(dictionaryPath);
+            default:
+                return new AbstractDictionary(dictionaryPath);
+        }
+    }
+}
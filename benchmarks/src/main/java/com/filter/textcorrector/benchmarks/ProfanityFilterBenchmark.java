@@ -0,0 +1,62 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Censoring of clean and profane texts of different length, and of a long text with a profane phrase in every few words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfanityFilterBenchmark {
+
+    @Param({"clean", "short", "medium", "long", "profane"})
+    private String textLength;
+
+    private ProfanityFilter profanityFilter;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        profanityFilter = new ProfanityFilter.Builder().build();
+
+        switch (textLength) {
+            case "clean":
+                text = BenchmarkData.SHORT_TEXT;
+                break;
+            case "short":
+                text = "little piece of shit";
+                break;
+            case "medium":
+                text = BenchmarkData.MEDIUM_TEXT;
+                break;
+            case "profane":
+                text = BenchmarkData.PROFANE_TEXT;
+                break;
+            default:
+                text = BenchmarkData.LONG_TEXT;
+        }
+    }
+
+    @Benchmark
+    public String censor() {
+        return profanityFilter.censor(text);
+    }
+}
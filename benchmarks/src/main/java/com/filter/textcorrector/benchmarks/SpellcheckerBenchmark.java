@@ -0,0 +1,86 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.spellchecking.SuggestionEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public spellchecker operations with each suggestion engine, dictionaries are loaded before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SpellcheckerBenchmark {
+
+    @Param({"TRIE", "DAWG", "SYMMETRIC_DELETE", "BK_TREE"})
+    private SuggestionEngine suggestionEngine;
+
+    private Spellchecker spellchecker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        spellchecker = new Spellchecker.Builder(Language.ENGLISH)
+                .withSuggestionEngine(suggestionEngine)
+                .build();
+    }
+
+    // Inputs live in separate states, so each benchmark is run only with the parameters it uses
+
+    @State(Scope.Benchmark)
+    public static class WordInput {
+        @Param({"catn", "belive", "accomodate"})
+        private String word;
+    }
+
+    @State(Scope.Benchmark)
+    public static class CompoundInput {
+        @Param({"holyshit", "helloworld"})
+        private String compound;
+    }
+
+    @State(Scope.Benchmark)
+    public static class TextInput {
+        @Param({"short", "medium"})
+        private String textLength;
+
+        private String text;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            text = "short".equals(textLength) ? BenchmarkData.SHORT_TEXT : BenchmarkData.MEDIUM_TEXT;
+        }
+    }
+
+    @Benchmark
+    public List<String> checkWord(WordInput input) {
+        return spellchecker.checkWord(input.word);
+    }
+
+    @Benchmark
+    public List<String> checkCompound(CompoundInput input) {
+        return spellchecker.checkCompound(input.compound);
+    }
+
+    @Benchmark
+    public String checkText(TextInput input) {
+        return spellchecker.checkText(input.text);
+    }
+}
@@ -0,0 +1,89 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.SuggestionEngine;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.DictionaryFactory;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary search with every suggestion engine in every language, to pick the fastest engine per language.
+ * Queries are words of the language with one random edit, the same ones in every run, searched in turn.
+ * {@code search} finds all the suggestions, {@code searchBest} only the best one, as spellchecking a text does.
+ * {@code contains} checks dictionary words and misspelled ones in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SuggestionEngineBenchmark {
+    private static final int QUERY_COUNT = 256;
+    private static final float MAX_EDIT_DISTANCE_PERCENT = 70f;
+
+    @Param({"ENGLISH", "RUSSIAN", "UKRAINIAN", "GERMAN", "SPANISH", "FRENCH", "POLISH"})
+    private Language language;
+
+    @Param({"TRIE", "DAWG", "SYMMETRIC_DELETE", "BK_TREE"})
+    private SuggestionEngine suggestionEngine;
+
+    private Dictionary dictionary;
+    private String[] queries;
+    private String[] knownAndUnknown;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = DictionaryFactory.create(language, suggestionEngine);
+        List<String> words = BenchmarkData.loadWords(BenchmarkData.DICTIONARY_PATHS.get(language));
+        queries = BenchmarkData.misspell(words, QUERY_COUNT);
+
+        Random random = new Random(42);
+        knownAndUnknown = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i += 2) {
+            knownAndUnknown[i] = words.get(random.nextInt(words.size())).toLowerCase();
+            knownAndUnknown[i + 1] = queries[i + 1];
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> search() {
+        return dictionary.search(nextQuery(), MAX_EDIT_DISTANCE_PERCENT);
+    }
+
+    @Benchmark
+    public List<Suggestion> searchBest() {
+        return dictionary.search(nextQuery(), MAX_EDIT_DISTANCE_PERCENT, 1, BenchmarkData.RANKING);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        boolean found = dictionary.contains(knownAndUnknown[next]);
+        nextQuery();
+        return found;
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = (next + 1) % QUERY_COUNT;
+        return query;
+    }
+}
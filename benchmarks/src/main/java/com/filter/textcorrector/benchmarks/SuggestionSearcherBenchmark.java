@@ -0,0 +1,55 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.SuggestionSearcher;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search in the edit distance tree at several distance thresholds, for all the suggestions and for the best one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionSearcherBenchmark {
+
+    @Param({"1", "2", "3"})
+    private int distanceThreshold;
+
+    @Param({"catn", "belive", "accomodate"})
+    private String word;
+
+    private SuggestionSearcher suggestionSearcher;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        suggestionSearcher = BenchmarkData.loadSuggestionSearcher(BenchmarkData.ENGLISH_DICTIONARY);
+    }
+
+    @Benchmark
+    public List<Suggestion> search() {
+        return suggestionSearcher.search(word, distanceThreshold);
+    }
+
+    @Benchmark
+    public List<Suggestion> searchBest() {
+        return suggestionSearcher.search(word, distanceThreshold, 1, BenchmarkData.RANKING);
+    }
+}
@@ -0,0 +1,59 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.text_preproccessing.TextPreproccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text normalization with and without repeated letter removal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextPreproccessorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean removeRepeatedLetters;
+
+    @Param({"short", "medium", "long"})
+    private String textLength;
+
+    private TextPreproccessor textPreproccessor;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        textPreproccessor = TextPreproccessor.getInstance();
+
+        switch (textLength) {
+            case "short":
+                text = "little pi3ceeee @nd sh1t";
+                break;
+            case "medium":
+                text = BenchmarkData.MEDIUM_TEXT;
+                break;
+            default:
+                text = BenchmarkData.LONG_TEXT;
+        }
+    }
+
+    @Benchmark
+    public String preproccess() {
+        return textPreproccessor.preproccess(text, removeRepeatedLetters);
+    }
+}
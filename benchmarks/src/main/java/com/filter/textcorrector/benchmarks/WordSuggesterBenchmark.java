@@ -0,0 +1,61 @@
+package com.filter.textcorrector.benchmarks;
+
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy trie search at several edit distances, for all the suggestions and for the best ones only.
+ * Run with {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordSuggesterBenchmark {
+
+    @Param({"1", "2", "3"})
+    private int maxDistance;
+
+    @Param({"catn", "belive", "accomodate"})
+    private String word;
+
+    private WordSuggester wordSuggester;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wordSuggester = BenchmarkData.loadWordSuggester(BenchmarkData.ENGLISH_DICTIONARY);
+    }
+
+    @Benchmark
+    public List<Suggestion> getSuggestions() {
+        return wordSuggester.getSuggestions(word, maxDistance);
+    }
+
+    @Benchmark
+    public List<Suggestion> getBestSuggestion() {
+        return wordSuggester.getSuggestions(word, maxDistance, 1, BenchmarkData.RANKING);
+    }
+
+    @Benchmark
+    public List<Suggestion> getBestSuggestions() {
+        return wordSuggester.getSuggestions(word, maxDistance, 3, BenchmarkData.RANKING);
+    }
+}
@@ -1,15 +1,23 @@
 package com.filter.textcorrector;
 
+import com.filter.textcorrector.profanity_filtering.IncrementalCensor;
 import com.filter.textcorrector.profanity_filtering.model.Censored;
 import com.filter.textcorrector.spellchecking.Language;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public interface Filter extends FilterConfigurer {
     List<String> checkWord(String word);
     List<String> checkCompound(String compound);
     String checkText(String text);
+    List<String> checkTexts(List<String> texts);
+    void checkText(Readable input, Writer output) throws IOException;
     String censor(String text);
+    List<String> censorAll(List<String> texts);
+    void censor(Readable input, Writer output) throws IOException;
+    IncrementalCensor startCensoring();
     Censored searchForProfanity(String text);
     String preproccess(String text, boolean removeRepeatedLetters);
     boolean isValid(String word);
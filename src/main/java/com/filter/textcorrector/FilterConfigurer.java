@@ -2,6 +2,8 @@ package com.filter.textcorrector;
 
 import com.filter.textcorrector.spellchecking.Language;
 
+import java.util.concurrent.Executor;
+
 public interface FilterConfigurer {
     void doPreproccessing(boolean doPreproccessing);
 
@@ -19,5 +21,9 @@ public interface FilterConfigurer {
 
     void doRemoveProfaneWord(boolean removeProfaneWord);
 
+    void setProfanityEditDistance(int maxEditDistance);
+
     void setMaxMatchPercentage(float maxMatchPercentage);
+
+    void setBatchExecutor(Executor executor);
 }
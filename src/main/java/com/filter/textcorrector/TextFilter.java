@@ -1,19 +1,34 @@
 package com.filter.textcorrector;
 
+import com.filter.textcorrector.profanity_filtering.IncrementalCensor;
 import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
 import com.filter.textcorrector.profanity_filtering.model.Censored;
+import com.filter.textcorrector.profanity_filtering.model.LexiconStats;
 import com.filter.textcorrector.spellchecking.Language;
 import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.spellchecking.model.CacheStats;
 import com.filter.textcorrector.text_preproccessing.TextPreproccessor;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * One filter can serve any number of threads, settings changed by a setter apply to the calls started after it.
+ */
 public class TextFilter implements Filter {
-    private Spellchecker spellchecker;
-    private ProfanityFilter profanityFilter;
-    private TextPreproccessor textPreproccessor;
+    private final Spellchecker spellchecker;
+    private final ProfanityFilter profanityFilter;
+    private final TextPreproccessor textPreproccessor;
 
-    private Language language;
+    private volatile Language language;
+    // Runs batch operations, the common fork-join pool unless set
+    private volatile Executor batchExecutor = ForkJoinPool.commonPool();
 
     public TextFilter(Language language, String dictionaryPath) {
         this.language = language;
@@ -49,12 +64,36 @@ public class TextFilter implements Filter {
         return spellchecker.checkText(text);
     }
 
-    //TODO: makes all words lower case. Fix.
+    @Override
+    public List<String> checkTexts(List<String> texts) {
+        return spellchecker.checkTexts(texts, batchExecutor);
+    }
+
+    @Override
+    public void checkText(Readable input, Writer output) throws IOException {
+        spellchecker.checkText(input, output);
+    }
+
     @Override
     public String censor(String text) {
         return profanityFilter.censor(text);
     }
 
+    @Override
+    public List<String> censorAll(List<String> texts) {
+        return profanityFilter.censorAll(texts, batchExecutor);
+    }
+
+    @Override
+    public void censor(Readable input, Writer output) throws IOException {
+        profanityFilter.censor(input, output);
+    }
+
+    @Override
+    public IncrementalCensor startCensoring() {
+        return profanityFilter.startCensoring();
+    }
+
     @Override
     public Censored searchForProfanity(String text) {
         return profanityFilter.searchForProfanity(text);
@@ -80,6 +119,26 @@ public class TextFilter implements Filter {
         return language;
     }
 
+    public CacheStats getCacheStats() {
+        return spellchecker.getCacheStats();
+    }
+
+    public CompletableFuture<LexiconStats> addProfanity(Collection<String> phrases) {
+        return profanityFilter.addProfanity(phrases);
+    }
+
+    public CompletableFuture<LexiconStats> removeProfanity(Collection<String> phrases) {
+        return profanityFilter.removeProfanity(phrases);
+    }
+
+    public CompletableFuture<LexiconStats> reloadProfanity(Reader reader) throws IOException {
+        return profanityFilter.reloadProfanity(reader);
+    }
+
+    public LexiconStats getLexiconStats() {
+        return profanityFilter.getLexiconStats();
+    }
+
     @Override
     public void doPreproccessing(boolean doPreproccessing) {
         spellchecker.doPreproccessing(doPreproccessing);
@@ -122,8 +181,22 @@ public class TextFilter implements Filter {
         profanityFilter.removeProfaneWord(removeProfaneWord);
     }
 
+    @Override
+    public void setProfanityEditDistance(int maxEditDistance) {
+        profanityFilter.setMaxEditDistance(maxEditDistance);
+    }
+
     @Override
     public void setMaxMatchPercentage(float maxMatchPercentage) {
         spellchecker.setMaxMatchPercentage(maxMatchPercentage);
     }
+
+    @Override
+    public void setBatchExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+
+        batchExecutor = executor;
+    }
 }
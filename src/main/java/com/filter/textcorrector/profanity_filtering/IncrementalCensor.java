@@ -0,0 +1,150 @@
+package com.filter.textcorrector.profanity_filtering;
+
+import com.filter.textcorrector.util.TextChunks;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Censors a text that arrives in chunks, e.g. a live transcript, giving out the censored text as soon as
+ * no profane phrase can cover it any more. Only the text after the last such point is held, a few words usually,
+ * so memory doesn't grow with the length of the stream. Put together, the output is the same as the one of
+ * {@link ProfanityFilter#censor(String)} for the whole text, unless more than {@value #MAX_PENDING} chars
+ * go by without such a point: then the text is cut at the last whitespace anyway and a phrase with spaces
+ * across that cut is missed.
+ * A censor serves one stream at a time and isn't thread-safe, settings of the filter are taken when it's started.
+ */
+public class IncrementalCensor {
+    private static Logger LOGGER = LoggerFactory.getLogger(IncrementalCensor.class);
+
+    // Held text is given out anyway when it grows to this many chars without a boundary
+    private static final int MAX_PENDING = 64 * 1024;
+
+    private final UnaryOperator<String> censor;
+    private final TextChunks.Boundary boundary;
+    private final int lookahead;
+    private final StringBuilder pending = new StringBuilder();
+    // The last letters of the held text, up to lookahead of them and after its last symbol other than whitespace,
+    // the only held positions whose boundary check may change with the next chunk
+    private final IntArrayList openLetters = new IntArrayList();
+
+    /**
+     * @param lookahead number of letters from a position on that decide the boundary there for good,
+     *                  a symbol that is neither a letter nor whitespace decides it too.
+     */
+    IncrementalCensor(UnaryOperator<String> censor, TextChunks.Boundary boundary, int lookahead) {
+        this.censor = censor;
+        this.boundary = boundary;
+        this.lookahead = lookahead;
+    }
+
+    /**
+     * Adds the next chunk of the text. Only the positions of the chunk and the few held letters
+     * whose check wasn't final are checked, so a chunk takes time in proportion to its length.
+     *
+     * @param chunk text that follows the previous chunks.
+     * @return censored text that follows the previous output, empty if all the text is still held.
+     */
+    public String append(CharSequence chunk) {
+        int from = pending.length();
+        pending.append(chunk);
+
+        // The last boundary, text before it is final
+        int cut = 0;
+
+        for (int position = pending.length() - 1; position >= Math.max(from, 1) && cut == 0; position--) {
+            if (boundary.isCut(pending, position, false)) {
+                cut = position;
+            }
+        }
+
+        for (int i = openLetters.size() - 1; i >= 0 && cut == 0; i--) {
+            int position = openLetters.getInt(i);
+
+            if (position > 0 && boundary.isCut(pending, position, false)) {
+                cut = position;
+            }
+        }
+
+        trackOpenLetters(from);
+
+        if (cut > 0) {
+            return take(cut);
+        }
+
+        if (pending.length() >= MAX_PENDING) {
+            LOGGER.debug("No boundary found in " + pending.length() + " chars, text is cut anyway.");
+            return take(lastWhitespaceEnd());
+        }
+
+        return "";
+    }
+
+    /**
+     * Ends the text. The censor can be used for the next one afterwards.
+     *
+     * @return censored rest of the text.
+     */
+    public String finish() {
+        return take(pending.length());
+    }
+
+    /**
+     * @return number of chars held, which aren't censored yet.
+     */
+    public int getPendingLength() {
+        return pending.length();
+    }
+
+    private void trackOpenLetters(int from) {
+        for (int i = from; i < pending.length(); i++) {
+            char c = pending.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                openLetters.add(i);
+            } else if (!Character.isWhitespace(c)) {
+                openLetters.clear();
+            }
+        }
+
+        if (openLetters.size() > lookahead) {
+            openLetters.removeElements(0, openLetters.size() - lookahead);
+        }
+    }
+
+    /**
+     * @return position after the last whitespace in the second half of the held text, or its end if there's none.
+     * At least half of the text is given out, so forced cuts don't come chunk after chunk.
+     */
+    private int lastWhitespaceEnd() {
+        for (int position = pending.length() - 1; position > pending.length() / 2; position--) {
+            if (Character.isWhitespace(pending.charAt(position - 1))) {
+                return position;
+            }
+        }
+
+        return pending.length();
+    }
+
+    private String take(int length) {
+        if (length == 0) {
+            return "";
+        }
+
+        int kept = 0;
+
+        for (int i = 0; i < openLetters.size(); i++) {
+            if (openLetters.getInt(i) >= length) {
+                openLetters.set(kept++, openLetters.getInt(i) - length);
+            }
+        }
+
+        openLetters.size(kept);
+
+        String piece = pending.substring(0, length);
+        pending.delete(0, length);
+        return censor.apply(piece);
+    }
+}
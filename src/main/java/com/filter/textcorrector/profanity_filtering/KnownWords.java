@@ -0,0 +1,25 @@
+package com.filter.textcorrector.profanity_filtering;
+
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.DictionaryFactory;
+
+import java.util.function.Predicate;
+
+/**
+ * Words of the spelling dictionary of a language, as "shirt" close to "shit", which are never taken
+ * for misspelled profanity.
+ */
+final class KnownWords {
+
+    private KnownWords() {
+    }
+
+    /**
+     * Takes the spelling dictionary from the factory, loading it if no one did before.
+     */
+    static Predicate<String> of(Language language) {
+        Dictionary dictionary = DictionaryFactory.create(language);
+        return dictionary::contains;
+    }
+}
@@ -3,27 +3,56 @@ package com.filter.textcorrector.profanity_filtering;
 import com.filter.textcorrector.profanity_filtering.dictionary.Dictionary;
 import com.filter.textcorrector.profanity_filtering.dictionary.DictionaryFactory;
 import com.filter.textcorrector.profanity_filtering.model.Censored;
+import com.filter.textcorrector.profanity_filtering.model.LexiconStats;
+import com.filter.textcorrector.profanity_filtering.model.ProfaneSpan;
 import com.filter.textcorrector.spellchecking.Language;
-import com.filter.textcorrector.text_preproccessing.util.TextUtils;
+import com.filter.textcorrector.spellchecking.SymmetricDeleteSuggester;
+import com.filter.textcorrector.util.Batches;
+import com.filter.textcorrector.util.TextChunks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Checks given text for bad words.
+ * A filter can be shared by threads: its settings are an immutable snapshot, which every call reads once
+ * and setters replace atomically.
  */
 public class ProfanityFilter {
     private static Logger LOGGER = LoggerFactory.getLogger(ProfanityFilter.class);
-    private Dictionary dictionary;
-    private String wordReplacement;
-    private boolean wordRemoval;
+    // Chars in a piece of a streamed text
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+    private final AtomicReference<Options> options;
 
     private ProfanityFilter(Builder builder) {
-        this.wordReplacement = builder.wordReplacement;
-        this.wordRemoval = builder.wordRemoval;
-        dictionary = DictionaryFactory.create(builder.language, builder.dictionaryPath);
+        Options initialOptions = new Options(builder);
+        // Fails fast on unsupported language and loads the dictionary if no one did before
+        dictionary(initialOptions);
+
+        if (initialOptions.maxEditDistance > 0) {
+            KnownWords.of(initialOptions.language);
+        }
+
+        options = new AtomicReference<>(initialOptions);
     }
 
     /**
@@ -33,14 +62,11 @@ public class ProfanityFilter {
      * @return censored String.
      */
     public String censor(String input) {
+        Options options = this.options.get();
         LOGGER.debug("Given text: " + input);
         long startProccessingTime = System.nanoTime();
 
-        Set<String> badWords = dictionary.search(input);
-
-        if (badWords.size() > 0) {
-            input = clearMultipleProfanity(input.toLowerCase(), badWords);
-        }
+        input = censor(input, options, dictionary(options));
 
         long endProccessingTime = System.nanoTime();
 
@@ -50,14 +76,187 @@ public class ProfanityFilter {
         return input;
     }
 
+    /**
+     * Censors many texts in parallel on the common fork-join pool, see {@link #censorAll(List, Executor)}.
+     */
+    public List<String> censorAll(List<String> texts) {
+        return censorAll(texts, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Censors many texts at once, giving the same results as {@link #censor(String)} for each of them.
+     * Equal texts are censored once.
+     *
+     * @param texts    texts to censor.
+     * @param executor executor to run the work on.
+     * @return censored texts in order of given ones.
+     */
+    public List<String> censorAll(List<String> texts, Executor executor) {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
+        long startProccessingTime = System.nanoTime();
+
+        List<String> uniqueTexts = new ArrayList<>(new LinkedHashSet<>(texts));
+        List<String> censoredTexts = Batches.map(uniqueTexts, text -> censor(text, options, dictionary), executor);
+
+        Map<String, String> censoredByText = new HashMap<>(uniqueTexts.size() * 2);
+
+        for (int i = 0; i < uniqueTexts.size(); i++) {
+            censoredByText.put(uniqueTexts.get(i), censoredTexts.get(i));
+        }
+
+        List<String> results = new ArrayList<>(texts.size());
+
+        for (String text : texts) {
+            results.add(censoredByText.get(text));
+        }
+
+        long endProccessingTime = System.nanoTime();
+
+        LOGGER.debug("Censoring " + texts.size() + " texts took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
+
+        return results;
+    }
+
+    /**
+     * Censors a text of any length read from the input, see {@link #censor(Readable, Writer, int)}.
+     */
+    public void censor(Readable input, Writer output) throws IOException {
+        censor(input, output, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Censors a text piece by piece, so memory use doesn't depend on its length.
+     * Pieces are cut at word starts no profane phrase spans, so phrases split by line or chunk ends are found.
+     *
+     * @param input     text to censor, e.g. a {@link java.io.Reader} or {@link java.nio.CharBuffer}.
+     * @param output    writer for the censored text, it's flushed but not closed.
+     * @param chunkSize preferred number of chars in a piece.
+     */
+    public void censor(Readable input, Writer output, int chunkSize) throws IOException {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
+        long startProccessingTime = System.nanoTime();
+
+        TextChunks chunks = new TextChunks(input, chunkSize,
+                (text, position, endOfInput) -> isPhraseBoundary(dictionary, text, position, endOfInput));
+        String piece;
+
+        while ((piece = chunks.next()) != null) {
+            output.write(censor(piece, options, dictionary));
+        }
+
+        output.flush();
+
+        long endProccessingTime = System.nanoTime();
+
+        LOGGER.debug("Censoring stream took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
+    }
+
+    /**
+     * Starts censoring a text that arrives in chunks, see {@link IncrementalCensor}.
+     *
+     * @return censor of one text, which takes the current settings.
+     */
+    public IncrementalCensor startCensoring() {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
+
+        // A boundary is known for good once one letter more than the longest phrase has follows it
+        return new IncrementalCensor(text -> censor(text, options, dictionary),
+                (text, position, endOfInput) -> isPhraseBoundary(dictionary, text, position, endOfInput),
+                dictionary.getMaxPhraseLength() + 1);
+    }
+
+    /**
+     * Piece boundary at a word start, which no profane phrase found around it spans.
+     * The char before it can't continue a word (as an underscore or a combining mark does), so phrases at the start
+     * of a piece are whole words only if they are in the whole text.
+     * A phrase may have spaces between its letters, but no other symbols, so only text up to the longest phrase
+     * length of letters on both sides is checked.
+     */
+    private static boolean isPhraseBoundary(Dictionary dictionary, CharSequence text, int position, boolean endOfInput) {
+        char previous = text.charAt(position - 1);
+
+        if (Character.isLetterOrDigit(previous) || previous == '_'
+                || Character.getType(previous) == Character.NON_SPACING_MARK
+                || !Character.isLetterOrDigit(text.charAt(position))) {
+            return false;
+        }
+
+        int maxPhraseLength = dictionary.getMaxPhraseLength();
+
+        int windowStart = position;
+
+        for (int letters = 0; windowStart > 0 && letters < maxPhraseLength; windowStart--) {
+            char c = text.charAt(windowStart - 1);
+
+            if (Character.isLetterOrDigit(c)) {
+                letters++;
+            } else if (!Character.isWhitespace(c)) {
+                break;
+            }
+        }
+
+        int windowEnd = position;
+
+        // One letter more, so a phrase ending at the last one is known to end there
+        for (int letters = 0; letters <= maxPhraseLength; windowEnd++) {
+            if (windowEnd == text.length()) {
+                // A phrase may continue in the text not read yet
+                if (!endOfInput) {
+                    return false;
+                }
+                break;
+            }
+
+            char c = text.charAt(windowEnd);
+
+            if (Character.isLetterOrDigit(c)) {
+                letters++;
+            } else if (!Character.isWhitespace(c)) {
+                break;
+            }
+        }
+
+        String window = text.subSequence(windowStart, windowEnd).toString();
+        int cut = position - windowStart;
+
+        for (ProfaneSpan span : dictionary.find(window)) {
+            if (span.getBegin() < cut && span.getEnd() > cut) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String censor(String input, Options options, Dictionary dictionary) {
+        List<ProfaneSpan> spans = findProfanity(input, options, dictionary);
+
+        if (spans.size() > 0) {
+            input = replaceSpans(input, spans, options.wordReplacement);
+        }
+
+        return input;
+    }
+
     public Censored searchForProfanity(String input) {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
         LOGGER.debug("Given text: " + input);
         long startProccessingTime = System.nanoTime();
 
         Set<String> badWords = dictionary.search(input);
 
-        if (badWords.size() > 0) {
-            input = clearMultipleProfanity(input.toLowerCase(), badWords);
+        if (badWords.size() > 0 || options.maxEditDistance > 0) {
+            List<ProfaneSpan> spans = findProfanity(input, options, dictionary);
+
+            for (ProfaneSpan span : spans) {
+                badWords.add(span.getPhrase());
+            }
+
+            input = replaceSpans(input, spans, options.wordReplacement);
         }
 
         long endProccessingTime = System.nanoTime();
@@ -68,45 +267,215 @@ public class ProfanityFilter {
         return new Censored(input, badWords, !badWords.isEmpty());
     }
 
-    public void changeLanguage(Language language){
-        dictionary = DictionaryFactory.create(language, "");
+    /**
+     * Switches to the dictionary of the language, an unsupported language fails here.
+     *
+     * @return future completed once the dictionary is loaded in background, censoring waits for it anyway.
+     */
+    public CompletableFuture<Void> changeLanguage(Language language){
+        CompletableFuture<Void> loaded = DictionaryFactory.preload(language);
+        update(builder -> builder.withLanguage(language).withDictionary(""));
+        return loaded;
     }
 
+    /**
+     * Returns if the word is a profane phrase or, when misspellings are matched, a misspelling of one.
+     */
     public boolean isProfane(String word){
-        return dictionary.isProfane(word);
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
+
+        return dictionary.isProfane(word)
+                || (options.maxEditDistance > 0
+                && findSimilar(word, dictionary, KnownWords.of(options.language), options) != null);
     }
 
     public void setProfanityReplacement(String wordReplacement){
-        if (wordRemoval) {
-            this.wordReplacement = "";
-        } else {
-            this.wordReplacement = wordReplacement;
-        }
+        update(builder -> builder.withWordReplacement(wordReplacement));
     }
 
     public void removeProfaneWord(boolean removeProfaneWord){
-        this.wordRemoval = removeProfaneWord;
+        update(builder -> builder.withWordRemoval(removeProfaneWord));
+    }
+
+    public void setMaxEditDistance(int maxEditDistance){
+        update(builder -> builder.withMaxEditDistance(maxEditDistance));
+    }
+
+    /**
+     * Adds profane phrases to the dictionary of the filter, which is shared by all the filters using it.
+     * The dictionary is rebuilt in background, censoring goes on with the current one until it's done.
+     *
+     * @param phrases phrases to add.
+     * @return future completed once the phrases are censored.
+     */
+    public CompletableFuture<LexiconStats> addProfanity(Collection<String> phrases) {
+        return dictionary(options.get()).addPhrases(phrases);
+    }
+
+    /**
+     * Removes profane phrases from the dictionary of the filter, see {@link #addProfanity(Collection)}.
+     *
+     * @param phrases phrases to remove.
+     * @return future completed once the phrases are no longer censored.
+     */
+    public CompletableFuture<LexiconStats> removeProfanity(Collection<String> phrases) {
+        return dictionary(options.get()).removePhrases(phrases);
+    }
+
+    /**
+     * Replaces all phrases of the dictionary of the filter with a new list, a phrase per line,
+     * see {@link #addProfanity(Collection)}. The reader is closed.
+     *
+     * @param reader list of phrases.
+     * @return future completed once the new list is used.
+     */
+    public CompletableFuture<LexiconStats> reloadProfanity(Reader reader) throws IOException {
+        return dictionary(options.get()).reload(reader);
+    }
+
+    /**
+     * Replaces all phrases of the dictionary of the filter with the ones of a UTF-8 file, a phrase per line.
+     */
+    public CompletableFuture<LexiconStats> reloadProfanity(Path path) throws IOException {
+        return reloadProfanity(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return version, number of phrases and build time of the dictionary of the filter.
+     */
+    public LexiconStats getLexiconStats() {
+        return dictionary(options.get()).getStats();
+    }
 
-        if (wordRemoval) {
-            this.wordReplacement = "";
+    /**
+     * Replaces the settings with a copy changed by the given function. Concurrent changes are not lost.
+     */
+    private void update(UnaryOperator<Builder> change) {
+        options.updateAndGet(current -> new Options(change.apply(current.toBuilder())));
+    }
+
+    /**
+     * Dictionaries are shared and may be unloaded when idle, so the current one is taken from the factory
+     * once per call and passed on to everything the call does.
+     */
+    private static Dictionary dictionary(Options options) {
+        return DictionaryFactory.create(options.language, options.dictionaryPath);
+    }
+
+    /**
+     * Finds profane phrases and, when misspellings are matched, words that are misspellings of them.
+     *
+     * @return spans in order of the text.
+     */
+    private static List<ProfaneSpan> findProfanity(String input, Options options, Dictionary dictionary) {
+        List<ProfaneSpan> spans = dictionary.find(input);
+
+        if (options.maxEditDistance == 0) {
+            return spans;
         }
+
+        Predicate<String> knownWords = KnownWords.of(options.language);
+        List<ProfaneSpan> allSpans = new ArrayList<>(spans.size());
+        int next = 0;
+        int coveredEnd = 0;
+
+        for (int start = 0; start < input.length(); ) {
+            if (!Character.isLetterOrDigit(input.charAt(start))) {
+                start++;
+                continue;
+            }
+
+            int end = start + 1;
+
+            while (end < input.length() && Character.isLetterOrDigit(input.charAt(end))) {
+                end++;
+            }
+
+            // Phrases found as they are, which begin before the word's end, come first
+            for (; next < spans.size() && spans.get(next).getBegin() < end; next++) {
+                allSpans.add(spans.get(next));
+                coveredEnd = spans.get(next).getEnd();
+            }
+
+            if (coveredEnd <= start) {
+                String phrase = findSimilar(input.substring(start, end), dictionary, knownWords, options);
+
+                if (phrase != null) {
+                    allSpans.add(new ProfaneSpan(phrase, start, end));
+                }
+            }
+
+            start = end;
+        }
+
+        allSpans.addAll(spans.subList(next, spans.size()));
+        return allSpans;
     }
 
-    private String clearMultipleProfanity(String input, Set<String> badWords) {
-        Iterator<String> badWordIterator = badWords.iterator();
+    /**
+     * Words of the spelling dictionary are never taken for misspelled profanity.
+     */
+    private static String findSimilar(String word, Dictionary dictionary, Predicate<String> knownWords, Options options) {
+        if (knownWords.test(word)) {
+            return null;
+        }
+
+        return dictionary.findSimilar(word, options.maxEditDistance);
+    }
 
-        while (badWordIterator.hasNext()) {
-            String badWord = badWordIterator.next().replaceAll(" ", "");
-            input = TextUtils.replaceCompound(input, badWord.toLowerCase(), wordReplacement);
+    /**
+     * Copies the text with the replacement instead of each span in one pass, so the rest keeps its case.
+     *
+     * @param spans spans that don't overlap, in order of the text.
+     */
+    private static String replaceSpans(String input, List<ProfaneSpan> spans, String wordReplacement) {
+        StringBuilder censored = new StringBuilder(input.length());
+        int position = 0;
+
+        for (ProfaneSpan span : spans) {
+            censored.append(input, position, span.getBegin()).append(wordReplacement);
+            position = span.getEnd();
         }
 
-        return input;
+        return censored.append(input, position, input.length()).toString();
+    }
+
+    /**
+     * Settings of a filter, never changed once created.
+     */
+    private static final class Options {
+        private final Language language;
+        private final String dictionaryPath;
+        private final String wordReplacement;
+        private final boolean wordRemoval;
+        private final int maxEditDistance;
+
+        Options(Builder builder) {
+            language = builder.language;
+            dictionaryPath = builder.dictionaryPath;
+            wordReplacement = builder.wordReplacement;
+            wordRemoval = builder.wordRemoval;
+            maxEditDistance = builder.maxEditDistance;
+        }
+
+        Builder toBuilder() {
+            Builder builder = new Builder()
+                    .withLanguage(language)
+                    .withDictionary(dictionaryPath)
+                    .withWordRemoval(wordRemoval)
+                    .withMaxEditDistance(maxEditDistance);
+            // Set directly, as the builder would clear it again when removing words
+            builder.wordReplacement = wordReplacement;
+            return builder;
+        }
     }
 
     public static class Builder {
         private String wordReplacement = "[censored]";
         private String dictionaryPath = "";
         private boolean wordRemoval = false;
+        private int maxEditDistance = 0;
         private Language language = Language.ENGLISH;
 
         /**
@@ -141,6 +510,24 @@ public class ProfanityFilter {
             return this;
         }
 
+        /**
+         * Also censors misspelled profanity, e.g. "fcuking" or "shiit", which is looked up in a small index
+         * of the profane phrases. Words of the spelling dictionary of the language are left as they are.
+         *
+         * @param maxEditDistance maximum edit distance of a misspelling, from 0 (off, default) to 2.
+         *                        Words shorter than 8 letters may only be one edit away, shorter than 4 none.
+         * @return builder.
+         */
+        public Builder withMaxEditDistance(final int maxEditDistance) {
+            if (maxEditDistance < 0 || maxEditDistance > SymmetricDeleteSuggester.DEFAULT_MAX_EDIT_DISTANCE) {
+                throw new IllegalArgumentException("Max edit distance must be from 0 to "
+                        + SymmetricDeleteSuggester.DEFAULT_MAX_EDIT_DISTANCE + ".");
+            }
+
+            this.maxEditDistance = maxEditDistance;
+            return this;
+        }
+
         public Builder withDictionary(final String dictionaryPath) {
             this.dictionaryPath = dictionaryPath;
             return this;
@@ -163,22 +550,22 @@ public class ProfanityFilter {
                 .build();
 
         long startProccessingTime = System.nanoTime();
-        System.out.println(profanityFilter.dictionary.size());
+        System.out.println(dictionary(profanityFilter.options.get()).size());
         long endProccessingTime = System.nanoTime();
         LOGGER.debug("Checking size took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
 
         long startProccessingTime1 = System.nanoTime();
-        System.out.println("cunt - " + profanityFilter.dictionary.isProfane("Cunt"));
+        System.out.println("cunt - " + dictionary(profanityFilter.options.get()).isProfane("Cunt"));
         long endProccessingTime1 = System.nanoTime();
         LOGGER.debug("Checking for word took time: " + (endProccessingTime1 - startProccessingTime1) / (double) 1000000 + " ms");
 
         long startProccessingTime2 = System.nanoTime();
-        System.out.println("assassination - " + profanityFilter.dictionary.isProfane("assassination"));
+        System.out.println("assassination - " + dictionary(profanityFilter.options.get()).isProfane("assassination"));
         long endProccessingTime2 = System.nanoTime();
         LOGGER.debug("Checking for word took time: " + (endProccessingTime2 - startProccessingTime2) / (double) 1000000 + " ms");
 
         long startProccessingTime3 = System.nanoTime();
-        System.out.println("ass-fucker - " + profanityFilter.dictionary.isProfane("suck-off"));
+        System.out.println("ass-fucker - " + dictionary(profanityFilter.options.get()).isProfane("suck-off"));
         long endProccessingTime3 = System.nanoTime();
         LOGGER.debug("Checking for word took time: " + (endProccessingTime3 - startProccessingTime3) / (double) 1000000 + " ms");
 
@@ -1,9 +1,72 @@
 package com.filter.textcorrector.profanity_filtering.dictionary;
 
+import com.filter.textcorrector.profanity_filtering.model.LexiconStats;
+import com.filter.textcorrector.profanity_filtering.model.ProfaneSpan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface Dictionary {
     Set<String> search(String text);
+
+    /**
+     * Finds profane phrases in the text. Letters of a phrase may be separated by whitespace,
+     * a phrase is never a part of a longer word and phrases don't overlap, the longest one wins.
+     *
+     * @return spans of the phrases in order of the text.
+     */
+    List<ProfaneSpan> find(String text);
+
     boolean isProfane(String phrase);
+
+    /**
+     * Finds a profane phrase the word is a misspelling of, e.g. "shit" for "shiit" or "sh1t".
+     * Words of 4 to 7 letters may be one edit away from the phrase, longer ones two, shorter ones must match exactly.
+     * Only words of ASCII letters and digits are matched.
+     *
+     * @param word            word to check.
+     * @param maxEditDistance maximum edit distance, at most 2.
+     * @return the closest phrase, or null if there's none.
+     */
+    String findSimilar(String word, int maxEditDistance);
+
     int size();
+
+    /**
+     * @return number of letters and digits in the longest phrase, spaces aren't counted.
+     */
+    int getMaxPhraseLength();
+
+    /**
+     * Adds phrases in background, a phrase already there is replaced.
+     *
+     * @return future completed with the stats of the changed lexicon once searches use it.
+     */
+    CompletableFuture<LexiconStats> addPhrases(Collection<String> phrases);
+
+    /**
+     * Removes phrases in background, spaces and case are ignored.
+     *
+     * @return future completed with the stats of the changed lexicon once searches use it.
+     */
+    CompletableFuture<LexiconStats> removePhrases(Collection<String> phrases);
+
+    /**
+     * Replaces all phrases with the ones read from the reader, a phrase per line. The reader is read and closed
+     * by the calling thread, the lexicon is built in background.
+     *
+     * @return future completed with the stats of the new lexicon once searches use it.
+     */
+    CompletableFuture<LexiconStats> reload(Reader reader) throws IOException;
+
+    LexiconStats getStats();
+
+    /**
+     * @return true once phrases were changed at runtime, even if the change is still being built.
+     */
+    boolean isModified();
 }
@@ -1,13 +1,25 @@
 package com.filter.textcorrector.profanity_filtering.dictionary;
 
 import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.util.DictionaryRegistry;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+/**
+ * Gives out profanity dictionaries shared by all filters, loading each one on first use.
+ * Custom word lists are shared by path. Dictionaries changed at runtime are never unloaded when idle.
+ */
 public class DictionaryFactory {
-    private static Map<Language, Supplier<? extends Dictionary>> map = new HashMap<>();
+    private static Map<Language, Supplier<? extends Dictionary>> map = new EnumMap<>(Language.class);
+    private static final DictionaryRegistry<Language, Dictionary> languageDictionaries =
+            new DictionaryRegistry<>(language -> map.get(language).get(), DictionaryFactory::isUnchanged);
+    private static final DictionaryRegistry<String, Dictionary> customDictionaries =
+            new DictionaryRegistry<>(PlainDictionary::new, DictionaryFactory::isUnchanged);
 
     private DictionaryFactory() {
         throw new AssertionError("This class is not meant to be instantiated.");
@@ -21,17 +33,47 @@ public class DictionaryFactory {
         map.put(Language.RUSSIAN, RussianDictionary::new);*/
     }
 
+    private static boolean isUnchanged(Dictionary dictionary) {
+        return !dictionary.isModified();
+    }
+
     public static Dictionary create(final Language language, String dictionaryPath) {
         if(dictionaryPath != null && !dictionaryPath.isEmpty()){
-            return new PlainDictionary(dictionaryPath);
+            return customDictionaries.get(dictionaryPath);
         }
 
-        Supplier<? extends Dictionary> supplier = map.get(language);
-
-        if (supplier != null) {
-            return supplier.get();
+        if (map.containsKey(language)) {
+            return languageDictionaries.get(language);
         }
 
         throw new IllegalArgumentException("No such dictionary " + language.toString());
     }
+
+    /**
+     * Loads dictionaries in background, so the first filter using them doesn't wait.
+     *
+     * @param languages languages to load.
+     * @return future completed when all the dictionaries are loaded.
+     */
+    public static CompletableFuture<Void> preload(final Language... languages) {
+        for (Language language : languages) {
+            if (!map.containsKey(language)) {
+                throw new IllegalArgumentException("No such dictionary " + language.toString());
+            }
+        }
+
+        return languageDictionaries.preload(Arrays.asList(languages));
+    }
+
+    /**
+     * Unloads dictionaries that weren't used for the given time. They are loaded again when needed.
+     * Zero disables unloading (default).
+     *
+     * @param timeout idle time.
+     * @param unit    unit of the idle time.
+     */
+    public static void setIdleTimeout(long timeout, TimeUnit unit) {
+        languageDictionaries.setIdleTimeout(timeout, unit);
+        customDictionaries.setIdleTimeout(timeout, unit);
+    }
 }
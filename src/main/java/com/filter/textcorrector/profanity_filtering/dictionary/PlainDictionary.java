@@ -1,26 +1,57 @@
 package com.filter.textcorrector.profanity_filtering.dictionary;
 
-import com.filter.textcorrector.text_preproccessing.util.TextUtils;
+import com.filter.textcorrector.profanity_filtering.model.LexiconStats;
+import com.filter.textcorrector.profanity_filtering.model.ProfaneSpan;
+import com.filter.textcorrector.spellchecking.SymmetricDeleteSuggester;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
 import com.hankcs.algorithm.AhoCorasickDoubleArrayTrie;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.HashMap;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Profane phrases of a word list, found in texts with an Aho-Corasick automaton.
+ * Phrases can be added, removed and reloaded at runtime: a new lexicon is built in background and replaces
+ * the current one at once, searches running meanwhile keep using the one they started with and never wait.
+ */
 public class PlainDictionary implements Dictionary {
     private static Logger LOGGER = LoggerFactory.getLogger(PlainDictionary.class);
+    // Letters of a word per edit it may be away from a profane phrase
+    private static final int LETTERS_PER_EDIT = 4;
     private final String DICTIONARY_PATH;
 
-    private List<AhoCorasickDoubleArrayTrie<String>.Hit<String>> badWordList;
-    private AhoCorasickDoubleArrayTrie<String> dictionary = new AhoCorasickDoubleArrayTrie<>();
-    private Map<String, String> badWordsCompounds = new HashMap<>();
+    private static final ThreadLocal<HitBuffer> hitBuffer = ThreadLocal.withInitial(HitBuffer::new);
+
+    // Updates of all dictionaries are built one by one, each from the lexicon the previous one published
+    private static final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profanity-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Searches read it once and keep their state in locals and per-thread buffers
+    private final AtomicReference<Lexicon> lexicon = new AtomicReference<>();
+    // Set as soon as a change is submitted, before its lexicon is published
+    private volatile boolean modified;
 
     public PlainDictionary(final String dictionaryPath) {
         this.DICTIONARY_PATH = dictionaryPath;
@@ -29,43 +60,153 @@ public class PlainDictionary implements Dictionary {
 
     @Override
     public Set<String> search(String text) {
-        badWordList = null;
         return searchForBadWords(text);
     }
 
+    @Override
+    public List<ProfaneSpan> find(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+
+        List<ProfaneSpan> spans = findSpans(lexicon.get(), new ParsedText(text));
+        spans.sort((span1, span2) -> Integer.compare(span1.getBegin(), span2.getBegin()));
+        return spans;
+    }
+
     @Override
     public boolean isProfane(String phrase) {
-        int exactMatch = dictionary.exactMatchSearch(phrase.replaceAll("[^a-zA-Z0-9]", "").toLowerCase());
-        return exactMatch > 0;
+        int exactMatch = lexicon.get().dictionary.exactMatchSearch(phrase.replaceAll("[^a-zA-Z0-9]", "").toLowerCase());
+        return exactMatch >= 0;
+    }
+
+    @Override
+    public String findSimilar(String word, int maxEditDistance) {
+        Lexicon lexicon = this.lexicon.get();
+        String letters = word.toLowerCase();
+
+        for (int i = 0; i < letters.length(); i++) {
+            char current = letters.charAt(i);
+
+            if ((current < 'a' || current > 'z') && (current < '0' || current > '9')) {
+                return null;
+            }
+        }
+
+        if (lexicon.isInList(letters) >= 0) {
+            return lexicon.badWordsCompounds.get(letters);
+        }
+
+        int distance = Math.min(maxEditDistance, letters.length() / LETTERS_PER_EDIT);
+
+        if (distance <= 0) {
+            return null;
+        }
+
+        Suggestion closest = null;
+
+        for (Suggestion suggestion : lexicon.similarPhrases.getSuggestions(letters, distance)) {
+            if (closest == null || suggestion.getEditDistance() < closest.getEditDistance()
+                    || (suggestion.getEditDistance() == closest.getEditDistance()
+                    && suggestion.getWord().compareTo(closest.getWord()) < 0)) {
+                closest = suggestion;
+            }
+        }
+
+        return closest == null ? null : lexicon.badWordsCompounds.get(closest.getWord());
     }
 
     @Override
     public int size() {
-        return dictionary.size();
+        return lexicon.get().dictionary.size();
+    }
+
+    @Override
+    public int getMaxPhraseLength() {
+        return lexicon.get().maxPhraseLength;
+    }
+
+    @Override
+    public CompletableFuture<LexiconStats> addPhrases(Collection<String> phrases) {
+        return rebuild(badWordsCompounds -> phrases.forEach(phrase -> badWordsCompounds.put(compound(phrase), phrase)));
+    }
+
+    @Override
+    public CompletableFuture<LexiconStats> removePhrases(Collection<String> phrases) {
+        return rebuild(badWordsCompounds -> phrases.forEach(phrase -> badWordsCompounds.remove(compound(phrase))));
+    }
+
+    @Override
+    public CompletableFuture<LexiconStats> reload(Reader reader) throws IOException {
+        List<String> phrases;
+
+        try (BufferedReader lines = new BufferedReader(reader)) {
+            phrases = lines.lines().collect(Collectors.toList());
+        }
+
+        return rebuild(badWordsCompounds -> {
+            badWordsCompounds.clear();
+            phrases.forEach(phrase -> badWordsCompounds.put(compound(phrase), phrase));
+        });
+    }
+
+    @Override
+    public LexiconStats getStats() {
+        return lexicon.get().getStats();
+    }
+
+    @Override
+    public boolean isModified() {
+        return modified;
     }
 
     private void loadDictionary() {
         long startProccessingTime = System.nanoTime();
-        Map<String, String> words = new HashMap<>();
+        Map<String, String> badWordsCompounds = new LinkedHashMap<>();
 
         try (Stream<String> lines = new BufferedReader(
                 new InputStreamReader(getClass().getClassLoader().getResourceAsStream(DICTIONARY_PATH))).lines()) {
 
-            lines.forEach(badPhrase -> {
-                String word = badPhrase.replaceAll(" ", "").toLowerCase();
-                badWordsCompounds.put(word, badPhrase);
-                words.put(word, word);
-            });
+            lines.forEach(badPhrase -> badWordsCompounds.put(compound(badPhrase), badPhrase));
         } catch (Exception e) {
             LOGGER.debug("Something went wrong with loading a file.");
         }
 
         long endProccessingTime = System.nanoTime();
 
-        dictionary.build(words);
+        lexicon.set(new Lexicon(badWordsCompounds, 1));
         LOGGER.debug("Loading dictionary took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
     }
 
+    /**
+     * Builds a lexicon of the current phrases changed by the given function in background and publishes it.
+     *
+     * @return future completed with the stats of the new lexicon once searches use it.
+     */
+    private CompletableFuture<LexiconStats> rebuild(Consumer<Map<String, String>> change) {
+        modified = true;
+
+        return CompletableFuture.supplyAsync(() -> {
+            Lexicon current = lexicon.get();
+            Map<String, String> badWordsCompounds = new LinkedHashMap<>(current.badWordsCompounds);
+            change.accept(badWordsCompounds);
+
+            Lexicon rebuilt = new Lexicon(badWordsCompounds, current.version + 1);
+            lexicon.set(rebuilt);
+
+            LexiconStats stats = rebuilt.getStats();
+            LOGGER.debug("Profanity lexicon " + DICTIONARY_PATH + " rebuilt: " + stats);
+            return stats;
+        }, rebuildExecutor);
+    }
+
+    /**
+     * @return phrase as the automaton stores it.
+     */
+    private static String compound(String phrase) {
+        return phrase.replaceAll(" ", "").toLowerCase();
+    }
+
     /**
      * Returns a list with all bad words that occurred in the given text.
      *
@@ -77,39 +218,228 @@ public class PlainDictionary implements Dictionary {
             return new LinkedHashSet<>();
         }
 
+        Lexicon lexicon = this.lexicon.get();
         Set<String> badWords = new LinkedHashSet<>();
-        String parseInput = input.toLowerCase().replaceAll("[^a-zA-Z0-9]", "");
+        ParsedText parsedText = new ParsedText(input);
 
-        if(isInList(parseInput) > 0){
-            badWords.add(input);
+        if (lexicon.isInList(parsedText.letters) >= 0) {
+            // The phrase, not the input, as punctuation around it would break replacing it
+            badWords.add(lexicon.badWordsCompounds.get(parsedText.letters));
             return badWords;
         }
 
-        if (badWordList == null) {
-            badWordList = getBadWordList(parseInput);
+        for (ProfaneSpan span : findSpans(lexicon, parsedText)) {
+            badWords.add(span.getPhrase());
         }
 
-        String checkText = input.toLowerCase();
+        return badWords;
+    }
+
+    /**
+     * Checks the automaton's hits right where they are found, the longest first, and keeps the ones that
+     * are whole words and don't overlap a kept one. Each check takes constant time.
+     *
+     * @return spans of the kept hits in the order they were kept.
+     */
+    private static List<ProfaneSpan> findSpans(Lexicon lexicon, ParsedText parsedText) {
+        // One dictionary is shared by all the filters of its language, so hits go to a buffer of the thread
+        HitBuffer hits = hitBuffer.get();
+        hits.reset();
+        lexicon.dictionary.parseText(parsedText.letters, hits);
 
-        for (AhoCorasickDoubleArrayTrie<String>.Hit<String> hit : badWordList) {
-            String profanePhrase = hit.value;
-            LOGGER.debug(profanePhrase + " - " + "[" + hit.begin + ":" + hit.end + "]" + " - qualified as a bad word");
+        List<ProfaneSpan> spans = new ArrayList<>();
 
-            if (TextUtils.containsCompound(checkText, profanePhrase)) {
-                badWords.add(badWordsCompounds.get(profanePhrase));
-                checkText = TextUtils.replaceCompound(checkText, profanePhrase, "");
+        if (hits.size == 0) {
+            return spans;
+        }
+
+        hits.prepare(parsedText.letters.length());
+        boolean[] covered = hits.covered;
+
+        for (int i = 0; i < hits.size; i++) {
+            int begin = hits.begin(i);
+            int end = hits.end(i);
+
+            // A kept hit is at least as long as this one, so it covers one of its ends if they overlap
+            if (covered[begin] || covered[end - 1] || !parsedText.isWord(begin, end)) {
+                continue;
             }
+
+            String profanePhrase = parsedText.letters.substring(begin, end);
+            LOGGER.debug(profanePhrase + " - " + "[" + begin + ":" + end + "]" + " - qualified as a bad word");
+
+            Arrays.fill(covered, begin, end, true);
+            spans.add(new ProfaneSpan(lexicon.badWordsCompounds.get(profanePhrase),
+                    parsedText.positions[begin], parsedText.positions[end - 1] + 1));
         }
-        return badWords;
+
+        return spans;
     }
 
-    private List<AhoCorasickDoubleArrayTrie<String>.Hit<String>> getBadWordList(String input) {
-        List<AhoCorasickDoubleArrayTrie<String>.Hit<String>> badWords = dictionary.parseText(input);
-        badWords.sort((word1, word2) -> Integer.compare(word2.value.length(), word1.value.length()));
-        return badWords;
+    /**
+     * Phrases and everything built of them, never changed once created, so it can be shared between threads.
+     */
+    private static final class Lexicon {
+        private final AhoCorasickDoubleArrayTrie<String> dictionary = new AhoCorasickDoubleArrayTrie<>();
+        // Phrase without spaces in lower case -> phrase
+        private final Map<String, String> badWordsCompounds;
+        // Delete index of the phrases without spaces, for misspelled ones
+        private final SymmetricDeleteSuggester similarPhrases;
+        private final int maxPhraseLength;
+        private final long version;
+        // Nanoseconds it took to build
+        private final long buildTime;
+
+        Lexicon(Map<String, String> badWordsCompounds, long version) {
+            long startTime = System.nanoTime();
+
+            badWordsCompounds.remove("");
+            this.badWordsCompounds = badWordsCompounds;
+            this.version = version;
+
+            Map<String, String> words = new LinkedHashMap<>();
+
+            for (String word : badWordsCompounds.keySet()) {
+                words.put(word, word);
+            }
+
+            dictionary.build(words);
+            similarPhrases = new SymmetricDeleteSuggester(words.keySet());
+            maxPhraseLength = words.keySet().stream().mapToInt(String::length).max().orElse(0);
+
+            buildTime = System.nanoTime() - startTime;
+        }
+
+        /**
+         * @return index of the phrase, the first one's is zero, or -1 if it isn't in the lexicon.
+         */
+        int isInList(String phrase) {
+            return dictionary.exactMatchSearch(phrase);
+        }
+
+        LexiconStats getStats() {
+            return new LexiconStats(version, badWordsCompounds.size(), buildTime / (double) 1000000);
+        }
     }
 
-    private int isInList(String phrase){
-        return dictionary.exactMatchSearch(phrase);
+    /**
+     * Lowercase ASCII letters and digits of a text, which the automaton reads, mapped back to the text.
+     */
+    private static final class ParsedText {
+        private final String text;
+        private final String letters;
+        // Position of each letter in the text
+        private final int[] positions;
+        // Number of letters up to each one that are separated from the previous letter by more than whitespace
+        private final int[] breaks;
+
+        ParsedText(String text) {
+            this.text = text;
+            char[] letters = new char[text.length()];
+            positions = new int[text.length()];
+            breaks = new int[text.length()];
+
+            int count = 0;
+            boolean broken = false;
+
+            for (int i = 0; i < text.length(); i++) {
+                char current = Character.toLowerCase(text.charAt(i));
+
+                if ((current >= 'a' && current <= 'z') || (current >= '0' && current <= '9')) {
+                    letters[count] = current;
+                    positions[count] = i;
+                    breaks[count] = count == 0 ? 0 : breaks[count - 1] + (broken ? 1 : 0);
+                    count++;
+                    broken = false;
+                } else if (!isSpace(current)) {
+                    broken = true;
+                }
+            }
+
+            this.letters = new String(letters, 0, count);
+        }
+
+        /**
+         * Letters from begin to end form a word of the text: only whitespace separates them
+         * and there are word boundaries around them.
+         */
+        boolean isWord(int begin, int end) {
+            return breaks[end - 1] == breaks[begin]
+                    && !isWordChar(positions[begin] - 1)
+                    && !isWordChar(positions[end - 1] + 1);
+        }
+
+        /**
+         * Word chars of regex word boundaries, a combining mark continues a word.
+         */
+        private boolean isWordChar(int position) {
+            if (position < 0 || position >= text.length()) {
+                return false;
+            }
+
+            char current = text.charAt(position);
+
+            return Character.isLetterOrDigit(current) || current == '_'
+                    || Character.getType(current) == Character.NON_SPACING_MARK;
+        }
+
+        /**
+         * Whitespace of regular expressions (\s).
+         */
+        private static boolean isSpace(char c) {
+            return c == ' ' || (c >= '\t' && c <= '\r');
+        }
+    }
+
+    /**
+     * Hits of a search packed into longs as (minus length, begin), so sorted ones are the longest first,
+     * and marks of the letters covered by kept hits. Reused by all the searches of a thread.
+     */
+    private static final class HitBuffer implements AhoCorasickDoubleArrayTrie.IHit<String> {
+        private static final int INITIAL_CAPACITY = 64;
+        // Larger arrays, grown by a huge text, aren't kept for the next searches
+        private static final int RETAINED_CAPACITY = 1 << 12;
+
+        private long[] hits = new long[INITIAL_CAPACITY];
+        private int size;
+        private boolean[] covered = new boolean[INITIAL_CAPACITY];
+
+        @Override
+        public void hit(int begin, int end, String value) {
+            if (size == hits.length) {
+                hits = Arrays.copyOf(hits, size * 2);
+            }
+
+            hits[size++] = ((long) (begin - end) << 32) | begin;
+        }
+
+        void reset() {
+            size = 0;
+
+            if (hits.length > RETAINED_CAPACITY) {
+                hits = new long[INITIAL_CAPACITY];
+            }
+        }
+
+        /**
+         * Sorts the hits and clears the marks of the given number of letters.
+         */
+        void prepare(int letterCount) {
+            Arrays.sort(hits, 0, size);
+
+            if (covered.length < letterCount || covered.length > RETAINED_CAPACITY) {
+                covered = new boolean[Math.max(letterCount, INITIAL_CAPACITY)];
+            } else {
+                Arrays.fill(covered, 0, letterCount, false);
+            }
+        }
+
+        int begin(int hit) {
+            return (int) hits[hit];
+        }
+
+        int end(int hit) {
+            return (int) hits[hit] - (int) (hits[hit] >> 32);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.filter.textcorrector.profanity_filtering.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a profanity lexicon: version 1 is the one loaded from its list, every runtime change adds one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LexiconStats {
+    private long version;
+    private int size;
+    private double buildTimeMillis;
+}
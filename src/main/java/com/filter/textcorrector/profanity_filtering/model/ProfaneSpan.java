@@ -0,0 +1,17 @@
+package com.filter.textcorrector.profanity_filtering.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Profane phrase found in a text: chars from begin (inclusive) to end (exclusive) of the text.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfaneSpan {
+    private String phrase;
+    private int begin;
+    private int end;
+}
@@ -0,0 +1,108 @@
+package com.filter.textcorrector.spellchecking;
+
+import com.filter.textcorrector.spellchecking.util.Soundex;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Phonetic codes of dictionary words, computed once when the dictionary is loaded, and the words grouped by code.
+ * Words are referred to by their index in the array the index was built from. Equal codes are stored once.
+ * The index is immutable once built and can be shared between threads.
+ */
+public class PhoneticIndex {
+    private final String[] words;
+    private final String[] codes;
+
+    // Code -> number of its bucket in offsets
+    private final Object2IntOpenHashMap<String> buckets;
+    // Bucket i holds word indexes postings[offsets[i]] .. postings[offsets[i + 1] - 1], in increasing order
+    private final int[] offsets;
+    private final int[] postings;
+
+    /**
+     * @param words dictionary words, the array is kept, not copied.
+     */
+    public PhoneticIndex(String[] words) {
+        this.words = words;
+        codes = new String[words.length];
+
+        Map<String, String> uniqueCodes = new HashMap<>();
+        buckets = new Object2IntOpenHashMap<>();
+        buckets.defaultReturnValue(-1);
+
+        int[] bucketSizes = new int[words.length];
+        int[] wordBuckets = new int[words.length];
+
+        for (int i = 0; i < words.length; i++) {
+            String code = uniqueCodes.computeIfAbsent(Soundex.translate(words[i]), key -> key);
+            codes[i] = code;
+
+            int bucket = buckets.getInt(code);
+
+            if (bucket < 0) {
+                bucket = buckets.size();
+                buckets.put(code, bucket);
+            }
+
+            wordBuckets[i] = bucket;
+            bucketSizes[bucket]++;
+        }
+
+        offsets = new int[buckets.size() + 1];
+        for (int bucket = 0; bucket < buckets.size(); bucket++) {
+            offsets[bucket + 1] = offsets[bucket] + bucketSizes[bucket];
+        }
+
+        postings = new int[words.length];
+        int[] filled = new int[buckets.size()];
+
+        for (int i = 0; i < words.length; i++) {
+            int bucket = wordBuckets[i];
+            postings[offsets[bucket] + filled[bucket]++] = i;
+        }
+    }
+
+    /**
+     * @return phonetic code of the word with given index.
+     */
+    public String getCode(int wordIndex) {
+        return codes[wordIndex];
+    }
+
+    /**
+     * Passes indexes of all the words with the code to the action.
+     *
+     * @param code   phonetic code, see {@link Soundex#translate(String)}.
+     * @param action consumer of word indexes.
+     */
+    public void forEachWord(String code, IntConsumer action) {
+        int bucket = buckets.getInt(code);
+
+        if (bucket >= 0) {
+            for (int i = offsets[bucket]; i < offsets[bucket + 1]; i++) {
+                action.accept(postings[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the words that sound like the given one.
+     *
+     * @param word word to look candidates for.
+     * @return words with the same phonetic code.
+     */
+    public List<String> getWords(String word) {
+        List<String> results = new ArrayList<>();
+        forEachWord(Soundex.translate(word), index -> results.add(words[index]));
+        return results;
+    }
+
+    public int getNumberOfCodes() {
+        return buckets.size();
+    }
+}
@@ -2,304 +2,457 @@ package com.filter.textcorrector.spellchecking;
 
 import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
 import com.filter.textcorrector.spellchecking.dictionary.DictionaryFactory;
+import com.filter.textcorrector.spellchecking.model.CacheStats;
 import com.filter.textcorrector.spellchecking.model.Suggestion;
 import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
 import com.filter.textcorrector.spellchecking.util.Soundex;
 import com.filter.textcorrector.text_preproccessing.TextPreproccessor;
-import com.filter.textcorrector.text_preproccessing.util.CleanTextType;
 import com.filter.textcorrector.text_preproccessing.util.TextUtils;
+import com.filter.textcorrector.text_preproccessing.util.WordSpans;
+import com.filter.textcorrector.util.Batches;
+import com.filter.textcorrector.util.TextChunks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+/**
+ * Spellchecker can be shared by threads: its settings are an immutable snapshot, which every call reads once
+ * and setters replace atomically, and the dictionaries and preproccessor it uses keep no state between calls.
+ */
 public class Spellchecker {
     //TODO: maybe increase this factor (try word 'hrlo').
     private static final float MAX_SOUNDEX_DISTANCE = 0.09f;
 
     private static Logger LOGGER = LoggerFactory.getLogger(Spellchecker.class);
+    // Chars in a piece of a streamed text
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
     private static final SuggestionDistanceComparator suggestionDistanceComparator = new SuggestionDistanceComparator();
 
-    private Dictionary dictionary;
-    private TextPreproccessor textPreproccessor;
-
-    private float maxEditDistancePercent;
-    private boolean keepUnrecognized;
-    private int suggestionLimit;
-    private boolean checkCompounds;
-    private boolean removeRepeatedLetters;
-    private boolean doPreproccessing;
+    private final AtomicReference<Options> options;
+    private final TextPreproccessor textPreproccessor;
+    private final SuggestionCache suggestionCache;
 
     public Spellchecker(Builder builder) {
-        maxEditDistancePercent = builder.maxEditDistancePercent;
-        keepUnrecognized = builder.keepUnrecognized;
-        suggestionLimit = builder.suggestionLimit;
-        checkCompounds = builder.checkCompounds;
-        removeRepeatedLetters = builder.removeRepeatedLetters;
-        doPreproccessing = builder.doPreproccessing;
-
-        dictionary = DictionaryFactory.create(builder.language);
+        Options initialOptions = new Options(builder);
+        // Fails fast on unsupported language and loads the dictionary if no one did before
+        dictionary(initialOptions);
+
+        options = new AtomicReference<>(initialOptions);
         textPreproccessor = TextPreproccessor.getInstance();
+        suggestionCache = new SuggestionCache(builder.suggestionCacheSize);
     }
 
     public List<String> checkWord(String word) {
+        Options options = this.options.get();
         long startProccessingTime1 = System.nanoTime();
-        List<Suggestion> suggestions = getWordSuggestions(word, doPreproccessing, removeRepeatedLetters);
+        List<Suggestion> suggestions = getWordSuggestions(word, options, dictionary(options), options.suggestionLimit);
         long endProccessingTime1 = System.nanoTime();
         LOGGER.debug("Word c took time: " + (endProccessingTime1 - startProccessingTime1) / (double) 1000000 + " ms");
-        return convertList(suggestions, Suggestion::getWord);
+        return convertList(suggestions, Suggestion::getWord, options.suggestionLimit);
     }
 
     public List<String> checkCompound(String compound) {
+        Options options = this.options.get();
         long startProccessingTime1 = System.nanoTime();
-        List<Suggestion> suggestions = getCompoundSuggestions(compound, doPreproccessing, removeRepeatedLetters);
+        List<Suggestion> suggestions = getCompoundSuggestions(compound, options, dictionary(options), options.suggestionLimit);
         long endProccessingTime1 = System.nanoTime();
         LOGGER.debug("Word c took time: " + (endProccessingTime1 - startProccessingTime1) / (double) 1000000 + " ms");
-        return convertList(suggestions, Suggestion::getWord);
+        return convertList(suggestions, Suggestion::getWord, options.suggestionLimit);
     }
 
     public boolean isValid(String word) {
-        return dictionary.contains(word.toLowerCase());
+        return dictionary(options.get()).contains(word.toLowerCase());
     }
 
     //TODO: when similar words are misspelled differently there will be two occurrences in map
     //TODO: return original text if not recognized, not preproccessed.
-    //TODO: takes to long for a single word. Why?
     public String checkText(String text) {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
 
         long startProccessingTime = System.nanoTime();
 
-        if (text.length() == 0) {
-            return text;
-        }
+        String preproccessedText = preproccess(text, options);
+        Map<String, String> suggestedReplacements = new HashMap<>();
 
-        boolean firstLetterUpper = Character.isUpperCase(text.charAt(0));
+        String checkedText = rewrite(preproccessedText, WordSpans.of(preproccessedText),
+                word -> suggestedReplacements.computeIfAbsent(word, key -> correctWord(key, options, dictionary)), startsWithUpperCase(text));
 
-        Map<String, String> suggestedReplacements = new HashMap<>();
+        long endProccessingTime = System.nanoTime();
 
-        String preproccessedText = text;
+        LOGGER.debug("Checking took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
 
-        if (doPreproccessing) {
-            preproccessedText = textPreproccessor.preproccess(text, removeRepeatedLetters);
-        }
+        return checkedText;
+    }
 
-        String[] words = TextUtils.splitCleanText(preproccessedText, CleanTextType.SPLIT_WITHOUT_CLEANING);
+    /**
+     * Checks many texts in parallel on the common fork-join pool, see {@link #checkTexts(List, Executor)}.
+     */
+    public List<String> checkTexts(List<String> texts) {
+        return checkTexts(texts, ForkJoinPool.commonPool());
+    }
 
-        for (int i = 0; i < words.length; i++) {
-            String word = words[i];
+    /**
+     * Checks many texts at once, giving the same results as {@link #checkText(String)} for each of them.
+     * Equal texts are checked once, and so is every distinct word of the whole batch.
+     *
+     * @param texts    texts to check.
+     * @param executor executor to run the work on.
+     * @return checked texts in order of given ones.
+     */
+    public List<String> checkTexts(List<String> texts, Executor executor) {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
 
-            //String cleanWord = TextUtils.cleanText(word, CleanTextType.CLEAR_PUNCTUATION);
+        long startProccessingTime = System.nanoTime();
 
-            if (TextUtils.containsDigit(word)) {
-                continue;
-            }
+        List<String> uniqueTexts = new ArrayList<>(new LinkedHashSet<>(texts));
+        List<String> preproccessedTexts = Batches.map(uniqueTexts, text -> preproccess(text, options), executor);
+        List<WordSpans> textWords = Batches.map(preproccessedTexts, WordSpans::of, executor);
 
-            String fixedWord;
+        Set<String> uniqueWords = new LinkedHashSet<>();
 
-            if (TextUtils.hasSpecialChar(word)) {
-                word = TextUtils.cleanText(word, CleanTextType.CLEAR_IRRELEVANT_SYMBOLS);
-                // word = cleanWord;
+        for (int i = 0; i < textWords.size(); i++) {
+            WordSpans words = textWords.get(i);
+
+            for (int j = 0; j < words.size(); j++) {
+                uniqueWords.add(words.getWord(j));
             }
+        }
 
-            if (!suggestedReplacements.containsKey(word) && !dictionary.contains(word.toLowerCase())) {
+        List<String> wordList = new ArrayList<>(uniqueWords);
+        List<String> fixedWords = Batches.map(wordList, word -> correctWord(word, options, dictionary), executor);
 
-                List<Suggestion> wordSuggestions;
+        Map<String, String> suggestedReplacements = new HashMap<>(wordList.size() * 2);
 
-                //TODO: seems like we don't need preproc. here. (but works faster with it)
-                if (checkCompounds) {
-                    wordSuggestions = getCompoundSuggestions(word, doPreproccessing, removeRepeatedLetters);
-                } else {
-                    wordSuggestions = getWordSuggestions(word, doPreproccessing, removeRepeatedLetters);
-                }
+        for (int i = 0; i < wordList.size(); i++) {
+            suggestedReplacements.put(wordList.get(i), fixedWords.get(i));
+        }
 
-                if (wordSuggestions == null || wordSuggestions.isEmpty()) {
-                    fixedWord = "";
-                } else {
-                    Suggestion suggestion = wordSuggestions.get(0);
+        List<Integer> indexes = new ArrayList<>(uniqueTexts.size());
 
-                    if (suggestion.getSoundexCodeDistance() >= MAX_SOUNDEX_DISTANCE) {
-                        fixedWord = word;
-                    } else {
-                        fixedWord = suggestion.getWord();
-                    }
-                }
+        for (int i = 0; i < uniqueTexts.size(); i++) {
+            indexes.add(i);
+        }
 
-                suggestedReplacements.put(word, fixedWord);
+        List<String> checkedTexts = Batches.map(indexes, i -> rewrite(preproccessedTexts.get(i), textWords.get(i),
+                suggestedReplacements::get, startsWithUpperCase(uniqueTexts.get(i))), executor);
 
-                preproccessedText = TextUtils.replaceWord(preproccessedText, word, fixedWord);
+        Map<String, String> checkedByText = new HashMap<>(uniqueTexts.size() * 2);
 
-            }
+        for (int i = 0; i < uniqueTexts.size(); i++) {
+            checkedByText.put(uniqueTexts.get(i), checkedTexts.get(i));
         }
 
-        if (preproccessedText.length() > 0) {
-            preproccessedText = firstLetterUpper ?
-                    Character.toUpperCase(preproccessedText.charAt(0)) + preproccessedText.substring(1) :
-                    preproccessedText;
+        List<String> results = new ArrayList<>(texts.size());
+
+        for (String text : texts) {
+            results.add(checkedByText.get(text));
         }
 
         long endProccessingTime = System.nanoTime();
 
-        LOGGER.debug("Checking took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
+        LOGGER.debug("Checking " + texts.size() + " texts took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
+
+        return results;
+    }
+
+    /**
+     * Checks a text of any length read from the input, see {@link #checkText(Readable, Writer, int)}.
+     */
+    public void checkText(Readable input, Writer output) throws IOException {
+        checkText(input, output, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Checks a text piece by piece, so memory use doesn't depend on its length.
+     * Pieces are cut between whitespace and a word, never between single letters the preproccessor would join,
+     * so the result is the same as of {@link #checkText(String)} for the whole text.
+     *
+     * @param input     text to check, e.g. a {@link java.io.Reader} or {@link java.nio.CharBuffer}.
+     * @param output    writer for the checked text, it's flushed but not closed.
+     * @param chunkSize preferred number of chars in a piece.
+     */
+    public void checkText(Readable input, Writer output, int chunkSize) throws IOException {
+        Options options = this.options.get();
+        Dictionary dictionary = dictionary(options);
+
+        long startProccessingTime = System.nanoTime();
+
+        TextChunks chunks = new TextChunks(input, chunkSize, Spellchecker::isWordStart);
+        boolean capitalize = true;
+        String piece;
+
+        while ((piece = chunks.next()) != null) {
+            String preproccessedText = preproccess(piece, options);
+            // Per piece, so memory doesn't grow with the number of distinct words
+            Map<String, String> suggestedReplacements = new HashMap<>();
+
+            output.write(rewrite(preproccessedText, WordSpans.of(preproccessedText),
+                    word -> suggestedReplacements.computeIfAbsent(word, key -> correctWord(key, options, dictionary)),
+                    capitalize && startsWithUpperCase(piece)));
 
-        return preproccessedText;
+            capitalize = false;
+        }
+
+        output.flush();
+
+        long endProccessingTime = System.nanoTime();
+
+        LOGGER.debug("Checking stream took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
+    }
+
+    /**
+     * Piece boundary at the start of a word following whitespace.
+     * Both neighbouring words must be longer than a letter, as the preproccessor joins single letters split by spaces.
+     */
+    private static boolean isWordStart(CharSequence text, int position, boolean endOfInput) {
+        if (!Character.isWhitespace(text.charAt(position - 1)) || Character.isWhitespace(text.charAt(position))) {
+            return false;
+        }
+
+        int wordEnd = position;
+
+        while (wordEnd < text.length() && Character.isLetterOrDigit(text.charAt(wordEnd))) {
+            wordEnd++;
+        }
+
+        // The word may continue in the text not read yet
+        if (wordEnd == text.length() && !endOfInput) {
+            return false;
+        }
+
+        int previousWordEnd = position - 1;
+
+        while (previousWordEnd > 0 && Character.isWhitespace(text.charAt(previousWordEnd - 1))) {
+            previousWordEnd--;
+        }
+
+        int previousWordStart = previousWordEnd;
+
+        while (previousWordStart > 0 && Character.isLetterOrDigit(text.charAt(previousWordStart - 1))) {
+            previousWordStart--;
+        }
+
+        return wordEnd - position != 1 && previousWordEnd - previousWordStart != 1;
+    }
+
+    private static boolean startsWithUpperCase(String text) {
+        return text.length() > 0 && Character.isUpperCase(text.charAt(0));
+    }
+
+    private String preproccess(String text, Options options) {
+        if (options.doPreproccessing && text.length() > 0) {
+            return textPreproccessor.preproccess(text, options.removeRepeatedLetters);
+        }
+
+        return text;
+    }
+
+    /**
+     * Writes the preproccessed text in one pass, with each word replaced by its correction.
+     *
+     * @param preproccessedText text words were found in.
+     * @param words             words of preproccessed text.
+     * @param corrections       gives the correction of a word.
+     * @param capitalize        whether to make the first letter upper case, as it was in the original text.
+     * @return checked text.
+     */
+    private static String rewrite(String preproccessedText, WordSpans words, Function<String, String> corrections, boolean capitalize) {
+        StringBuilder checkedText = new StringBuilder(preproccessedText.length());
+        int copiedTo = 0;
+
+        for (int i = 0; i < words.size(); i++) {
+            checkedText.append(preproccessedText, copiedTo, words.getStart(i)).append(corrections.apply(words.getWord(i)));
+            copiedTo = words.getEnd(i);
+        }
+
+        checkedText.append(preproccessedText, copiedTo, preproccessedText.length());
+
+        if (capitalize && checkedText.length() > 0) {
+            checkedText.setCharAt(0, Character.toUpperCase(checkedText.charAt(0)));
+        }
+
+        return checkedText.toString();
+    }
+
+    /**
+     * @return the word itself if it's known or can't be checked, its best suggestion or empty string otherwise.
+     */
+    private String correctWord(String word, Options options, Dictionary dictionary) {
+        if (TextUtils.containsDigit(word) || dictionary.contains(word.toLowerCase())) {
+            return word;
+        }
+
+        List<Suggestion> wordSuggestions;
+
+        // Only the best suggestion is used, which is found with much less search
+        //TODO: seems like we don't need preproc. here. (but works faster with it)
+        if (options.checkCompounds) {
+            wordSuggestions = getCompoundSuggestions(word, options, dictionary, 1);
+        } else {
+            wordSuggestions = getWordSuggestions(word, options, dictionary, 1);
+        }
+
+        if (wordSuggestions == null || wordSuggestions.isEmpty()) {
+            return "";
+        }
+
+        Suggestion suggestion = wordSuggestions.get(0);
+
+        if (suggestion.getSoundexCodeDistance() >= MAX_SOUNDEX_DISTANCE) {
+            return word;
+        }
+
+        return suggestion.getWord();
+    }
+
+    /**
+     * Dictionaries are shared and may be unloaded when idle, so the current one is taken from the factory
+     * once per call and passed on to everything the call does.
+     */
+    private static Dictionary dictionary(Options options) {
+        return DictionaryFactory.create(options.language, options.suggestionEngine);
     }
 
     public void changeLanguage(Language language){
-        dictionary = DictionaryFactory.create(language);
+        DictionaryFactory.create(language, options.get().suggestionEngine);
+        options.updateAndGet(current -> new Options(current.toBuilder(language)));
+        suggestionCache.invalidate();
     }
 
     public void keepUnrecognized(boolean keepUnrecognized) {
-        this.keepUnrecognized = keepUnrecognized;
+        update(builder -> builder.withKeepingUnrecognized(keepUnrecognized));
     }
 
     public void setSuggestionLimit(int suggestionLimit) {
-        this.suggestionLimit = suggestionLimit;
+        update(builder -> builder.withSuggestionLimit(suggestionLimit));
     }
 
     public void doCheckCompounds(boolean checkCompounds) {
-        this.checkCompounds = checkCompounds;
+        update(builder -> builder.withCheckingCompounds(checkCompounds));
     }
 
     public void doRemoveRepeatedLetters(boolean removeRepeatedLetters) {
-        this.removeRepeatedLetters = removeRepeatedLetters;
+        update(builder -> builder.withRemovingRepeatedLetters(removeRepeatedLetters));
     }
 
     public void doPreproccessing(boolean doPreproccessing) {
-        this.doPreproccessing = doPreproccessing;
+        update(builder -> builder.withPreproccessing(doPreproccessing));
     }
 
     public void setMaxMatchPercentage(float maxEditDistancePercent){
-        this.maxEditDistancePercent = maxEditDistancePercent;
+        update(builder -> builder.withEditDistancePercent(maxEditDistancePercent));
+    }
+
+    /**
+     * Replaces the settings with a copy changed by the given function. Concurrent changes are not lost.
+     */
+    private void update(UnaryOperator<Builder> change) {
+        options.updateAndGet(current -> new Options(change.apply(current.toBuilder(current.language))));
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the suggestion cache since the spellchecker was created.
+     */
+    public CacheStats getCacheStats() {
+        return suggestionCache.getStats();
     }
 
-    private <F, T> List<T> convertList(List<F> from, Function<F, T> by) {
+    private static <F, T> List<T> convertList(List<F> from, Function<F, T> by, int suggestionLimit) {
         return from.stream().limit(suggestionLimit).map(by).collect(Collectors.toList());
     }
 
     //TODO: When keepUnrecognized == false - don't return null list.
-    private List<Suggestion> getWordSuggestions(String word, boolean doPreproccessing, boolean removeRepeatedLetters) {
+    private List<Suggestion> getWordSuggestions(String word, Options options, Dictionary dictionary, int suggestionLimit) {
         if (word == null) {
             throw new IllegalArgumentException("Can't give suggestions fo null word.");
         }
 
-        if (doPreproccessing) {
-            word = textPreproccessor.preproccess(word, removeRepeatedLetters);
+        if (options.doPreproccessing) {
+            word = textPreproccessor.preproccess(word, options.removeRepeatedLetters);
         }
 
-        if (word.equals("") || isValid(word)) {
+        if (word.equals("") || dictionary.contains(word.toLowerCase())) {
             return Collections.singletonList(new Suggestion(word, 0, 0, 100));
         }
 
-        List<Suggestion> suggestedWords = dictionary.search(word, maxEditDistancePercent);
+        List<Suggestion> suggestedWords = suggest(word, options, dictionary, suggestionLimit);
 
-        if (suggestedWords.isEmpty() && keepUnrecognized) {
+        if (suggestedWords.isEmpty() && options.keepUnrecognized) {
             return Collections.singletonList(new Suggestion(word, 100, 100, 0));
         }
 
-        return suggestedWords.stream()
-                .sorted(suggestionDistanceComparator)
-                .limit(suggestionLimit)
-                .collect(Collectors.toList());
+        return suggestedWords;
     }
 
-    private List<Suggestion> getCompoundSuggestions(String word, boolean doPreproccessing, boolean removeRepeatedLetters) {
-        if (word == null) {
-            throw new IllegalArgumentException("Can't give suggestions fo null word.");
-        }
+    /**
+     * @return at most suggestionLimit dictionary words closest to the word, the closest first, cached.
+     */
+    private List<Suggestion> suggest(String word, Options options, Dictionary dictionary, int suggestionLimit) {
+        SuggestionCache.Key key = new SuggestionCache.Key(word, options.maxEditDistancePercent, suggestionLimit);
+        List<Suggestion> suggestedWords = suggestionCache.get(dictionary, key);
 
-        if (doPreproccessing) {
-            word = textPreproccessor.preproccess(word, removeRepeatedLetters);
+        if (suggestedWords == null) {
+            suggestedWords = suggestionCache.put(dictionary, key, dictionary.search(word, options.maxEditDistancePercent,
+                    suggestionLimit, suggestionDistanceComparator));
         }
 
-        if (word.equals("") || isValid(word.toLowerCase())) {
-            return Collections.singletonList(new Suggestion(word, 0, 0, 100));
-        }
-
-        List<Suggestion> splitSuggestions = new ArrayList<>();
-
-        //TODO: temp solution, replace later.
-        Map<String, Integer> distances = new LinkedHashMap<>();
-        List<Suggestion> singleWordSuggestions = getWordSuggestions(word, doPreproccessing, removeRepeatedLetters);
-
-        Suggestion firstSingleWord;
+        return suggestedWords;
+    }
 
-        if (keepUnrecognized) {
-            firstSingleWord = singleWordSuggestions.get(0);
-        } else {
-            firstSingleWord = new Suggestion(word, 100, 100, 0);
+    /**
+     * Suggests the word split into dictionary words (see {@link WordSegmenter}) if the split is closer to it
+     * than the best single word, counting a space as an edit, followed by the single word suggestions.
+     */
+    private List<Suggestion> getCompoundSuggestions(String word, Options options, Dictionary dictionary, int suggestionLimit) {
+        if (word == null) {
+            throw new IllegalArgumentException("Can't give suggestions fo null word.");
         }
 
-        if (firstSingleWord.getSoundexCodeDistance() == 0 && firstSingleWord.getEditDistance() == 0) {
-            return singleWordSuggestions;
+        if (options.doPreproccessing) {
+            word = textPreproccessor.preproccess(word, options.removeRepeatedLetters);
         }
 
-        if (word.length() > 1) {
-            for (int j = 1; j < word.length(); j++) {
-                String part1 = word.substring(0, j);
-                String part2 = word.substring(j);
-
-                Suggestion suggestionSplit;
-
-                List<Suggestion> suggestions1 = getWordSuggestions(part1, doPreproccessing, removeRepeatedLetters);
-                List<Suggestion> suggestions2 = getWordSuggestions(part2, doPreproccessing, removeRepeatedLetters);
-
-                String part1Top = suggestions1.isEmpty() ? part1 : suggestions1.get(0).getWord();
-                String part2Top = suggestions2.isEmpty() ? part2 : suggestions2.get(0).getWord();
-
-                //select best suggestion for split pair
-                String split = part1Top + " " + part2Top;
-
-                int distance = DamerauLevenshteinDistance.distance(word.toLowerCase(), split.toLowerCase());
-                float soundexDistance = Soundex.difference(Soundex.translate(word), Soundex.translate(split));
-                float splitPercentage = DamerauLevenshteinDistance.getPercentageDifference(word.toLowerCase(), split.toLowerCase(), distance);
-
-                distances.put(split, distance);
-
-                //TODO: fix percentage count.
-                if (dictionary.contains(part1Top.toLowerCase()) && dictionary.contains(part2Top.toLowerCase())) {
-                    distance -= 1;
-                    splitPercentage += DamerauLevenshteinDistance.getPercentageDifference(word.toLowerCase(), split.toLowerCase(), distance);
-                } else if (dictionary.contains(part1Top.toLowerCase()) || dictionary.contains(part2Top.toLowerCase())) {
-                    soundexDistance += 1;
-                } else {
-                    soundexDistance += 2;
-                    distance += 2;
-                    splitPercentage -= DamerauLevenshteinDistance.getPercentageDifference(word.toLowerCase(), split.toLowerCase(), distance);
-                }
-
-                suggestionSplit = new Suggestion(split, soundexDistance, distance, splitPercentage);
-
-                //TODO: don't add repeated suggestions.
-                splitSuggestions.add(suggestionSplit);
-            }
+        if (word.equals("") || dictionary.contains(word.toLowerCase())) {
+            return Collections.singletonList(new Suggestion(word, 0, 0, 100));
         }
 
-        if (splitSuggestions.isEmpty() && !singleWordSuggestions.isEmpty()) {
-            return singleWordSuggestions;
-        }
+        List<Suggestion> wordSuggestions = suggest(word, options, dictionary, suggestionLimit);
+        WordSegmenter.Segmentation segmentation = WordSegmenter.segment(word.toLowerCase(), dictionary,
+                part -> suggest(part, options, dictionary, 1));
 
-        splitSuggestions.sort(suggestionDistanceComparator);
+        if (segmentation != null && (wordSuggestions.isEmpty() ||
+                segmentation.getDistance() + segmentation.getWords().size() - 1 < wordSuggestions.get(0).getEditDistance())) {
 
-        Suggestion suggestion = splitSuggestions.get(0);
+            String split = String.join(" ", segmentation.getWords());
+            float soundexDistance = Soundex.difference(Soundex.translate(word), Soundex.translate(split));
+            float splitPercentage = DamerauLevenshteinDistance.getPercentageDifference(word, split.replace(" ", ""),
+                    segmentation.getDistance());
 
-        if (suggestion.getSoundexCodeDistance() >= 1) {
-            if (keepUnrecognized) return singleWordSuggestions;
-            else return new ArrayList<>();
-        } else {
-            Suggestion firstSplitWord = new Suggestion(suggestion.getWord(), suggestion.getSoundexCodeDistance(), distances.get(suggestion.getWord()), 100);
+            List<Suggestion> suggestions = new ArrayList<>();
+            suggestions.add(new Suggestion(split, soundexDistance, segmentation.getDistance(), splitPercentage));
+            suggestions.addAll(wordSuggestions);
 
-            int best = suggestionDistanceComparator.compare(firstSingleWord, firstSplitWord);
+            return suggestions.stream()
+                    .limit(suggestionLimit)
+                    .collect(Collectors.toList());
+        }
 
-            if (best < 0 || best == 0) {
-                return singleWordSuggestions;
-            }
+        if (wordSuggestions.isEmpty() && options.keepUnrecognized) {
+            return Collections.singletonList(new Suggestion(word, 100, 100, 0));
         }
 
-        return splitSuggestions.stream()
-                .limit(suggestionLimit)
-                .collect(Collectors.toList());
+        return wordSuggestions;
     }
 
     private static final class SuggestionDistanceComparator implements Comparator<Suggestion> {
@@ -321,6 +474,42 @@ public class Spellchecker {
         }
     }
 
+    /**
+     * Settings of a spellchecker, never changed once created.
+     */
+    private static final class Options {
+        private final Language language;
+        private final SuggestionEngine suggestionEngine;
+        private final float maxEditDistancePercent;
+        private final boolean keepUnrecognized;
+        private final int suggestionLimit;
+        private final boolean checkCompounds;
+        private final boolean removeRepeatedLetters;
+        private final boolean doPreproccessing;
+
+        Options(Builder builder) {
+            language = builder.language;
+            suggestionEngine = builder.suggestionEngine;
+            maxEditDistancePercent = builder.maxEditDistancePercent;
+            keepUnrecognized = builder.keepUnrecognized;
+            suggestionLimit = builder.suggestionLimit;
+            checkCompounds = builder.checkCompounds;
+            removeRepeatedLetters = builder.removeRepeatedLetters;
+            doPreproccessing = builder.doPreproccessing;
+        }
+
+        Builder toBuilder(Language language) {
+            return new Builder(language)
+                    .withSuggestionEngine(suggestionEngine)
+                    .withEditDistancePercent(maxEditDistancePercent)
+                    .withKeepingUnrecognized(keepUnrecognized)
+                    .withSuggestionLimit(suggestionLimit)
+                    .withCheckingCompounds(checkCompounds)
+                    .withRemovingRepeatedLetters(removeRepeatedLetters)
+                    .withPreproccessing(doPreproccessing);
+        }
+    }
+
     public static class Builder {
         private Language language;
 
@@ -330,6 +519,8 @@ public class Spellchecker {
         private boolean checkCompounds = false;
         private boolean removeRepeatedLetters = false;
         private boolean doPreproccessing = true;
+        private SuggestionEngine suggestionEngine = SuggestionEngine.TRIE;
+        private int suggestionCacheSize = 10000;
 
         public Builder(Language language) {
             this.language = language;
@@ -365,6 +556,28 @@ public class Spellchecker {
             return this;
         }
 
+        /**
+         * Selects the data structure suggestions are searched in.
+         *
+         * @param suggestionEngine {@link SuggestionEngine#TRIE} by default.
+         * @return builder.
+         */
+        public Builder withSuggestionEngine(SuggestionEngine suggestionEngine) {
+            this.suggestionEngine = suggestionEngine;
+            return this;
+        }
+
+        /**
+         * Sets how many misspelled words keep their suggestions cached.
+         *
+         * @param suggestionCacheSize maximum number of cached words, 10000 by default, zero disables caching.
+         * @return builder.
+         */
+        public Builder withSuggestionCache(int suggestionCacheSize) {
+            this.suggestionCacheSize = suggestionCacheSize;
+            return this;
+        }
+
         public Spellchecker build() {
             return new Spellchecker(this);
         }
@@ -0,0 +1,165 @@
+package com.filter.textcorrector.spellchecking;
+
+import com.filter.textcorrector.spellchecking.model.CacheStats;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import com.filter.textcorrector.util.FrequencySketch;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ranked suggestions of recently misspelled words, so repeated misspellings don't search the dictionary again.
+ * Holds at most the given number of entries. When full, a new word only replaces the oldest one if it's asked for
+ * more often (the frequency of every looked up word is tracked by {@link FrequencySketch}), so rare typos
+ * don't push out the popular ones. Entries belong to the dictionary they were found in and are dropped when
+ * another dictionary is used (language changed or dictionary reloaded).
+ * Lookups don't lock, additions are serialized, as they follow a dictionary search anyway.
+ */
+public class SuggestionCache {
+    private final int maximumSize;
+    private final Map<Key, List<Suggestion>> entries = new ConcurrentHashMap<>();
+    // Keys in order of addition, guarded by this
+    private final ArrayDeque<Key> order = new ArrayDeque<>();
+    private final FrequencySketch<Key> sketch;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    // Dictionary the entries were found in
+    private volatile Object owner;
+
+    /**
+     * @param maximumSize maximum number of cached words, zero disables caching.
+     */
+    public SuggestionCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+
+        this.maximumSize = maximumSize;
+        sketch = new FrequencySketch<>(maximumSize);
+    }
+
+    /**
+     * Returns cached suggestions for the word.
+     *
+     * @param dictionary dictionary the suggestions are looked up in.
+     * @param key        normalized word and search parameters.
+     * @return suggestions, or null if they have to be searched for.
+     */
+    public List<Suggestion> get(Object dictionary, Key key) {
+        if (maximumSize == 0) {
+            missCount.increment();
+            return null;
+        }
+
+        if (owner != dictionary) {
+            invalidate(dictionary);
+        }
+
+        sketch.increment(key);
+        List<Suggestion> suggestions = entries.get(key);
+
+        if (suggestions == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Caches suggestions found for the word, unless the cache is full of more popular ones.
+     *
+     * @param dictionary  dictionary the suggestions were found in.
+     * @param key         normalized word and search parameters.
+     * @param suggestions ranked suggestions, must not be changed afterwards.
+     * @return cached suggestions, unmodifiable.
+     */
+    public List<Suggestion> put(Object dictionary, Key key, List<Suggestion> suggestions) {
+        suggestions = Collections.unmodifiableList(suggestions);
+
+        if (maximumSize == 0) {
+            return suggestions;
+        }
+
+        synchronized (this) {
+            // Found in a dictionary that was replaced meanwhile
+            if (owner != dictionary || entries.containsKey(key)) {
+                return suggestions;
+            }
+
+            if (entries.size() >= maximumSize) {
+                Key victim = order.poll();
+
+                if (sketch.frequency(key) <= sketch.frequency(victim)) {
+                    // Give the next entry a chance to be compared on next addition
+                    order.add(victim);
+                    return suggestions;
+                }
+
+                entries.remove(victim);
+                evictionCount.increment();
+            }
+
+            entries.put(key, suggestions);
+            order.add(key);
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Drops all the entries.
+     */
+    public void invalidate() {
+        invalidate(null);
+    }
+
+    private synchronized void invalidate(Object dictionary) {
+        entries.clear();
+        order.clear();
+        owner = dictionary;
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size());
+    }
+
+    /**
+     * Word normalized the way the spellchecker searches for it, with search parameters affecting suggestions.
+     */
+    public static final class Key {
+        private final String word;
+        private final float maxEditDistancePercent;
+        private final int suggestionLimit;
+
+        public Key(String word, float maxEditDistancePercent, int suggestionLimit) {
+            this.word = word;
+            this.maxEditDistancePercent = maxEditDistancePercent;
+            this.suggestionLimit = suggestionLimit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Float.compare(key.maxEditDistancePercent, maxEditDistancePercent) == 0 &&
+                    suggestionLimit == key.suggestionLimit &&
+                    word.equals(key.word);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(word, maxEditDistancePercent, suggestionLimit);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.filter.textcorrector.spellchecking;
+
+/**
+ * Data structure used by a spellchecking dictionary to look up suggestions for misspelled words.
+ */
+public enum SuggestionEngine {
+    /**
+     * Walks a prefix trie computing Damerau-Levenshtein rows per node (see {@link WordSuggester}).
+     */
+    TRIE,
+
+    /**
+     * Walks a minimal automaton, a trie with equal word endings merged, the same way as {@link #TRIE}.
+     * Gives the same suggestions in a fraction of memory, but the dictionary takes longer to build.
+     */
+    DAWG,
+
+    /**
+     * Looks up precomputed delete variants in a hash index (see {@link SymmetricDeleteSuggester}).
+     */
+    SYMMETRIC_DELETE,
+
+    /**
+     * Walks a tree of words arranged by their edit distances, skipping the branches too far from
+     * the searched word (see {@link SuggestionSearcher}).
+     */
+    BK_TREE
+}
@@ -4,124 +4,219 @@ package com.filter.textcorrector.spellchecking;
 import com.filter.textcorrector.spellchecking.model.Suggestion;
 import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
 import com.filter.textcorrector.spellchecking.util.Soundex;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
+import java.util.Set;
+
+/**
+ * BK-tree of words (Burkhard and Keller): every child of a node is at a distinct edit distance from it,
+ * so by the triangle inequality a search only descends into children at distances close to the one
+ * of the searched word. The tree is built and searched with the unrestricted Damerau-Levenshtein distance,
+ * which is a metric. Matches are scored by the restricted one, the same as of {@link WordSuggester}. It's never
+ * smaller, so every word within the threshold by it is reached, and the results are the ones of the trie.
+ * <p>
+ * The tree is stored in flat arrays: node i holds word i, its children are sorted by their distance from it
+ * and take a range of the child arrays. Searches walk it with an explicit stack and compute distances only
+ * up to what can still matter. The tree is immutable once built and can be shared between threads.
+ */
 public class SuggestionSearcher {
-    private Node root;
-    private int count;
-
-    public void add(String word) {
-        if (word == null) {
-            throw new IllegalArgumentException("Word must not be null");
+    private static final int ROOT = 0;
+
+    private final String[] words;
+    private final Set<String> wordSet;
+    private final int maxWordLength;
+
+    // Children of node i are children[childOffsets[i]] .. children[childOffsets[i + 1] - 1],
+    // at distances childDistances[...] from it in increasing order
+    private final int[] childOffsets;
+    private final int[] childDistances;
+    private final int[] children;
+
+    /**
+     * Builds the tree.
+     *
+     * @param dictionaryWords words to add, case is ignored.
+     */
+    public SuggestionSearcher(Collection<String> dictionaryWords) {
+        Set<String> uniqueWords = new LinkedHashSet<>();
+
+        for (String word : dictionaryWords) {
+            if (word != null && !word.isEmpty()) {
+                uniqueWords.add(word.toLowerCase());
+            }
         }
 
-        if (word.length() == 0) {
-            throw new IllegalArgumentException("Word must not be empty");
-        }
+        words = uniqueWords.toArray(new String[0]);
+        wordSet = new ObjectOpenHashSet<>(words);
+        maxWordLength = Arrays.stream(words).mapToInt(String::length).max().orElse(0);
+
+        // (node, distance) -> child, while the tree is being built
+        Long2IntOpenHashMap edges = new Long2IntOpenHashMap(words.length);
+        edges.defaultReturnValue(-1);
 
-        if (root == null) {
-            root = new Node(word);
-        } else {
-            // Traverse through the tree, adding the string as a leaf related by edit distance
-            Node current = root;
-            int editDistance = DamerauLevenshteinDistance.distance(current.word, word);
+        for (int i = 1; i < words.length; i++) {
+            int node = ROOT;
 
-            while (current.containsChildWithDistance(editDistance)) {
-                current = current.getChild(editDistance);
-                editDistance = DamerauLevenshteinDistance.distance(current.word, word);
+            while (true) {
+                int distance = exactDistance(words[node], words[i]);
+                long edge = ((long) node << 32) | distance;
+                int child = edges.get(edge);
 
-                if (editDistance == 0) {
-                    return;    // Duplicate (string already exists in tree)
+                if (child < 0) {
+                    edges.put(edge, i);
+                    break;
                 }
+
+                node = child;
             }
-            current.addChild(editDistance, word);
         }
-        count++;
+
+        // Sorted edges list children of each node together, in increasing order of distance
+        long[] sortedEdges = edges.keySet().toLongArray();
+        Arrays.sort(sortedEdges);
+
+        childOffsets = new int[words.length + 1];
+        childDistances = new int[sortedEdges.length];
+        children = new int[sortedEdges.length];
+
+        for (int i = 0; i < sortedEdges.length; i++) {
+            childOffsets[(int) (sortedEdges[i] >>> 32) + 1]++;
+            childDistances[i] = (int) sortedEdges[i];
+            children[i] = edges.get(sortedEdges[i]);
+        }
+
+        for (int node = 0; node < words.length; node++) {
+            childOffsets[node + 1] += childOffsets[node];
+        }
+    }
+
+    /**
+     * Returns if the word is in the tree.
+     *
+     * @param word
+     * @return true|false
+     */
+    public boolean contains(String word) {
+        return wordSet.contains(word.toLowerCase());
     }
 
     public List<Suggestion> search(String word, float matchPercentage) {
         int distanceThreshold = DamerauLevenshteinDistance.convertPercentageToEditDistance(word, matchPercentage);
-        return searchTree(word, distanceThreshold);
+        return search(word, distanceThreshold);
     }
 
+    /**
+     * Returns all words that are not further than the given distance from the target word.
+     *
+     * @param word              word to look suggestions for.
+     * @param distanceThreshold maximum edit distance of suggestions.
+     * @return list of suggestions in no particular order.
+     */
     public List<Suggestion> search(String word, int distanceThreshold) {
-        return searchTree(word, distanceThreshold);
-    }
-
-    private List<Suggestion> searchTree(String word, int distanceThreshold) {
         List<Suggestion> matches = new ArrayList<>();
-        searchTree(root, word, distanceThreshold, matches);
-        return matches;
-    }
-
-    private void searchTree(Node node, String word, int distanceThreshold, List<Suggestion> matches) {
-        int currentDistance = DamerauLevenshteinDistance.distance(node.word.toLowerCase(), word.toLowerCase());
-        float soundexDistance = Soundex.difference(Soundex.translate(node.word), Soundex.translate(word));
 
-        if (currentDistance <= distanceThreshold) {
-            // Match found
-            float percentageDifference = DamerauLevenshteinDistance.getPercentageDifference(node.word, word, currentDistance);
-            Suggestion suggestion = new Suggestion(node.word, soundexDistance, currentDistance, percentageDifference);
-            matches.add(suggestion);
+        if (words.length == 0 || distanceThreshold < 0) {
+            return matches;
         }
 
-        // Get the children to search next
-        int minDistance = currentDistance - distanceThreshold;
-        int maxDistance = currentDistance + distanceThreshold;
+        word = word.toLowerCase();
+        String wordCode = null;
 
-        List<Integer> childKeysWithinDistanceThreshold = node.getChildKeysWithinDistance(minDistance, maxDistance);
+        int[] stack = new int[64];
+        int stackSize = 0;
+        stack[stackSize++] = ROOT;
 
-        for (Integer childKey : childKeysWithinDistanceThreshold) {
-            Node child = node.getChild(childKey);
-            searchTree(child, word, distanceThreshold, matches);
-        }
-    }
+        while (stackSize > 0) {
+            int node = stack[--stackSize];
+            int firstChild = childOffsets[node];
+            int lastChild = childOffsets[node + 1] - 1;
 
-    public int getSize() {
-        return count;
-    }
+            // Children can't be further than the last one, so the distance only matters up to that plus the threshold
+            int maxChildDistance = lastChild >= firstChild ? childDistances[lastChild] : 0;
+            int distance = DamerauLevenshteinDistance.distance(words[node], word, maxChildDistance + distanceThreshold);
 
-    private static class Node {
-        private String word;
-        private Map<Integer, Node> children;
+            if (distance <= distanceThreshold) {
+                String suggestedWord = words[node];
+                int suggestedDistance = DamerauLevenshteinDistance.osaDistance(suggestedWord, word, distanceThreshold);
 
-        Node(String word) {
-            this.word = word;
-        }
+                if (suggestedDistance <= distanceThreshold) {
+                    if (wordCode == null) {
+                        wordCode = Soundex.translate(word);
+                    }
 
-        Node getChild(int key) {
-            if (containsChildWithDistance(key)) {
-                return children.get(key);
-            } else {
-                return null;
+                    float soundexDistance = Soundex.difference(Soundex.translate(suggestedWord), wordCode);
+                    float percentageDifference = DamerauLevenshteinDistance.getPercentageDifference(suggestedWord, word, suggestedDistance);
+                    matches.add(new Suggestion(suggestedWord, soundexDistance, suggestedDistance, percentageDifference));
+                }
             }
-        }
 
-        List<Integer> getChildKeysWithinDistance(int minDistance, int maxDistance) {
-            if (children == null) {
-                return new ArrayList<>(0);
-            } else {
-                return children.keySet().stream().filter(n -> n >= minDistance && n <= maxDistance)
-                        .collect(Collectors.toList());
+            int minDistance = distance - distanceThreshold;
+            int maxDistance = distance + distanceThreshold;
+
+            for (int i = firstChild; i <= lastChild && childDistances[i] <= maxDistance; i++) {
+                if (childDistances[i] >= minDistance) {
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, stackSize * 2);
+                    }
+
+                    stack[stackSize++] = children[i];
+                }
             }
         }
 
-        boolean containsChildWithDistance(int key) {
-            return children != null && children.containsKey(key);
-        }
+        return matches;
+    }
 
-        void addChild(int key, String word) {
-            if (children == null) {
-                children = new HashMap<>();
+    /**
+     * Returns the best suggestions for the word, searching at distance 0, then 1 and so on up to the given one.
+     * Each next distance visits many times more nodes than the previous one, so searching the closer ones
+     * first costs little, and the search stops once no word further away can rank among the best ones found.
+     * The result is the same as of {@link #search(String, int)} sorted by the ranking and cut to the limit.
+     *
+     * @param word              word to look suggestions for.
+     * @param distanceThreshold maximum edit distance of suggestions.
+     * @param limit             maximum number of suggestions.
+     * @param ranking           order of suggestions, the best first, by match percentage before anything else.
+     *                          Ties are broken by word.
+     * @return at most limit best suggestions, the best first.
+     */
+    public List<Suggestion> search(String word, int distanceThreshold, int limit, Comparator<Suggestion> ranking) {
+        Comparator<Suggestion> order = ranking.thenComparing(Suggestion::getWord);
+        List<Suggestion> best = new ArrayList<>();
+
+        for (int distance = 0; distance <= distanceThreshold && limit > 0; distance++) {
+            List<Suggestion> matches = search(word, distance);
+            matches.sort(order);
+            best = matches.subList(0, Math.min(limit, matches.size()));
+
+            if (best.size() == limit && best.get(limit - 1).getMatchPercentage() >
+                    DamerauLevenshteinDistance.getMaxPercentageDifference(word, distance + 1)) {
+                break;
             }
-
-            Node child = new Node(word);
-            children.put(key, child);
         }
+
+        return new ArrayList<>(best);
+    }
+
+    public int getSize() {
+        return words.length;
+    }
+
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    /**
+     * @return unrestricted distance between the words, which is never greater than the longer word's length.
+     */
+    private static int exactDistance(String word1, String word2) {
+        return DamerauLevenshteinDistance.distance(word1, word2, Math.max(word1.length(), word2.length()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package com.filter.textcorrector.spellchecking;
+
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import com.filter.textcorrector.spellchecking.util.Soundex;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Symmetric delete spelling correction (see https://github.com/wolfgarbe/SymSpell).
+ * Every dictionary word is indexed by all the strings that can be obtained by deleting up to
+ * {@code maxEditDistance} characters from its prefix. A lookup generates the same deletes for the
+ * given word, so candidates are found with hash lookups instead of a trie walk, and only the
+ * candidates are verified with {@link DamerauLevenshteinDistance}. Phonetic codes of the words are computed
+ * once, when the index is built (see {@link PhoneticIndex}).
+ * The index is immutable once built and can be shared between threads.
+ */
+public class SymmetricDeleteSuggester {
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+    public static final int DEFAULT_PREFIX_LENGTH = 7;
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final int maxWordLength;
+
+    private final String[] words;
+    private final Object2IntOpenHashMap<String> wordIndexes;
+    private final PhoneticIndex phoneticIndex;
+
+    // Hash of a delete variant -> number of its bucket in offsets
+    private final Int2IntOpenHashMap buckets;
+    // Bucket i holds word indexes postings[offsets[i]] .. postings[offsets[i + 1] - 1]
+    private final int[] offsets;
+    private final int[] postings;
+
+    public SymmetricDeleteSuggester(Collection<String> dictionaryWords) {
+        this(dictionaryWords, DEFAULT_MAX_EDIT_DISTANCE, DEFAULT_PREFIX_LENGTH);
+    }
+
+    /**
+     * Builds the delete index.
+     *
+     * @param dictionaryWords words to index, case is ignored.
+     * @param maxEditDistance maximum edit distance the index can answer.
+     * @param prefixLength    number of leading characters of each word deletes are generated from.
+     */
+    public SymmetricDeleteSuggester(Collection<String> dictionaryWords, int maxEditDistance, int prefixLength) {
+        if (maxEditDistance < 0) {
+            throw new IllegalArgumentException("Max edit distance must not be negative.");
+        }
+
+        if (prefixLength <= maxEditDistance) {
+            throw new IllegalArgumentException("Prefix length must be greater than max edit distance.");
+        }
+
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+
+        Set<String> uniqueWords = new LinkedHashSet<>();
+
+        for (String word : dictionaryWords) {
+            if (word != null && !word.isEmpty()) {
+                uniqueWords.add(word.toLowerCase());
+            }
+        }
+
+        words = uniqueWords.toArray(new String[0]);
+        maxWordLength = Arrays.stream(words).mapToInt(String::length).max().orElse(0);
+        phoneticIndex = new PhoneticIndex(words);
+        wordIndexes = new Object2IntOpenHashMap<>(words.length);
+        wordIndexes.defaultReturnValue(-1);
+
+        // (delete hash, word index) pairs, sorted so that every bucket becomes a contiguous range
+        LongArrayList pairs = new LongArrayList(words.length * 8);
+        Set<String> deletes = new HashSet<>();
+
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            wordIndexes.put(word, i);
+
+            deletes.clear();
+            addDeletes(prefix(word), deletes);
+
+            for (String delete : deletes) {
+                pairs.add(((long) delete.hashCode() << 32) | i);
+            }
+        }
+
+        long[] sortedPairs = pairs.toLongArray();
+        Arrays.sort(sortedPairs);
+
+        buckets = new Int2IntOpenHashMap();
+        buckets.defaultReturnValue(-1);
+
+        int[] bucketOffsets = new int[sortedPairs.length + 1];
+        int[] bucketPostings = new int[sortedPairs.length];
+        int bucketCount = 0;
+        int postingCount = 0;
+
+        for (int i = 0; i < sortedPairs.length; i++) {
+            if (i > 0 && sortedPairs[i] == sortedPairs[i - 1]) {
+                // Two deletes of one word with colliding hashes
+                continue;
+            }
+
+            int hash = (int) (sortedPairs[i] >>> 32);
+
+            if (i == 0 || hash != (int) (sortedPairs[i - 1] >>> 32)) {
+                buckets.put(hash, bucketCount);
+                bucketOffsets[bucketCount++] = postingCount;
+            }
+
+            bucketPostings[postingCount++] = (int) sortedPairs[i];
+        }
+
+        bucketOffsets[bucketCount] = postingCount;
+
+        offsets = Arrays.copyOf(bucketOffsets, bucketCount + 1);
+        postings = Arrays.copyOf(bucketPostings, postingCount);
+    }
+
+    /**
+     * Returns if the word is in the index.
+     *
+     * @param word
+     * @return true|false
+     */
+    public boolean search(String word) {
+        return wordIndexes.getInt(word.toLowerCase()) >= 0;
+    }
+
+    /**
+     * Returns all words that are not further than the given distance from the target word.
+     * Distances greater than the one the index was built for are lowered to it.
+     *
+     * @param word        word to look suggestions for.
+     * @param maxDistance maximum edit distance of suggestions.
+     * @return list of suggestions in no particular order.
+     */
+    public List<Suggestion> getSuggestions(String word, int maxDistance) {
+        List<Suggestion> results = new ArrayList<>();
+        word = word.toLowerCase();
+
+        if (maxDistance > maxEditDistance) {
+            maxDistance = maxEditDistance;
+        }
+
+        if (maxDistance < 0 || word.isEmpty()) {
+            return results;
+        }
+
+        String wordCode = Soundex.translate(word);
+        String inputPrefix = prefix(word);
+
+        IntOpenHashSet checkedWords = new IntOpenHashSet();
+        Set<String> checkedDeletes = new HashSet<>();
+        ArrayDeque<String> candidates = new ArrayDeque<>();
+        candidates.add(inputPrefix);
+
+        while (!candidates.isEmpty()) {
+            String candidate = candidates.poll();
+            int lengthDifference = inputPrefix.length() - candidate.length();
+
+            // Candidates are generated breadth first, so all the next ones are at least that far
+            if (lengthDifference > maxDistance) {
+                break;
+            }
+
+            int bucket = buckets.get(candidate.hashCode());
+
+            if (bucket >= 0) {
+                for (int i = offsets[bucket]; i < offsets[bucket + 1]; i++) {
+                    int wordIndex = postings[i];
+
+                    if (checkedWords.add(wordIndex)) {
+                        verify(wordIndex, word, wordCode, maxDistance, results);
+                    }
+                }
+            }
+
+            if (lengthDifference < maxDistance) {
+                for (int i = 0; i < candidate.length(); i++) {
+                    String delete = candidate.substring(0, i) + candidate.substring(i + 1);
+
+                    if (checkedDeletes.add(delete)) {
+                        candidates.add(delete);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    public int getNumberOfWords() {
+        return words.length;
+    }
+
+    public int getMaxEditDistance() {
+        return maxEditDistance;
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    /**
+     * @return phonetic codes of the indexed words, usable as a quick source of candidates sounding like a word.
+     */
+    public PhoneticIndex getPhoneticIndex() {
+        return phoneticIndex;
+    }
+
+    /**
+     * Adds the word with given index to the results if it's within the distance.
+     */
+    private void verify(int wordIndex, String word, String wordCode, int maxDistance, List<Suggestion> results) {
+        String suggestedWord = words[wordIndex];
+
+        if (Math.abs(suggestedWord.length() - word.length()) > maxDistance) {
+            return;
+        }
+
+        int suggestedDistance = DamerauLevenshteinDistance.osaDistance(word, suggestedWord, maxDistance);
+
+        if (suggestedDistance <= maxDistance) {
+            float soundexDistance = Soundex.difference(phoneticIndex.getCode(wordIndex), wordCode);
+            float percentageDifference = DamerauLevenshteinDistance.getPercentageDifference(suggestedWord, word, suggestedDistance);
+
+            results.add(new Suggestion(suggestedWord, soundexDistance, suggestedDistance, percentageDifference));
+        }
+    }
+
+    private String prefix(String word) {
+        return word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+    }
+
+    /**
+     * Collects the word and all its variants with up to max edit distance characters deleted.
+     * Variants are generated level by level, so every one of them is expanded from its shortest path.
+     */
+    private void addDeletes(String word, Set<String> deletes) {
+        List<String> level = new ArrayList<>();
+        level.add(word);
+        deletes.add(word);
+
+        for (int distance = 0; distance < maxEditDistance; distance++) {
+            List<String> nextLevel = new ArrayList<>();
+
+            for (String variant : level) {
+                for (int i = 0; i < variant.length(); i++) {
+                    String delete = variant.substring(0, i) + variant.substring(i + 1);
+
+                    if (deletes.add(delete)) {
+                        nextLevel.add(delete);
+                    }
+                }
+            }
+
+            level = nextLevel;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.filter.textcorrector.spellchecking;
+
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Splits a run-together text into dictionary words, e.g. "holyshit" into "holy shit".
+ * The best split of every suffix of the text is computed once, from the end of the text to its start,
+ * so the whole text is solved in one pass over its positions. The words a position starts with are found
+ * in one dictionary walk, misspelled ones are looked up fuzzily at most {@link #MAX_FUZZY_LOOKUPS} times per text.
+ * A split costs the edit distance of its words plus one per word, so one long word is preferred to several
+ * short ones matching as well.
+ */
+final class WordSegmenter {
+    // Shorter misspelled parts are too ambiguous to be corrected
+    private static final int MIN_FUZZY_WORD_LENGTH = 4;
+    private static final int MAX_FUZZY_LOOKUPS = 16;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private WordSegmenter() {
+        throw new AssertionError("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * @param text       text to split, in lower case.
+     * @param dictionary dictionary the words are looked up in.
+     * @param suggest    suggestions for a misspelled part of the text, the best one first.
+     * @return the cheapest split into two or more words, or null if the text can't be split.
+     */
+    static Segmentation segment(String text, Dictionary dictionary, Function<String, List<Suggestion>> suggest) {
+        int length = text.length();
+        int maxWordLength = dictionary.getMaxWordLength();
+
+        // Best split of text.substring(i): its cost, its edit distance, where its first word ends
+        // and the first word if it's a correction rather than the text itself
+        int[] costs = new int[length + 1];
+        int[] distances = new int[length + 1];
+        int[] ends = new int[length + 1];
+        String[] corrections = new String[length + 1];
+        int fuzzyLookups = 0;
+
+        for (int start = length - 1; start >= 0; start--) {
+            costs[start] = UNREACHABLE;
+            // The whole text as one word is not a split
+            int lastEnd = start == 0 ? length - 1 : length;
+            int[] wordEnds = dictionary.findWordEnds(text, start);
+
+            // Longer words first, so they win ties
+            for (int i = wordEnds.length - 1; i >= 0; i--) {
+                int end = wordEnds[i];
+
+                if (end <= lastEnd && costs[end] != UNREACHABLE && costs[end] + 1 < costs[start]) {
+                    costs[start] = costs[end] + 1;
+                    distances[start] = distances[end];
+                    ends[start] = end;
+                    corrections[start] = null;
+                }
+            }
+
+            // A correction costs at least 2, only parts that could beat the best split are looked up
+            for (int end = Math.min(lastEnd, start + maxWordLength + 1); end >= start + MIN_FUZZY_WORD_LENGTH; end--) {
+                if (costs[end] == UNREACHABLE || costs[end] + 2 >= costs[start]) {
+                    continue;
+                }
+
+                if (fuzzyLookups == MAX_FUZZY_LOOKUPS) {
+                    break;
+                }
+
+                fuzzyLookups++;
+                List<Suggestion> suggestions = suggest.apply(text.substring(start, end));
+
+                if (suggestions.isEmpty() || suggestions.get(0).getEditDistance() == 0) {
+                    continue;
+                }
+
+                Suggestion suggestion = suggestions.get(0);
+                int cost = costs[end] + suggestion.getEditDistance() + 1;
+
+                if (cost < costs[start]) {
+                    costs[start] = cost;
+                    distances[start] = distances[end] + suggestion.getEditDistance();
+                    ends[start] = end;
+                    corrections[start] = suggestion.getWord();
+                }
+            }
+        }
+
+        if (length == 0 || costs[0] == UNREACHABLE) {
+            return null;
+        }
+
+        List<String> words = new ArrayList<>();
+
+        for (int start = 0; start < length; start = ends[start]) {
+            words.add(corrections[start] != null ? corrections[start] : text.substring(start, ends[start]));
+        }
+
+        return new Segmentation(words, distances[0]);
+    }
+
+    /**
+     * Words a text is split into and the total edit distance of them from the text.
+     */
+    static final class Segmentation {
+        private final List<String> words;
+        private final int distance;
+
+        private Segmentation(List<String> words, int distance) {
+            this.words = Collections.unmodifiableList(words);
+            this.distance = distance;
+        }
+
+        List<String> getWords() {
+            return words;
+        }
+
+        int getDistance() {
+            return distance;
+        }
+    }
+}
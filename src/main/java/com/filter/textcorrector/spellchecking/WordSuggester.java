@@ -3,25 +3,68 @@ package com.filter.textcorrector.spellchecking;
 import com.filter.textcorrector.spellchecking.model.Suggestion;
 import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
 import com.filter.textcorrector.spellchecking.util.Soundex;
-import it.unimi.dsi.fastutil.chars.Char2ObjectAVLTreeMap;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Vector;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
 
 /**
  * is an efficient information retrieval data structure that we can use to search a word in O(M) time, where
  * M is maximum string length. However the penalty is on trie storage requirements.
+ * <p>
+ * To keep that penalty low nodes are not objects: a node is an index into parallel primitive arrays,
+ * children of a node form a singly linked list sorted by character (first child, next sibling).
+ * After loading {@link #compact()} renumbers nodes in depth-first order, so the recursive search
+ * reads the arrays almost sequentially.
+ * <p>
+ * The arrays are accessed through buffers, so a trie can also be served straight from a memory-mapped
+ * snapshot (see {@link #writeSnapshot(WritableByteChannel)} and {@link #fromSnapshot(ByteBuffer, Charset)}).
+ * Such a trie is read-only.
+ * <p>
+ * {@link #minimal(Collection, boolean, Charset)} builds a minimal acyclic automaton instead: equal subtrees
+ * (usually shared word endings) are stored once and reached from several parents. Searches walk it exactly
+ * like a trie, it's read-only as well.
  */
 public class WordSuggester {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Snapshot layout, little-endian: header ints, first child ints, next sibling ints, leaf longs, label chars
+    private static final int SNAPSHOT_MAGIC = 0x434D5354;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int CASE_SENSITIVE_FLAG = 1;
+
+    // Character on the edge leading to the node
+    private CharBuffer labels;
+    private IntBuffer firstChild;
+    private IntBuffer nextSibling;
+    // Bit set of nodes where a word ends
+    private LongBuffer leaves;
+    // Number of nodes in use
+    private int size;
+    // Set if the buffers are mapped from a snapshot or nodes are shared
+    private boolean readOnly;
+    // Length of the longest word, i.e. depth of the trie
+    private int maxWordLength;
+
+    // Scratch space reused by the searches of a thread
+    private static final ThreadLocal<SearchState> searchState = ThreadLocal.withInitial(SearchState::new);
+    private static final ThreadLocal<BestFirstState> bestFirstState = ThreadLocal.withInitial(BestFirstState::new);
 
-    // Dummy node
-    private Node root;
     // Current number of unique words in trie
     private int numOfwords;
     // If this is a case sensitive trie
@@ -34,8 +77,12 @@ public class WordSuggester {
      * @param caseSensitive set if this is a case sensitive trie
      */
     public WordSuggester(boolean caseSensitive, Charset charset) {
-        root = new Node();
-        root.setRoot(true);
+        labels = CharBuffer.allocate(INITIAL_CAPACITY);
+        firstChild = IntBuffer.allocate(INITIAL_CAPACITY);
+        nextSibling = IntBuffer.allocate(INITIAL_CAPACITY);
+        leaves = LongBuffer.allocate((INITIAL_CAPACITY >>> 6) + 1);
+        newNode('\0');
+
         setNumberOfWords(0);
         setCaseSensitive(caseSensitive);
         setCharset(charset);
@@ -47,40 +94,253 @@ public class WordSuggester {
      * @param word
      */
     public void add(String word) {
+        checkWritable();
 
         word = preprocessWord(word);
 
-        Char2ObjectAVLTreeMap<Node> children = root.children;
+        if (word.isEmpty()) {
+            return;
+        }
+
+        int node = ROOT;
+
+        for (int i = 0; i < word.length(); i++) {
+            node = childOrNew(node, word.charAt(i));
+        }
+
+        maxWordLength = Math.max(maxWordLength, word.length());
 
         // To avoid duplicates
-        if (!search(word, false)) {
-
-            Node currentParent;
-            currentParent = root;
-
-            for (int i = 0; i < word.length(); i++) {
-                char c = word.charAt(i);
-                Node node;
-                if (children.containsKey(c)) {
-                    node = children.get(c);
-                } else {
-                    node = new Node(c);
-                    node.setRoot(false);
-                    node.setParent(currentParent);
-                    children.put(c, node);
-                }
+        if (!isLeaf(node)) {
+            setLeaf(node);
+            this.numOfwords++;
+        }
+    }
+
+    /**
+     * Builds a minimal automaton of the words in one pass (Daciuk et al., "Incremental Construction of Minimal
+     * Acyclic Finite-State Automata"). Words are inserted in sorted order, so once a node leaves the path of
+     * the last inserted word its subtree can't change anymore: its children are then replaced by equal
+     * nodes that are already registered, and the replaced nodes are reused. Only the automaton and one
+     * path of the trie are ever kept in memory.
+     *
+     * @param words         words in any order, duplicates are ignored.
+     * @param caseSensitive set if this is a case sensitive automaton
+     * @param charset       charset to encode words with.
+     * @return read-only automaton.
+     */
+    public static WordSuggester minimal(Collection<String> words, boolean caseSensitive, Charset charset) {
+        WordSuggester wordSuggester = new WordSuggester(caseSensitive, charset);
+
+        String[] sortedWords = new String[words.size()];
+        int wordCount = 0;
+
+        for (String word : words) {
+            word = wordSuggester.preprocessWord(word);
+            if (!word.isEmpty()) {
+                sortedWords[wordCount++] = word;
+            }
+        }
+
+        // Siblings are appended in increasing character order, which keeps them sorted for the searches
+        Arrays.sort(sortedWords, 0, wordCount);
+
+        MinimizationState state = new MinimizationState();
+        String previousWord = "";
 
-                children = node.children;
-                currentParent = node;
+        for (int w = 0; w < wordCount; w++) {
+            String word = sortedWords[w];
 
-                // set leaf node
-                if (i == word.length() - 1) {
-                    node.setLeaf(true);
-                    this.numOfwords++;
+            if (word.equals(previousWord)) {
+                continue;
+            }
+
+            int commonPrefix = 0;
+            while (commonPrefix < previousWord.length() && previousWord.charAt(commonPrefix) == word.charAt(commonPrefix)) {
+                commonPrefix++;
+            }
+
+            // Nodes below the common prefix are complete
+            for (int depth = previousWord.length(); depth > commonPrefix; depth--) {
+                wordSuggester.replaceOrRegister(state.path[depth], state);
+            }
+
+            state.ensureDepth(word.length());
+
+            for (int depth = commonPrefix; depth < word.length(); depth++) {
+                state.path[depth + 1] = wordSuggester.appendChild(state.path[depth], word.charAt(depth), state);
+            }
+
+            wordSuggester.setLeaf(state.path[word.length()]);
+            wordSuggester.numOfwords++;
+            wordSuggester.maxWordLength = Math.max(wordSuggester.maxWordLength, word.length());
+            previousWord = word;
+        }
+
+        for (int depth = previousWord.length(); depth >= 0; depth--) {
+            wordSuggester.replaceOrRegister(state.path[depth], state);
+        }
+
+        wordSuggester.compact();
+        wordSuggester.readOnly = true;
+
+        return wordSuggester;
+    }
+
+    /**
+     * Renumbers nodes in depth-first order and trims the arrays, so that a node's first child
+     * directly follows it in memory. Call it once all the words are added.
+     */
+    public void compact() {
+        checkWritable();
+
+        int[] order = new int[size];
+        int[] stack = new int[size];
+        int stackSize = 0;
+        int visited = 0;
+        // Nodes of a minimal automaton have several parents, each one is kept once
+        long[] seen = new long[(size >>> 6) + 1];
+
+        stack[stackSize++] = ROOT;
+        seen[0] |= 1L;
+
+        while (stackSize > 0) {
+            int node = stack[--stackSize];
+            order[visited++] = node;
+
+            // Push children in reverse, so the smallest character is visited first
+            int childCount = 0;
+            for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+                if ((seen[child >>> 6] & (1L << child)) == 0) {
+                    seen[child >>> 6] |= 1L << child;
+                    stack[stackSize + childCount++] = child;
                 }
-                // how many words starting with prefix
-                node.setCount(node.getCount() + 1);
             }
+            reverse(stack, stackSize, stackSize + childCount);
+            stackSize += childCount;
+        }
+
+        int[] newIndex = new int[size];
+        for (int i = 0; i < visited; i++) {
+            newIndex[order[i]] = i;
+        }
+
+        char[] newLabels = new char[visited];
+        int[] newFirstChild = new int[visited];
+        int[] newNextSibling = new int[visited];
+        long[] newLeaves = new long[(visited >>> 6) + 1];
+
+        for (int i = 0; i < visited; i++) {
+            int node = order[i];
+            newLabels[i] = labels.get(node);
+            newFirstChild[i] = firstChild.get(node) == NONE ? NONE : newIndex[firstChild.get(node)];
+            newNextSibling[i] = nextSibling.get(node) == NONE ? NONE : newIndex[nextSibling.get(node)];
+
+            if (isLeaf(node)) {
+                newLeaves[i >>> 6] |= 1L << i;
+            }
+        }
+
+        labels = CharBuffer.wrap(newLabels);
+        firstChild = IntBuffer.wrap(newFirstChild);
+        nextSibling = IntBuffer.wrap(newNextSibling);
+        leaves = LongBuffer.wrap(newLeaves);
+        size = visited;
+    }
+
+    /**
+     * Writes the trie in the snapshot format, which {@link #fromSnapshot(ByteBuffer, Charset)} reads back.
+     *
+     * @param channel where to write the snapshot.
+     * @throws IOException if writing fails.
+     */
+    public void writeSnapshot(WritableByteChannel channel) throws IOException {
+        int leafWords = (size >>> 6) + 1;
+        ByteBuffer buffer = ByteBuffer
+                .allocate(SNAPSHOT_HEADER_SIZE + size * (2 * Integer.BYTES + Character.BYTES) + leafWords * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(SNAPSHOT_MAGIC)
+                .putInt(SNAPSHOT_VERSION)
+                .putInt(caseSensitive ? CASE_SENSITIVE_FLAG : 0)
+                .putInt(numOfwords)
+                .putInt(size)
+                .putInt(maxWordLength);
+
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(firstChild.get(i));
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(nextSibling.get(i));
+        }
+        for (int i = 0; i < leafWords; i++) {
+            buffer.putLong(i < leaves.limit() ? leaves.get(i) : 0L);
+        }
+        for (int i = 0; i < size; i++) {
+            buffer.putChar(labels.get(i));
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Creates a read-only trie that reads its nodes straight from the snapshot buffer, without copying it.
+     *
+     * @param snapshot buffer with a snapshot written by {@link #writeSnapshot(WritableByteChannel)}, usually memory-mapped.
+     * @param charset  charset to encode searched words with.
+     * @return trie backed by the buffer.
+     */
+    public static WordSuggester fromSnapshot(ByteBuffer snapshot, Charset charset) {
+        ByteBuffer buffer = snapshot.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalArgumentException("Not a dictionary snapshot.");
+        }
+
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Unsupported dictionary snapshot version " + version + ", expected " + SNAPSHOT_VERSION + ".");
+        }
+
+        int flags = buffer.getInt();
+        int words = buffer.getInt();
+        int nodes = buffer.getInt();
+        int depth = buffer.getInt();
+        int leafWords = (nodes >>> 6) + 1;
+
+        if (buffer.remaining() < nodes * (2 * Integer.BYTES + Character.BYTES) + leafWords * Long.BYTES) {
+            throw new IllegalArgumentException("Dictionary snapshot is truncated.");
+        }
+
+        WordSuggester wordSuggester = new WordSuggester((flags & CASE_SENSITIVE_FLAG) != 0, charset);
+        wordSuggester.firstChild = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+        wordSuggester.nextSibling = section(buffer, nodes * Integer.BYTES).asIntBuffer();
+        wordSuggester.leaves = section(buffer, leafWords * Long.BYTES).asLongBuffer();
+        wordSuggester.labels = section(buffer, nodes * Character.BYTES).asCharBuffer();
+        wordSuggester.size = nodes;
+        wordSuggester.maxWordLength = depth;
+        wordSuggester.setNumberOfWords(words);
+        wordSuggester.readOnly = true;
+
+        return wordSuggester;
+    }
+
+    /**
+     * @return view of the next bytes of the buffer, which is moved past them.
+     */
+    private static ByteBuffer section(ByteBuffer buffer, int length) {
+        ByteBuffer section = buffer.slice();
+        section.limit(length);
+        buffer.position(buffer.position() + length);
+        return section.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Trie loaded from a snapshot or minimized is read-only.");
         }
     }
 
@@ -89,22 +349,15 @@ public class WordSuggester {
      *
      * @param word
      * @param doPreprocess
-     * @return the last word's node
+     * @return the last word's node or -1
      */
-    private Node searchNode(String word, boolean doPreprocess) {
+    private int searchNode(String word, boolean doPreprocess) {
         if (doPreprocess) {
             word = preprocessWord(word);
         }
-        Char2ObjectAVLTreeMap<Node> children = root.children;
-        Node node = null;
-        for (int i = 0; i < word.length(); i++) {
-            char c = word.charAt(i);
-            if (children.containsKey(c)) {
-                node = children.get(c);
-                children = node.children;
-            } else {
-                return null;
-            }
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NONE; i++) {
+            node = child(node, word.charAt(i));
         }
         return node;
     }
@@ -130,11 +383,74 @@ public class WordSuggester {
         if (doPreprocess) {
             word = preprocessWord(word);
         }
-        Node t = searchNode(word, false);
-        if (t != null && t.isLeaf())
-            return true;
-        else
-            return false;
+        int node = searchNode(word, false);
+        return node != NONE && node != ROOT && isLeaf(node);
+    }
+
+    /**
+     * Passes every word of the trie to the action, in sorted order.
+     *
+     * @param action called once per word.
+     */
+    public void forEachWord(Consumer<String> action) {
+        StringBuilder word = new StringBuilder(maxWordLength);
+        int[] path = new int[maxWordLength + 1];
+        int depth = 0;
+        path[0] = firstChild.get(ROOT);
+
+        while (depth >= 0) {
+            int node = path[depth];
+
+            if (node == NONE) {
+                // Subtree done, go on with the parent's next sibling
+                if (--depth >= 0) {
+                    word.setLength(depth);
+                    path[depth] = nextSibling.get(path[depth]);
+                }
+                continue;
+            }
+
+            word.setLength(depth);
+            word.append(labels.get(node));
+
+            if (isLeaf(node)) {
+                action.accept(word.toString());
+            }
+
+            path[++depth] = firstChild.get(node);
+        }
+    }
+
+    /**
+     * Finds the words the text has at the given position, walking down the trie once.
+     *
+     * @param text  text to look for words in.
+     * @param start position the words start at.
+     * @return ends of the found words in increasing order.
+     */
+    public int[] findWordEnds(CharSequence text, int start) {
+        int[] ends = new int[4];
+        int count = 0;
+        int node = ROOT;
+
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            node = child(node, caseSensitive ? c : Character.toLowerCase(c));
+
+            if (node == NONE) {
+                break;
+            }
+
+            if (isLeaf(node)) {
+                if (count == ends.length) {
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+
+                ends[count++] = i + 1;
+            }
+        }
+
+        return Arrays.copyOf(ends, count);
     }
 
     /**
@@ -148,76 +464,177 @@ public class WordSuggester {
      */
     public List<Suggestion> getSuggestions(String word, int maxDistance) {
 
-        Set<Suggestion> results = new HashSet<>();
+        List<Suggestion> results = new ArrayList<>();
         word = preprocessWord(word);
 
-        int size = word.length();
+        SearchState state = searchState.get();
+        state.reset(word, maxWordLength);
 
         // build first row
-        Vector<Integer> previousRow = new Vector<>(size + 1);
-        Vector<Integer> currentRow = new Vector<Integer>(size + 1);
+        int[] previousRow2 = state.rows[0];
+        int[] previousRow = state.rows[1];
 
-        for (int i = 0; i <= size; ++i) {
-            previousRow.insertElementAt(0, i);
-            currentRow.insertElementAt(i, i);
+        for (int i = 0; i <= word.length(); ++i) {
+            previousRow2[i] = 0;
+            previousRow[i] = i;
         }
 
         // recursively search each branch of the trie
-        for (Map.Entry<Character, Node> entry : root.children.entrySet()) {
-            results.addAll(RecursiveDamerauLevenshteinDistance(entry.getValue(), '\0', entry.getValue().getC(), word, previousRow, currentRow,
-                    results, maxDistance));
+        for (int child = firstChild.get(ROOT); child != NONE; child = nextSibling.get(child)) {
+            searchBranch(child, 1, '\0', word, state, results, maxDistance);
         }
 
-        return new ArrayList<>(results);
+        return results;
     }
 
-    public Set<Suggestion> RecursiveDamerauLevenshteinDistance(Node node, char prevLetter, char letter, String word,
-                                                               Vector<Integer> previousRow2, Vector<Integer> previousRow,
-                                                               Set<Suggestion> results, int maxDistance) {
+    /**
+     * Returns the best suggestions for the word, looking at words at distance 0 first, then 1 and so on up to
+     * the given one. Branches of the trie are expanded in order of the least distance a word in them may have
+     * (the minimum of the branch's row, which never decreases down the trie), the rest of them wait in the
+     * frontier of their distance. The search stops once no word further away can rank among the best ones found,
+     * so the result is the same as of {@link #getSuggestions(String, int)} sorted by the ranking and cut to the
+     * limit, but branches of far words are rarely expanded. Only the limit best suggestions are ever kept, and
+     * words whose match percentage can't rank among them are not built. Rows and branches are reused by the
+     * searches of a thread.
+     *
+     * @param word        word to look suggestions for.
+     * @param maxDistance maximum edit distance of suggestions.
+     * @param limit       maximum number of suggestions.
+     * @param ranking     order of suggestions, the best first, by match percentage before anything else.
+     *                    Ties are broken by word, the order {@link #getSuggestions(String, int)} finds them in.
+     * @return at most limit best suggestions, the best first.
+     */
+    public List<Suggestion> getSuggestions(String word, int maxDistance, int limit, Comparator<Suggestion> ranking) {
+        List<Suggestion> results = new ArrayList<>();
 
-        int columns = previousRow.size();
-        Vector<Integer> currentRow = new Vector<>(previousRow.size());
-        currentRow.add(0, previousRow.get(0) + 1);
+        if (limit <= 0 || maxDistance < 0) {
+            return results;
+        }
 
-        int insertCost, deleteCost, replaceCost;
-        for (int i = 1; i < columns; i++) {
-            insertCost = currentRow.get(i - 1) + 1;
-            deleteCost = previousRow.get(i) + 1;
+        word = preprocessWord(word);
+        String wordCode = Soundex.translate(word);
 
-            int cost;
+        Comparator<Suggestion> order = ranking.thenComparing(Suggestion::getWord);
+        // The worst of the best suggestions on top
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(limit + 1, order.reversed());
 
-            if (word.charAt(i - 1) != letter) {
-                replaceCost = previousRow.get(i - 1) + 1;
-                cost = 1;
-            } else {
-                replaceCost = previousRow.get(i - 1);
-                cost = 0;
+        BestFirstState state = bestFirstState.get();
+        state.reset(word.length() + 1, maxDistance, maxWordLength);
+
+        int rootRow = state.newRow();
+
+        for (int i = 0; i < state.columns; i++) {
+            state.rowArena[rootRow + i] = i;
+        }
+
+        state.enqueue(0, state.newBranch(ROOT, 0, NONE, rootRow));
+
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            // All the words closer than the distance are found
+            if (best.size() == limit && best.peek().getMatchPercentage() > DamerauLevenshteinDistance.getMaxPercentageDifference(word, distance)) {
+                break;
             }
 
-            currentRow.add(i, Math.min(insertCost, Math.min(deleteCost, replaceCost)));
+            while (state.heads[distance] < state.tails[distance]) {
+                int branch = state.frontiers[distance][state.heads[distance]++];
+                expand(branch, word, wordCode, maxDistance, state, best, limit);
+                state.expanded(branch);
+            }
+        }
 
-            if ((i > 1) && (prevLetter != '\0') && (word.charAt(i - 1) == prevLetter) && (word.charAt(i - 2) == letter)) {
-                currentRow.set(i, Math.min(currentRow.get(i), previousRow2.get(i - 2) + cost));
+        results.addAll(best);
+        results.sort(order);
+
+        return results;
+    }
+
+    /**
+     * Computes rows of the children of the branch, offers the words among them to the best suggestions
+     * and adds the children to the frontier of their least distance. Rows are computed in scratch space
+     * and only copied to a pooled row for children that are added.
+     */
+    private void expand(int branch, String word, String wordCode, int maxDistance,
+                        BestFirstState state, PriorityQueue<Suggestion> best, int limit) {
+
+        int node = state.nodes[branch];
+        int depth = state.depths[branch];
+        int parent = state.parents[branch];
+        char prevLetter = node == ROOT ? '\0' : labels.get(node);
+        int columns = state.columns;
+
+        // Rows of the parent and the branch, read by every child
+        int[] previousRow2 = state.previousRow2;
+        int[] previousRow = state.previousRow;
+        int[] currentRow = state.currentRow;
+
+        if (parent != NONE) {
+            System.arraycopy(state.rowArena, state.rowSlots[parent], previousRow2, 0, columns);
+        }
+
+        System.arraycopy(state.rowArena, state.rowSlots[branch], previousRow, 0, columns);
+
+        for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+            char letter = labels.get(child);
+            int rowMin = computeRow(word, letter, prevLetter, previousRow2, previousRow, currentRow);
+            int suggestedDistance = currentRow[columns - 1];
+
+            if (suggestedDistance <= maxDistance && isLeaf(child)) {
+                float percentageDifference = DamerauLevenshteinDistance.getPercentageDifference(depth + 1, word.length(), suggestedDistance);
+
+                // Ranked by percentage first, so a lower one can't enter
+                if (best.size() < limit || percentageDifference >= best.peek().getMatchPercentage()) {
+                    String suggestedWord = state.spell(branch, letter, labels);
+                    float soundexDistance = Soundex.difference(Soundex.translate(suggestedWord), wordCode);
+                    Suggestion suggestion = new Suggestion(suggestedWord, soundexDistance, suggestedDistance, percentageDifference);
+
+                    if (best.size() < limit) {
+                        best.add(suggestion);
+                    } else if (best.comparator().compare(suggestion, best.peek()) > 0) {
+                        best.poll();
+                        best.add(suggestion);
+                    }
+                }
+            }
+
+            if (rowMin <= maxDistance) {
+                int row = state.newRow();
+                System.arraycopy(currentRow, 0, state.rowArena, row, columns);
+                state.enqueue(rowMin, state.newBranch(child, depth + 1, branch, row));
             }
         }
+    }
+
+    /**
+     * Computes the Damerau-Levenshtein row of the node from the rows of its two ancestors and descends into
+     * children while some cell of the row is within the distance. Rows live in the preallocated matrix
+     * of the search state, indexed by depth, and the path to the node is kept in its prefix buffer,
+     * so only accepted words allocate.
+     */
+    private void searchBranch(int node, int depth, char prevLetter, String word,
+                              SearchState state, List<Suggestion> results, int maxDistance) {
+
+        char letter = labels.get(node);
+        int[] previousRow2 = state.rows[depth - 1];
+        int[] previousRow = state.rows[depth];
+        int[] currentRow = state.rows[depth + 1];
+        state.prefix[depth - 1] = letter;
+
+        int columns = word.length() + 1;
+        int rowMin = computeRow(word, letter, prevLetter, previousRow2, previousRow, currentRow);
 
         // If the last entry in the row indicates the optimal cost is less than
         // the maximum distance, and there is a word in this trie node, then add
         // it.
-        if (currentRow.lastElement() <= maxDistance && node.isLeaf()) {
-            Node currentParent = node.getParent();
-            StringBuilder wordBuilder = new StringBuilder();
-            while (currentParent != null) {
-                if (currentParent.getParent() != null) {
-                    wordBuilder.append(currentParent.getC());
-                }
-                currentParent = currentParent.getParent();
-            }
+        int suggestedDistance = currentRow[columns - 1];
 
-            String suggestedWord = wordBuilder.reverse().append(node.getC()).toString();
-            int suggestedDistance = currentRow.lastElement();
+        if (suggestedDistance <= maxDistance && isLeaf(node)) {
+            String suggestedWord = new String(state.prefix, 0, depth);
 
-            float soundexDistance = Soundex.difference(Soundex.translate(suggestedWord), Soundex.translate(word));
+            if (state.wordCode == null) {
+                state.wordCode = Soundex.translate(word);
+            }
+
+            float soundexDistance = Soundex.difference(Soundex.translate(suggestedWord), state.wordCode);
             float percentageDifference = DamerauLevenshteinDistance.getPercentageDifference(suggestedWord, word, suggestedDistance);
 
             results.add(new Suggestion(suggestedWord, soundexDistance, suggestedDistance, percentageDifference));
@@ -225,15 +642,53 @@ public class WordSuggester {
 
         // If any entries in the row are less than the maximum distance, then
         // recursively search each branch of the trie.
-        Object obj = Collections.min(currentRow);
-        Integer i = new Integer((int) obj);
-        if (i.intValue() <= maxDistance) {
-            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
-                results.addAll(RecursiveDamerauLevenshteinDistance(entry.getValue(), letter, entry.getValue().getC(), word, previousRow, currentRow,
-                        results, maxDistance));
+        if (rowMin <= maxDistance) {
+            for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+                searchBranch(child, depth + 1, letter, word, state, results, maxDistance);
             }
         }
-        return results;
+    }
+
+    /**
+     * Fills the Damerau-Levenshtein row of a node from the rows of its parent and grandparent.
+     *
+     * @return the least value of the row.
+     */
+    private static int computeRow(String word, char letter, char prevLetter,
+                                  int[] previousRow2, int[] previousRow, int[] currentRow) {
+        int columns = word.length() + 1;
+        currentRow[0] = previousRow[0] + 1;
+        int rowMin = currentRow[0];
+
+        int insertCost, deleteCost, replaceCost;
+        for (int i = 1; i < columns; i++) {
+            insertCost = currentRow[i - 1] + 1;
+            deleteCost = previousRow[i] + 1;
+
+            int cost;
+
+            if (word.charAt(i - 1) != letter) {
+                replaceCost = previousRow[i - 1] + 1;
+                cost = 1;
+            } else {
+                replaceCost = previousRow[i - 1];
+                cost = 0;
+            }
+
+            int value = Math.min(insertCost, Math.min(deleteCost, replaceCost));
+
+            if ((i > 1) && (prevLetter != '\0') && (word.charAt(i - 1) == prevLetter) && (word.charAt(i - 2) == letter)) {
+                value = Math.min(value, previousRow2[i - 2] + cost);
+            }
+
+            currentRow[i] = value;
+
+            if (value < rowMin) {
+                rowMin = value;
+            }
+        }
+
+        return rowMin;
     }
 
     /**
@@ -268,29 +723,12 @@ public class WordSuggester {
         return this.caseSensitive ? word : word.toLowerCase();
     }
 
-    /**
-     * Set to unvisited all the Tries's node.
-     *
-     * @param node
-     */
-    public void initFalse(Node node) {
-        node.setVisited(false);
-        if (node.children != null) {
-            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
-                initFalse(entry.getValue());
-            }
-        }
-    }
-
     /**
      * Show The WordSuggester.
      */
     public void show() {
         System.out.println("");
-        if (this.root != null) {
-            this.initFalse(this.root);
-            this.dfs(this.root);
-        }
+        dfs(ROOT);
     }
 
     /**
@@ -298,17 +736,13 @@ public class WordSuggester {
      *
      * @param node
      */
-    private void dfs(Node node) {
-        node.setVisited(true);
-        for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
-            if (entry.getValue().isVisited() == false) {
-                System.out.print("(" + entry.getValue().isRoot() + ":" + entry.getValue().getC() + ":"
-                        + entry.getValue().getCount() + ":" + entry.getValue().getParent().getC() + ")->");
-                if (entry.getValue().isLeaf()) {
-                    System.out.println("*");
-                }
-                dfs(entry.getValue());
+    private void dfs(int node) {
+        for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+            System.out.print("(" + labels.get(child) + ":" + labels.get(node) + ")->");
+            if (isLeaf(child)) {
+                System.out.println("*");
             }
+            dfs(child);
         }
     }
 
@@ -316,6 +750,10 @@ public class WordSuggester {
         return numOfwords;
     }
 
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
     private void setNumberOfWords(int words) {
         this.numOfwords = words;
     }
@@ -336,76 +774,440 @@ public class WordSuggester {
         this.charset = charset;
     }
 
-    private static class Node {
+    private boolean isLeaf(int node) {
+        return (leaves.get(node >>> 6) & (1L << node)) != 0;
+    }
+
+    private void setLeaf(int node) {
+        leaves.put(node >>> 6, leaves.get(node >>> 6) | 1L << node);
+    }
+
+    private void clearLeaf(int node) {
+        leaves.put(node >>> 6, leaves.get(node >>> 6) & ~(1L << node));
+    }
+
+    /**
+     * @return child of the node with given character or -1.
+     */
+    private int child(int node, char c) {
+        for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+            char label = labels.get(child);
+            if (label == c) {
+                return child;
+            } else if (label > c) {
+                // children are sorted
+                return NONE;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @return child of the node with given character, which is inserted if there was none.
+     */
+    private int childOrNew(int node, char c) {
+        int previous = NONE;
+        int child = firstChild.get(node);
+
+        while (child != NONE && labels.get(child) < c) {
+            previous = child;
+            child = nextSibling.get(child);
+        }
+
+        if (child != NONE && labels.get(child) == c) {
+            return child;
+        }
+
+        int newChild = newNode(c);
+        nextSibling.put(newChild, child);
+
+        if (previous == NONE) {
+            firstChild.put(node, newChild);
+        } else {
+            nextSibling.put(previous, newChild);
+        }
+
+        return newChild;
+    }
+
+    /**
+     * Adds a child with the character after the last child of the node, reusing a released node if there is one.
+     */
+    private int appendChild(int node, char c, MinimizationState state) {
+        int newChild;
+
+        if (state.freeCount > 0) {
+            newChild = state.free[--state.freeCount];
+            labels.put(newChild, c);
+            firstChild.put(newChild, NONE);
+            nextSibling.put(newChild, NONE);
+            clearLeaf(newChild);
+        } else {
+            newChild = newNode(c);
+        }
+
+        int child = firstChild.get(node);
+
+        if (child == NONE) {
+            firstChild.put(node, newChild);
+        } else {
+            while (nextSibling.get(child) != NONE) {
+                child = nextSibling.get(child);
+            }
+            nextSibling.put(child, newChild);
+        }
+
+        return newChild;
+    }
+
+    /**
+     * Replaces every child of a complete node with an equal registered node, or registers it if there is none.
+     * Children are processed from the last one, so the next sibling of each is already final when it's compared.
+     */
+    private void replaceOrRegister(int node, MinimizationState state) {
+        int childCount = 0;
+
+        for (int child = firstChild.get(node); child != NONE; child = nextSibling.get(child)) {
+            state.ensureChildren(childCount + 1);
+            state.children[childCount++] = child;
+        }
+
+        int next = NONE;
+
+        for (int i = childCount - 1; i >= 0; i--) {
+            int child = state.children[i];
+            nextSibling.put(child, next);
+
+            int registered = state.register(this, child);
+
+            if (registered != child) {
+                state.release(child);
+            }
+
+            next = registered;
+        }
+
+        firstChild.put(node, next);
+    }
+
+    private int nodeHash(int node) {
+        int hash = labels.get(node);
+        hash = 31 * hash + (isLeaf(node) ? 1 : 0);
+        hash = 31 * hash + firstChild.get(node);
+        hash = 31 * hash + nextSibling.get(node);
+        return hash ^ (hash >>> 16);
+    }
 
-        private char c;
-        // to count how many words starting with prefix
-        private int count;
-        private boolean isVisited;
-        private boolean isLeaf;
-        private boolean isRoot;
-        private Node parent;
-        //Map<Character, Node> children = new HashMap<Character, Node>();
-        Char2ObjectAVLTreeMap<Node> children = new Char2ObjectAVLTreeMap<>();
+    private boolean equalNodes(int node1, int node2) {
+        return labels.get(node1) == labels.get(node2)
+                && isLeaf(node1) == isLeaf(node2)
+                && firstChild.get(node1) == firstChild.get(node2)
+                && nextSibling.get(node1) == nextSibling.get(node2);
+    }
 
-        public Node() {
-            setCount(0);
-            setVisited(false);
+    private int newNode(char c) {
+        if (size == labels.limit()) {
+            int capacity = labels.limit() + (labels.limit() >> 1) + 1;
+            labels = CharBuffer.wrap(Arrays.copyOf(labels.array(), capacity));
+            firstChild = IntBuffer.wrap(Arrays.copyOf(firstChild.array(), capacity));
+            nextSibling = IntBuffer.wrap(Arrays.copyOf(nextSibling.array(), capacity));
+            leaves = LongBuffer.wrap(Arrays.copyOf(leaves.array(), (capacity >>> 6) + 1));
         }
 
-        public Node(char c) {
-            this();
-            setC(c);
+        int node = size++;
+        labels.put(node, c);
+        firstChild.put(node, NONE);
+        nextSibling.put(node, NONE);
+        return node;
+    }
+
+    /**
+     * Node reached by the best-first search, with its Damerau-Levenshtein row and the branch it was reached from.
+     */
+    /**
+     * Branches of a best-first search in parallel arrays, their rows in one arena and the frontiers as queues
+     * of branch numbers, reused by the searches of a thread. A row goes back to the pool once every child added
+     * for its branch is expanded, as they read it for transpositions. A branch goes back once it's expanded and
+     * none of its children remains, as their words are spelled through it.
+     */
+    private static final class BestFirstState {
+        private int columns;
+
+        private int[] rowArena = new int[0];
+        private int rowCount;
+        private int[] freeRows = new int[16];
+        private int freeRowCount;
+
+        private int[] nodes = new int[16];
+        private int[] depths = new int[16];
+        private int[] parents = new int[16];
+        private int[] rowSlots = new int[16];
+        // Children added and not expanded yet, children not released yet
+        private int[] waitingChildren = new int[16];
+        private int[] liveChildren = new int[16];
+        private int branchCount;
+        private int[] freeBranches = new int[16];
+        private int freeBranchCount;
+
+        private int[][] frontiers = new int[0][];
+        private int[] heads = new int[0];
+        private int[] tails = new int[0];
+
+        private int[] previousRow2 = new int[0];
+        private int[] previousRow = new int[0];
+        private int[] currentRow = new int[0];
+        private char[] letters = new char[0];
+
+        void reset(int columns, int maxDistance, int maxDepth) {
+            this.columns = columns;
+            rowCount = 0;
+            freeRowCount = 0;
+            branchCount = 0;
+            freeBranchCount = 0;
+
+            if (frontiers.length <= maxDistance) {
+                frontiers = Arrays.copyOf(frontiers, maxDistance + 1);
+                heads = new int[maxDistance + 1];
+                tails = new int[maxDistance + 1];
+            }
+
+            for (int distance = 0; distance <= maxDistance; distance++) {
+                if (frontiers[distance] == null) {
+                    frontiers[distance] = new int[16];
+                }
+                heads[distance] = 0;
+                tails[distance] = 0;
+            }
+
+            if (currentRow.length < columns) {
+                previousRow2 = new int[columns];
+                previousRow = new int[columns];
+                currentRow = new int[columns];
+            }
+
+            if (letters.length < maxDepth) {
+                letters = new char[maxDepth];
+            }
         }
 
-        public char getC() {
-            return c;
+        /**
+         * @return offset of a free row in the arena.
+         */
+        int newRow() {
+            if (freeRowCount > 0) {
+                return freeRows[--freeRowCount];
+            }
+
+            int row = rowCount++ * columns;
+
+            if (row + columns > rowArena.length) {
+                rowArena = Arrays.copyOf(rowArena, Math.max(row + columns, rowArena.length * 2));
+            }
+
+            return row;
         }
 
-        public void setC(char c) {
-            this.c = c;
+        int newBranch(int node, int depth, int parent, int row) {
+            int branch;
+
+            if (freeBranchCount > 0) {
+                branch = freeBranches[--freeBranchCount];
+            } else {
+                branch = branchCount++;
+
+                if (branch == nodes.length) {
+                    int capacity = branch * 2;
+                    nodes = Arrays.copyOf(nodes, capacity);
+                    depths = Arrays.copyOf(depths, capacity);
+                    parents = Arrays.copyOf(parents, capacity);
+                    rowSlots = Arrays.copyOf(rowSlots, capacity);
+                    waitingChildren = Arrays.copyOf(waitingChildren, capacity);
+                    liveChildren = Arrays.copyOf(liveChildren, capacity);
+                }
+            }
+
+            nodes[branch] = node;
+            depths[branch] = depth;
+            parents[branch] = parent;
+            rowSlots[branch] = row;
+            waitingChildren[branch] = 0;
+            liveChildren[branch] = 0;
+
+            if (parent != NONE) {
+                waitingChildren[parent]++;
+                liveChildren[parent]++;
+            }
+
+            return branch;
         }
 
-        public int getCount() {
-            return count;
+        void enqueue(int distance, int branch) {
+            if (tails[distance] == frontiers[distance].length) {
+                frontiers[distance] = Arrays.copyOf(frontiers[distance], tails[distance] * 2);
+            }
+
+            frontiers[distance][tails[distance]++] = branch;
         }
 
-        public void setCount(int count) {
-            this.count = count;
+        /**
+         * Releases what the expanded branch no longer needs.
+         */
+        void expanded(int branch) {
+            int parent = parents[branch];
+
+            if (waitingChildren[branch] == 0) {
+                releaseRow(branch);
+            }
+
+            if (parent != NONE && --waitingChildren[parent] == 0) {
+                releaseRow(parent);
+            }
+
+            // Branches without children left, up the path
+            while (branch != NONE && liveChildren[branch] == 0) {
+                parent = parents[branch];
+
+                if (freeBranchCount == freeBranches.length) {
+                    freeBranches = Arrays.copyOf(freeBranches, freeBranchCount * 2);
+                }
+
+                freeBranches[freeBranchCount++] = branch;
+
+                if (parent != NONE) {
+                    liveChildren[parent]--;
+                }
+
+                branch = parent;
+            }
         }
 
-        public boolean isVisited() {
-            return isVisited;
+        private void releaseRow(int branch) {
+            if (freeRowCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeRowCount * 2);
+            }
+
+            freeRows[freeRowCount++] = rowSlots[branch];
         }
 
-        public void setVisited(boolean isVisited) {
-            this.isVisited = isVisited;
+        /**
+         * @return word of the branch's child with given letter.
+         */
+        String spell(int branch, char letter, CharBuffer labels) {
+            int length = depths[branch] + 1;
+            letters[length - 1] = letter;
+
+            for (; nodes[branch] != ROOT; branch = parents[branch]) {
+                letters[depths[branch] - 1] = labels.get(nodes[branch]);
+            }
+
+            return new String(letters, 0, length);
         }
+    }
 
-        public boolean isLeaf() {
-            return isLeaf;
+    private static final class SearchState {
+        private int[][] rows = new int[0][];
+        private char[] prefix = new char[0];
+        private String wordCode;
+
+        void reset(String word, int maxDepth) {
+            int columns = word.length() + 1;
+            // Two extra rows: the one before the root (for transpositions) and the root's one
+            if (rows.length < maxDepth + 2 || rows[0].length < columns) {
+                int rowCount = Math.max(rows.length, maxDepth + 2);
+                int columnCount = Math.max(rows.length == 0 ? 0 : rows[0].length, columns);
+                rows = new int[rowCount][columnCount];
+            }
+            if (prefix.length < maxDepth) {
+                prefix = new char[maxDepth];
+            }
+            wordCode = null;
         }
+    }
 
-        public void setLeaf(boolean isLeaf) {
-            this.isLeaf = isLeaf;
+    /**
+     * Path of the last inserted word, the register of complete nodes (an open addressing hash set of node
+     * numbers) and released nodes, used while a minimal automaton is built.
+     */
+    private static final class MinimizationState {
+        private int[] path = new int[16];
+        private int[] children = new int[16];
+        private int[] free = new int[16];
+        private int freeCount;
+        private int[] table = newTable(1 << 12);
+        private int registered;
+
+        void ensureDepth(int depth) {
+            if (path.length <= depth) {
+                path = Arrays.copyOf(path, Math.max(depth + 1, path.length * 2));
+            }
         }
 
-        public Node getParent() {
-            return parent;
+        void ensureChildren(int count) {
+            if (children.length < count) {
+                children = Arrays.copyOf(children, Math.max(count, children.length * 2));
+            }
         }
 
-        public void setParent(Node parent) {
-            this.parent = parent;
+        void release(int node) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = node;
         }
 
-        public boolean isRoot() {
-            return isRoot;
+        /**
+         * @return registered node equal to the given one, or the node itself if it got registered.
+         */
+        int register(WordSuggester wordSuggester, int node) {
+            int mask = table.length - 1;
+
+            for (int slot = wordSuggester.nodeHash(node) & mask; ; slot = (slot + 1) & mask) {
+                int candidate = table[slot];
+
+                if (candidate == NONE) {
+                    table[slot] = node;
+
+                    if (++registered * 2 > table.length) {
+                        rehash(wordSuggester);
+                    }
+
+                    return node;
+                }
+
+                if (wordSuggester.equalNodes(candidate, node)) {
+                    return candidate;
+                }
+            }
         }
 
-        public void setRoot(boolean isRoot) {
-            this.isRoot = isRoot;
+        private void rehash(WordSuggester wordSuggester) {
+            int[] oldTable = table;
+            table = newTable(oldTable.length * 2);
+            int mask = table.length - 1;
+
+            for (int node : oldTable) {
+                if (node != NONE) {
+                    int slot = wordSuggester.nodeHash(node) & mask;
+                    while (table[slot] != NONE) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = node;
+                }
+            }
         }
 
+        private static int[] newTable(int capacity) {
+            int[] table = new int[capacity];
+            Arrays.fill(table, NONE);
+            return table;
+        }
     }
 
+    private static void reverse(int[] array, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.filter.textcorrector.spellchecking.Spellchecker;
 import com.filter.textcorrector.spellchecking.WordSuggester;
 import com.filter.textcorrector.spellchecking.model.Suggestion;
 import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import com.filter.textcorrector.util.BloomFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,19 +14,36 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Dictionary backed by a trie. Membership is checked in two tiers: a Bloom filter of the words rejects
+ * most unknown words (names, links, slang, foreign words) with one memory read, and only the words
+ * it lets through are looked up in the trie.
+ */
 //TODO: implement white and black list, add custom words to list.
 public class AbstractDictionary implements Dictionary {
     private static Logger LOGGER = LoggerFactory.getLogger(AbstractDictionary.class);
     private final String DICTIONARY_PATH;
+    private final boolean minimal;
     private WordSuggester wordSuggester;
-   /* private SuggestionSearcher wordSuggester;
-    private BloomFilter<String> filter;*/
+    private BloomFilter filter;
 
     public AbstractDictionary(final String dictionaryPath) {
+        this(dictionaryPath, false);
+    }
+
+    /**
+     * @param dictionaryPath classpath of the word list.
+     * @param minimal        set to build a minimal automaton instead of a trie, see {@link WordSuggester#minimal}.
+     */
+    protected AbstractDictionary(final String dictionaryPath, boolean minimal) {
         long startTime = System.nanoTime();
         this.DICTIONARY_PATH = dictionaryPath;
+        this.minimal = minimal;
         loadDictionary();
         long endTime = System.nanoTime();
         LOGGER.debug(this.getClass().getSimpleName() + " with size - " + getSize() + " elements loaded in time: " + (endTime - startTime) / (double) 1000000 + " ms");
@@ -33,66 +51,126 @@ public class AbstractDictionary implements Dictionary {
 
     @Override
     public boolean contains(String word) {
-        return wordSuggester.search(word);
-        // return filter.mightContain(word.toLowerCase());
+        return filter.mightContain(word.toLowerCase()) && wordSuggester.search(word);
     }
 
     @Override
     public List<Suggestion> search(String word, float editDistancePercent) {
         int distanceThreshold = DamerauLevenshteinDistance.convertPercentageToEditDistance(word, editDistancePercent);
         return wordSuggester.getSuggestions(word, distanceThreshold);
+    }
 
-        // return wordSuggester.search(word, editDistancePercent);
+    /**
+     * Searches at growing distances and stops once enough close suggestions are found,
+     * see {@link WordSuggester#getSuggestions(String, int, int, Comparator)}.
+     */
+    @Override
+    public List<Suggestion> search(String word, float editDistancePercent, int limit, Comparator<Suggestion> ranking) {
+        int distanceThreshold = DamerauLevenshteinDistance.convertPercentageToEditDistance(word, editDistancePercent);
+        return wordSuggester.getSuggestions(word, distanceThreshold, limit, ranking);
     }
 
     @Override
     public int getSize() {
         return wordSuggester.getNumberOfWords();
-        //return wordSuggester.getSize();
     }
 
+    @Override
+    public int getMaxWordLength() {
+        return wordSuggester.getMaxWordLength();
+    }
+
+    /**
+     * Finds all the words in one walk down the trie.
+     */
+    @Override
+    public int[] findWordEnds(String text, int start) {
+        return wordSuggester.findWordEnds(text, start);
+    }
+
+    /**
+     * Maps the dictionary's snapshot if there is one (see {@link DictionarySnapshot}), which holds the filter
+     * as well, so no word is visited. Otherwise builds the trie from the word list and fills the filter with its words.
+     */
     private void loadDictionary() {
-        wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
-        //wordSuggester = new SuggestionSearcher();
+        Path snapshot = DictionarySnapshot.locate(DICTIONARY_PATH);
+
+        if (snapshot != null) {
+            try {
+                DictionarySnapshot.Mapping mapping = DictionarySnapshot.map(snapshot);
+                wordSuggester = mapping.getWordSuggester();
+                filter = mapping.getFilter();
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Can't load dictionary snapshot " + snapshot + ", loading word list instead.", e);
+            }
+        }
 
-        try {
-            InputStream inputStream = new BufferedInputStream(Spellchecker.class.getResourceAsStream(DICTIONARY_PATH));
-            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        wordSuggester = minimal ? readMinimalWordList(DICTIONARY_PATH) : readWordList(DICTIONARY_PATH);
+        filter = buildFilter(wordSuggester);
+    }
+
+    /**
+     * Words are added in lower case, the case {@link #contains(String)} checks them in.
+     */
+    static BloomFilter buildFilter(WordSuggester wordSuggester) {
+        long startTime = System.nanoTime();
+        BloomFilter filter = new BloomFilter(wordSuggester.getNumberOfWords());
+        wordSuggester.forEachWord(word -> filter.add(word.toLowerCase()));
+        long endTime = System.nanoTime();
+        LOGGER.debug("Bloom filter of " + filter.getSizeInBytes() + " bytes built in time: " + (endTime - startTime) / (double) 1000000 + " ms");
+        return filter;
+    }
+
+    /**
+     * Builds a minimal automaton from a word list on the classpath, one word per line.
+     */
+    static WordSuggester readMinimalWordList(String dictionaryPath) {
+        List<String> words = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Spellchecker.class.getResourceAsStream(dictionaryPath), StandardCharsets.UTF_8))) {
 
             String line;
 
             while ((line = reader.readLine()) != null) {
-                try {
-                    wordSuggester.add(line);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
+                words.add(line);
             }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
 
-            inputStream.close();
-            reader.close();
+        return WordSuggester.minimal(words, false, StandardCharsets.UTF_8);
+    }
 
-           /* filter = BloomFilter.create(
-                    Funnels.stringFunnel(Charset.defaultCharset()),
-                    getSize(),
-                    0.001);
+    /**
+     * Builds a compacted trie from a word list on the classpath, one word per line.
+     */
+    static WordSuggester readWordList(String dictionaryPath) {
+        WordSuggester wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
 
-            inputStream = new BufferedInputStream(Spellchecker.class.getResourceAsStream(DICTIONARY_PATH));
-            reader = new BufferedReader(new InputStreamReader(inputStream));
+        try {
+            InputStream inputStream = new BufferedInputStream(Spellchecker.class.getResourceAsStream(dictionaryPath));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+            String line;
 
             while ((line = reader.readLine()) != null) {
                 try {
-                    filter.put(line.toLowerCase());
+                    wordSuggester.add(line);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
             }
 
+            inputStream.close();
             reader.close();
-            inputStream.close();*/
 
+            wordSuggester.compact();
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        return wordSuggester;
     }
 }
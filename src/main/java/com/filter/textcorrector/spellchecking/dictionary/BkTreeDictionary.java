@@ -0,0 +1,83 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.spellchecking.SuggestionSearcher;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Dictionary that answers fuzzy searches from a BK-tree (see {@link SuggestionSearcher}). A lookup computes
+ * the distance to a fraction of the words instead of walking a trie, which pays off on languages with long
+ * words sharing few prefixes.
+ */
+public class BkTreeDictionary implements Dictionary {
+    private static Logger LOGGER = LoggerFactory.getLogger(BkTreeDictionary.class);
+    private final String DICTIONARY_PATH;
+    private SuggestionSearcher suggestionSearcher;
+
+    public BkTreeDictionary(final String dictionaryPath) {
+        long startTime = System.nanoTime();
+        this.DICTIONARY_PATH = dictionaryPath;
+        loadDictionary();
+        long endTime = System.nanoTime();
+        LOGGER.debug(this.getClass().getSimpleName() + " with size - " + getSize() + " elements loaded in time: " + (endTime - startTime) / (double) 1000000 + " ms");
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return suggestionSearcher.contains(word);
+    }
+
+    @Override
+    public List<Suggestion> search(String word, float editDistancePercent) {
+        return suggestionSearcher.search(word, editDistancePercent);
+    }
+
+    /**
+     * Searches at growing distances and stops once enough close suggestions are found,
+     * see {@link SuggestionSearcher#search(String, int, int, Comparator)}.
+     */
+    @Override
+    public List<Suggestion> search(String word, float editDistancePercent, int limit, Comparator<Suggestion> ranking) {
+        int distanceThreshold = DamerauLevenshteinDistance.convertPercentageToEditDistance(word, editDistancePercent);
+        return suggestionSearcher.search(word, distanceThreshold, limit, ranking);
+    }
+
+    @Override
+    public int getSize() {
+        return suggestionSearcher.getSize();
+    }
+
+    @Override
+    public int getMaxWordLength() {
+        return suggestionSearcher.getMaxWordLength();
+    }
+
+    private void loadDictionary() {
+        List<String> words = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Spellchecker.class.getResourceAsStream(DICTIONARY_PATH), StandardCharsets.UTF_8))) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        suggestionSearcher = new SuggestionSearcher(words);
+    }
+}
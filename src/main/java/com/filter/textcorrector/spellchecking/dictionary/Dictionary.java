@@ -2,10 +2,52 @@ package com.filter.textcorrector.spellchecking.dictionary;
 
 import com.filter.textcorrector.spellchecking.model.Suggestion;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public interface Dictionary {
     boolean contains(String word);
     List<Suggestion> search(String word, float editDistancePercent);
     int getSize();
+
+    /**
+     * Finds the best suggestions for the word.
+     *
+     * @param limit   maximum number of suggestions.
+     * @param ranking order of suggestions, the best first, by match percentage before anything else.
+     * @return at most limit best suggestions, the best first.
+     */
+    default List<Suggestion> search(String word, float editDistancePercent, int limit, Comparator<Suggestion> ranking) {
+        return search(word, editDistancePercent).stream()
+                .sorted(ranking)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return length of the longest word in the dictionary.
+     */
+    int getMaxWordLength();
+
+    /**
+     * Finds the words of the dictionary the text has at the given position, case is ignored.
+     *
+     * @param text  text to look for words in.
+     * @param start position the words start at.
+     * @return ends of the found words in increasing order.
+     */
+    default int[] findWordEnds(String text, int start) {
+        int[] ends = new int[getMaxWordLength()];
+        int count = 0;
+
+        for (int end = start + 1; end <= Math.min(text.length(), start + getMaxWordLength()); end++) {
+            if (contains(text.substring(start, end))) {
+                ends[count++] = end;
+            }
+        }
+
+        return Arrays.copyOf(ends, count);
+    }
 }
@@ -1,41 +1,131 @@
 package com.filter.textcorrector.spellchecking.dictionary;
 
 import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.SuggestionEngine;
+import com.filter.textcorrector.util.DictionaryRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+/**
+ * Gives out dictionaries shared by all spellcheckers. A dictionary is loaded on first use of its language,
+ * languages listed in {@value #PRELOAD_PROPERTY} system property (e.g. "en,ru") are loaded in background on startup.
+ */
 public class DictionaryFactory {
-    private static Map<Language, Supplier<? extends Dictionary>> map = new HashMap<>();
+    private static Logger LOGGER = LoggerFactory.getLogger(DictionaryFactory.class);
+
+    public static final String PRELOAD_PROPERTY = "checkmate.dictionaries.preload";
+
+    private static Map<Language, Supplier<? extends Dictionary>> map = new EnumMap<>(Language.class);
+    private static Map<Language, String> dictionaryPaths = new EnumMap<>(Language.class);
+    private static final Map<SuggestionEngine, DictionaryRegistry<Language, Dictionary>> registries = new EnumMap<>(SuggestionEngine.class);
 
     private DictionaryFactory() {
         throw new AssertionError("This class is not meant to be instantiated.");
     }
 
     static {
-        Dictionary  englishDictionary = new EnglishDictionary();
-        Dictionary  russianDictionary = new RussianDictionary();
+        map.put(Language.ENGLISH, EnglishDictionary::new);
+        map.put(Language.RUSSIAN, RussianDictionary::new);
+        map.put(Language.UKRAINIAN, UkrainianDictionary::new);
+        map.put(Language.GERMAN, GermanDictionary::new);
+        map.put(Language.SPANISH, SpanishDictionary::new);
+        map.put(Language.FRENCH, FrenchDictionary::new);
+        map.put(Language.POLISH, PolishDictionary::new);
 
-        map.put(Language.ENGLISH, () -> englishDictionary);
-        map.put(Language.RUSSIAN, () -> russianDictionary);
+        dictionaryPaths.put(Language.ENGLISH, EnglishDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.RUSSIAN, RussianDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.UKRAINIAN, UkrainianDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.GERMAN, GermanDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.SPANISH, SpanishDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.FRENCH, FrenchDictionary.DICTIONARY_PATH);
+        dictionaryPaths.put(Language.POLISH, PolishDictionary.DICTIONARY_PATH);
 
-      /*  map.put(Language.ENGLISH, EnglishDictionary::new);
-        map.put(Language.ENGLISH, RussianDictionary::new);*/
+        registries.put(SuggestionEngine.TRIE, new DictionaryRegistry<>(language -> map.get(language).get()));
+        registries.put(SuggestionEngine.DAWG, new DictionaryRegistry<>(
+                language -> new MinimalDictionary(dictionaryPaths.get(language))));
+        registries.put(SuggestionEngine.SYMMETRIC_DELETE, new DictionaryRegistry<>(
+                language -> new SymmetricDeleteDictionary(dictionaryPaths.get(language))));
+        registries.put(SuggestionEngine.BK_TREE, new DictionaryRegistry<>(
+                language -> new BkTreeDictionary(dictionaryPaths.get(language))));
 
-        //TODO: load all dictionaries.
- /*       map.put(Language.SPANISH, SpanishDictionary::new);
-        map.put(Language.UKRAINIAN, UkrainianDictionary::new);
-        map.put(Language.RUSSIAN, RussianDictionary::new);*/
+        String preload = System.getProperty(PRELOAD_PROPERTY);
+
+        if (preload != null && !preload.trim().isEmpty()) {
+            List<Language> languages = new ArrayList<>();
+
+            for (String name : preload.split(",")) {
+                Language language = Language.fromString(name.trim());
+
+                if (language != null && map.containsKey(language)) {
+                    languages.add(language);
+                } else {
+                    LOGGER.warn("Unknown language to preload: " + name);
+                }
+            }
+
+            registries.get(SuggestionEngine.TRIE).preload(languages);
+        }
     }
 
     public static Dictionary create(final Language language) {
-        Supplier<? extends Dictionary> supplier = map.get(language);
+        return create(language, SuggestionEngine.TRIE);
+    }
 
-        if (supplier != null) {
-            return supplier.get();
+    /**
+     * Returns the shared dictionary of the language, loading it if it wasn't used yet.
+     *
+     * @param language         dictionary language.
+     * @param suggestionEngine how the dictionary looks up suggestions.
+     * @return dictionary instance, the same for all callers.
+     */
+    public static Dictionary create(final Language language, final SuggestionEngine suggestionEngine) {
+        if (!map.containsKey(language)) {
+            throw new IllegalArgumentException("No such dictionary " + language.toString());
         }
 
-        throw new IllegalArgumentException("No such dictionary " + language.toString());
+        return registries.get(suggestionEngine).get(language);
+    }
+
+    /**
+     * Loads dictionaries in background, so the first spellchecker using them doesn't wait.
+     *
+     * @param suggestionEngine how the dictionaries look up suggestions.
+     * @param languages        languages to load.
+     * @return future completed when all the dictionaries are loaded.
+     */
+    public static CompletableFuture<Void> preload(final SuggestionEngine suggestionEngine, final Language... languages) {
+        for (Language language : languages) {
+            if (!map.containsKey(language)) {
+                throw new IllegalArgumentException("No such dictionary " + language.toString());
+            }
+        }
+
+        return registries.get(suggestionEngine).preload(Arrays.asList(languages));
+    }
+
+    /**
+     * Unloads dictionaries that weren't used for the given time. They are loaded again when needed.
+     * Zero disables unloading (default).
+     *
+     * @param timeout idle time.
+     * @param unit    unit of the idle time.
+     */
+    public static void setIdleTimeout(long timeout, TimeUnit unit) {
+        for (DictionaryRegistry<Language, Dictionary> registry : registries.values()) {
+            registry.setIdleTimeout(timeout, unit);
+        }
+    }
+
+    public static boolean isLoaded(final Language language, final SuggestionEngine suggestionEngine) {
+        return registries.get(suggestionEngine).isLoaded(language);
     }
 }
@@ -0,0 +1,210 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import com.filter.textcorrector.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary snapshots of spellchecking dictionaries. A snapshot holds the minimal automaton of a word list exactly
+ * as it is laid out in memory, so loading it is a memory mapping: queries read the mapped file and nothing is rebuilt.
+ * The Bloom filter of the words is stored in front of the automaton, so it isn't refilled word by word either.
+ * <p>
+ * Snapshots are looked up in the directory given by the {@value #SNAPSHOT_DIRECTORY_PROPERTY} system property
+ * and named after the word list, e.g. {@code en_dictionary_80k.snapshot}. Build them with {@link #main(String...)}.
+ */
+public final class DictionarySnapshot {
+    public static final String SNAPSHOT_DIRECTORY_PROPERTY = "checkmate.snapshot.dir";
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private static Logger LOGGER = LoggerFactory.getLogger(DictionarySnapshot.class);
+
+    // File layout, little-endian: header ints, filter longs, then the automaton as written by WordSuggester
+    private static final int SNAPSHOT_MAGIC = 0x434D4453;
+    // Version 1 files held the automaton only
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int SNAPSHOT_HEADER_SIZE = 3 * Integer.BYTES;
+
+    private static final String[] DICTIONARY_PATHS = {
+            "/dictionaries/en_dictionary_80k.txt",
+            "/dictionaries/en_dictionary_10k.txt",
+            "/dictionaries/ru_dictionary_130k.txt",
+            "/dictionaries/uk_dictionary_110k.txt",
+            "/dictionaries/de_dictionary_160k.txt",
+            "/dictionaries/es_dictionary_70k.txt",
+            "/dictionaries/fr_dictionary_80k.txt",
+            "/dictionaries/pl_dictionary_290k.txt"
+    };
+
+    private DictionarySnapshot() {
+        throw new AssertionError("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Builds the minimal automaton of a word list on the classpath and writes its snapshot.
+     *
+     * @param dictionaryPath classpath of the word list.
+     * @param snapshot       file to write.
+     * @throws IOException if writing fails.
+     */
+    public static void write(String dictionaryPath, Path snapshot) throws IOException {
+        WordSuggester wordSuggester = AbstractDictionary.readMinimalWordList(dictionaryPath);
+        write(wordSuggester, AbstractDictionary.buildFilter(wordSuggester), snapshot);
+    }
+
+    /**
+     * Writes a snapshot of the trie and the filter of its words.
+     *
+     * @param wordSuggester trie to write.
+     * @param filter        filter {@link AbstractDictionary#contains(String)} checks before the trie.
+     * @param snapshot      file to write.
+     * @throws IOException if writing fails.
+     */
+    public static void write(WordSuggester wordSuggester, BloomFilter filter, Path snapshot) throws IOException {
+        long[] bits = filter.toBits();
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE + bits.length * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(SNAPSHOT_MAGIC)
+                .putInt(SNAPSHOT_VERSION)
+                .putInt(bits.length);
+
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            wordSuggester.writeSnapshot(channel);
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot file. The mapping stays valid after the file is closed.
+     * Only the filter is copied to the heap, no word is read.
+     *
+     * @param snapshot file written by {@link #write(String, Path)}.
+     * @return read-only trie backed by the mapping and the filter of its words.
+     * @throws IOException              if the file can't be read.
+     * @throws IllegalArgumentException if the file isn't a snapshot of this version or is truncated.
+     */
+    public static Mapping map(Path snapshot) throws IOException {
+        long startTime = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalArgumentException("Not a dictionary snapshot.");
+            }
+
+            int version = buffer.getInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("Unsupported dictionary snapshot version " + version + ", expected " + SNAPSHOT_VERSION + ".");
+            }
+
+            int filterLongs = buffer.getInt();
+
+            if (filterLongs < 0 || buffer.remaining() / Long.BYTES < filterLongs) {
+                throw new IllegalArgumentException("Dictionary snapshot is truncated.");
+            }
+
+            long[] bits = new long[filterLongs];
+            buffer.asLongBuffer().get(bits);
+            buffer.position(buffer.position() + filterLongs * Long.BYTES);
+
+            Mapping mapping = new Mapping(WordSuggester.fromSnapshot(buffer.slice(), StandardCharsets.UTF_8),
+                    BloomFilter.fromBits(bits));
+
+            long endTime = System.nanoTime();
+            LOGGER.debug("Snapshot " + snapshot + " mapped in time: " + (endTime - startTime) / (double) 1000000 + " ms");
+
+            return mapping;
+        }
+    }
+
+    /**
+     * @return snapshot of the word list in the snapshot directory, or null if there is none.
+     */
+    static Path locate(String dictionaryPath) {
+        String directory = System.getProperty(SNAPSHOT_DIRECTORY_PROPERTY);
+
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+
+        Path snapshot = Paths.get(directory, snapshotName(dictionaryPath));
+        return Files.isReadable(snapshot) ? snapshot : null;
+    }
+
+    static String snapshotName(String dictionaryPath) {
+        String name = dictionaryPath.substring(dictionaryPath.lastIndexOf('/') + 1);
+
+        if (name.endsWith(".txt")) {
+            name = name.substring(0, name.length() - ".txt".length());
+        }
+
+        return name + SNAPSHOT_EXTENSION;
+    }
+
+    /**
+     * Writes snapshots of the shipped dictionaries.
+     *
+     * @param args output directory, followed by classpaths of word lists (all shipped ones if omitted).
+     */
+    public static void main(String... args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : ".");
+        String[] dictionaryPaths = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DICTIONARY_PATHS;
+
+        Files.createDirectories(directory);
+
+        for (String dictionaryPath : dictionaryPaths) {
+            long startTime = System.nanoTime();
+            Path snapshot = directory.resolve(snapshotName(dictionaryPath));
+            write(dictionaryPath, snapshot);
+            long endTime = System.nanoTime();
+
+            System.out.println(snapshot + " - " + Files.size(snapshot) + " bytes, built in " + (endTime - startTime) / (double) 1000000 + " ms");
+        }
+    }
+
+    /**
+     * Trie and filter read from a snapshot.
+     */
+    public static final class Mapping {
+        private final WordSuggester wordSuggester;
+        private final BloomFilter filter;
+
+        Mapping(WordSuggester wordSuggester, BloomFilter filter) {
+            this.wordSuggester = wordSuggester;
+            this.filter = filter;
+        }
+
+        public WordSuggester getWordSuggester() {
+            return wordSuggester;
+        }
+
+        public BloomFilter getFilter() {
+            return filter;
+        }
+    }
+}
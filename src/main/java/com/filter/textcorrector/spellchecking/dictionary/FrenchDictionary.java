@@ -0,0 +1,9 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+public class FrenchDictionary extends AbstractDictionary {
+    static final String DICTIONARY_PATH = "/dictionaries/fr_dictionary_80k.txt";
+
+    public FrenchDictionary() {
+        super(DICTIONARY_PATH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+public class GermanDictionary extends AbstractDictionary {
+    static final String DICTIONARY_PATH = "/dictionaries/de_dictionary_160k.txt";
+
+    public GermanDictionary() {
+        super(DICTIONARY_PATH);
+    }
+}
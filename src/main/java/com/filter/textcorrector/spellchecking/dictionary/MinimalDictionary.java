@@ -0,0 +1,11 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+/**
+ * Dictionary stored as a minimal automaton, so inflected forms sharing endings don't repeat them.
+ */
+public class MinimalDictionary extends AbstractDictionary {
+
+    public MinimalDictionary(final String dictionaryPath) {
+        super(dictionaryPath, true);
+    }
+}
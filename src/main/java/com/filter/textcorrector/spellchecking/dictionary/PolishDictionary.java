@@ -0,0 +1,9 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+public class PolishDictionary extends AbstractDictionary {
+    static final String DICTIONARY_PATH = "/dictionaries/pl_dictionary_290k.txt";
+
+    public PolishDictionary() {
+        super(DICTIONARY_PATH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+public class SpanishDictionary extends AbstractDictionary {
+    static final String DICTIONARY_PATH = "/dictionaries/es_dictionary_70k.txt";
+
+    public SpanishDictionary() {
+        super(DICTIONARY_PATH);
+    }
+}
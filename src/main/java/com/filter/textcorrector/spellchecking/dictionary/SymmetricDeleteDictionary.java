@@ -0,0 +1,77 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.spellchecking.SymmetricDeleteSuggester;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dictionary that answers fuzzy searches from a precomputed delete index instead of walking a trie.
+ * Loads slower and takes more memory than {@link AbstractDictionary}, but a lookup costs a few dozen
+ * hash lookups. Edit distances above {@link SymmetricDeleteSuggester#getMaxEditDistance()} are lowered to it.
+ */
+public class SymmetricDeleteDictionary implements Dictionary {
+    private static Logger LOGGER = LoggerFactory.getLogger(SymmetricDeleteDictionary.class);
+    private final String DICTIONARY_PATH;
+    private SymmetricDeleteSuggester wordSuggester;
+
+    public SymmetricDeleteDictionary(final String dictionaryPath) {
+        this(dictionaryPath, SymmetricDeleteSuggester.DEFAULT_MAX_EDIT_DISTANCE, SymmetricDeleteSuggester.DEFAULT_PREFIX_LENGTH);
+    }
+
+    public SymmetricDeleteDictionary(final String dictionaryPath, int maxEditDistance, int prefixLength) {
+        long startTime = System.nanoTime();
+        this.DICTIONARY_PATH = dictionaryPath;
+        loadDictionary(maxEditDistance, prefixLength);
+        long endTime = System.nanoTime();
+        LOGGER.debug(this.getClass().getSimpleName() + " with size - " + getSize() + " elements loaded in time: " + (endTime - startTime) / (double) 1000000 + " ms");
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return wordSuggester.search(word);
+    }
+
+    @Override
+    public List<Suggestion> search(String word, float editDistancePercent) {
+        int distanceThreshold = DamerauLevenshteinDistance.convertPercentageToEditDistance(word, editDistancePercent);
+        return wordSuggester.getSuggestions(word, distanceThreshold);
+    }
+
+    @Override
+    public int getSize() {
+        return wordSuggester.getNumberOfWords();
+    }
+
+    @Override
+    public int getMaxWordLength() {
+        return wordSuggester.getMaxWordLength();
+    }
+
+    private void loadDictionary(int maxEditDistance, int prefixLength) {
+        List<String> words = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Spellchecker.class.getResourceAsStream(DICTIONARY_PATH), StandardCharsets.UTF_8))) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        wordSuggester = new SymmetricDeleteSuggester(words, maxEditDistance, prefixLength);
+    }
+}
@@ -0,0 +1,9 @@
+package com.filter.textcorrector.spellchecking.dictionary;
+
+public class UkrainianDictionary extends AbstractDictionary {
+    static final String DICTIONARY_PATH = "/dictionaries/uk_dictionary_110k.txt";
+
+    public UkrainianDictionary() {
+        super(DICTIONARY_PATH);
+    }
+}
@@ -2,16 +2,19 @@ package com.filter.textcorrector.spellchecking.util;
 
 import jdk.nashorn.internal.ir.annotations.Immutable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 /**
- * Implementation of DamerauLevenshteinDistance-Levenshtein distance with transposition (also
- * sometimes calls unrestricted DamerauLevenshteinDistance-Levenshtein distance).
- * It is the minimum number of operations needed to transform one string into
- * the other, where an operation is defined as an insertion, deletion, or
- * substitution of a single character, or a transposition of two adjacent
- * characters.
- * It does respect triangle inequality, and is thus a metric distance.
+ * Edit distances between strings: the minimum number of operations needed to transform one string into
+ * the other, where an operation is defined as an insertion, deletion, or substitution of a single character,
+ * or a transposition of two adjacent characters.
+ * <p>
+ * {@link #distance(String, String)} computes the unrestricted Damerau-Levenshtein distance, where transposed
+ * characters may be edited further. It does respect triangle inequality, and is thus a metric distance.
+ * {@link #osaDistance(String, String, int)} computes the restricted one (optimal string alignment), where
+ * they may not. It's never smaller, is faster to compute and is what the suggestion engines rank by,
+ * but it's not a metric: osa("ca", "abc") is 3, while osa("ca", "ac") + osa("ac", "abc") is 2.
  */
 @Immutable
 public class DamerauLevenshteinDistance {
@@ -102,11 +105,273 @@ public class DamerauLevenshteinDistance {
         return h[s1.length() + 1][s2.length() + 1];
     }
 
+    /**
+     * Compute the same distance as {@link #distance(String, String)}, but stop as soon as it's known to exceed
+     * the maximum. The smallest value of a row of the matrix never decreases from row to row, so the computation
+     * ends at the first row with all of its values over the maximum. Scratch space is reused by the calls of a thread.
+     *
+     * @param s1  The first string to compare.
+     * @param s2  The second string to compare.
+     * @param max The maximum distance of interest.
+     * @return The computed distance, or {@code max + 1} if it's greater than max.
+     * @throws NullPointerException if s1 or s2 is null.
+     * @throws IllegalArgumentException if max is negative.
+     */
+    public static int distance(final String s1, final String s2, final int max) {
+        if (s1 == null) {
+            throw new NullPointerException("s1 must not be null");
+        }
+
+        if (s2 == null) {
+            throw new NullPointerException("s2 must not be null");
+        }
+
+        if (max < 0) {
+            throw new IllegalArgumentException("Maximum distance must not be negative");
+        }
+
+        if (s1.equals(s2)) {
+            return 0;
+        }
+
+        if (Math.abs(s1.length() - s2.length()) > max) {
+            return max + 1;
+        }
+
+        int m = s1.length();
+        int n = s2.length();
+        int inf = m + n;
+        // Row i + 1 of the matrix starts at (i + 1) * width, as in distance(s1, s2)
+        int width = n + 2;
+
+        Scratch scratch = scratchState.get();
+        int[] h = scratch.matrix((m + 2) * width);
+        scratch.clearLastRows(m);
+
+        h[0] = inf;
+
+        for (int i = 0; i <= m; i++) {
+            h[(i + 1) * width] = inf;
+            h[(i + 1) * width + 1] = i;
+        }
+
+        for (int j = 0; j <= n; j++) {
+            h[j + 1] = inf;
+            h[width + j + 1] = j;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            char c1 = s1.charAt(i - 1);
+            int row = (i + 1) * width;
+            int previousRow = i * width;
+            int rowMin = h[row + 1];
+            int db = 0;
+
+            for (int j = 1; j <= n; j++) {
+                char c2 = s2.charAt(j - 1);
+                int i1 = scratch.lastRow(c2);
+                int j1 = db;
+
+                int cost = 1;
+                if (c1 == c2) {
+                    cost = 0;
+                    db = j;
+                }
+
+                int value = min(
+                        h[previousRow + j] + cost, // substitution
+                        h[row + j] + 1, // insertion
+                        h[previousRow + j + 1] + 1, // deletion
+                        h[i1 * width + j1] + (i - i1 - 1) + 1 + (j - j1 - 1));
+
+                h[row + j + 1] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            if (rowMin > max) {
+                return max + 1;
+            }
+
+            scratch.setLastRow(c1, i);
+        }
+
+        int distance = h[(m + 1) * width + n + 1];
+        return distance <= max ? distance : max + 1;
+    }
+
+    /**
+     * Compute the restricted distance between strings (optimal string alignment: a transposed pair of
+     * characters isn't edited further), the same one {@link com.filter.textcorrector.spellchecking.WordSuggester}
+     * computes while walking the trie. It can only be greater than {@link #distance(String, String)} on strings
+     * like "ca" and "abc", and it's not a metric, so it must not be used where triangle inequality is relied on.
+     * <p>
+     * Computation stops as soon as the distance is known to exceed the maximum. If the shorter string has
+     * at most 64 characters, columns of the matrix are computed as bit vectors (Hyyrö, "A Bit-Vector Algorithm
+     * for Computing Levenshtein and Damerau Edit Distances"), otherwise only a band of the matrix around
+     * its diagonal is computed. Scratch space is reused by the calls of a thread.
+     *
+     * @param s1  The first string to compare.
+     * @param s2  The second string to compare.
+     * @param max The maximum distance of interest.
+     * @return The computed distance, or {@code max + 1} if it's greater than max.
+     * @throws NullPointerException if s1 or s2 is null.
+     * @throws IllegalArgumentException if max is negative.
+     */
+    public static int osaDistance(final String s1, final String s2, final int max) {
+        if (s1 == null) {
+            throw new NullPointerException("s1 must not be null");
+        }
+
+        if (s2 == null) {
+            throw new NullPointerException("s2 must not be null");
+        }
+
+        if (max < 0) {
+            throw new IllegalArgumentException("Maximum distance must not be negative");
+        }
+
+        // The pattern is the shorter string, the text is scanned
+        String pattern = s1.length() <= s2.length() ? s1 : s2;
+        String text = pattern == s1 ? s2 : s1;
+
+        if (text.length() - pattern.length() > max) {
+            return max + 1;
+        }
+
+        if (pattern.isEmpty()) {
+            return text.length();
+        }
+
+        Scratch scratch = scratchState.get();
+
+        if (pattern.length() <= Long.SIZE) {
+            return bitParallelDistance(pattern, text, max, scratch);
+        }
+
+        return bandedDistance(pattern, text, max, scratch);
+    }
+
+    private static int bitParallelDistance(String pattern, String text, int max, Scratch scratch) {
+        int m = pattern.length();
+        int n = text.length();
+
+        scratch.setPattern(pattern);
+
+        long lastBit = 1L << (m - 1);
+        // Vertical deltas of the current column: +1 (positive) or -1 (negative), 0 otherwise
+        long positive = m == Long.SIZE ? -1L : (1L << m) - 1;
+        long negative = 0;
+        long previousDiagonal = 0;
+        long previousMatches = 0;
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            long matches = scratch.matches(text.charAt(j));
+            long transpositions = (((~previousDiagonal) & matches) << 1) & previousMatches;
+            long diagonal = (((matches & positive) + positive) ^ positive) | matches | negative | transpositions;
+            long horizontalPositive = negative | ~(diagonal | positive);
+            long horizontalNegative = diagonal & positive;
+
+            if ((horizontalPositive & lastBit) != 0) {
+                score++;
+            } else if ((horizontalNegative & lastBit) != 0) {
+                score--;
+            }
+
+            // Each remaining column can lower the score by one at most
+            if (score - (n - j - 1) > max) {
+                return max + 1;
+            }
+
+            horizontalPositive = (horizontalPositive << 1) | 1;
+            horizontalNegative = horizontalNegative << 1;
+            positive = horizontalNegative | ~(diagonal | horizontalPositive);
+            negative = horizontalPositive & diagonal;
+
+            previousDiagonal = diagonal;
+            previousMatches = matches;
+        }
+
+        return score <= max ? score : max + 1;
+    }
+
+    private static int bandedDistance(String pattern, String text, int max, Scratch scratch) {
+        int m = pattern.length();
+        int n = text.length();
+        int outside = max + 1;
+
+        scratch.ensureRows(n + 1);
+        int[] previousRow2 = scratch.rows[0];
+        int[] previousRow = scratch.rows[1];
+        int[] currentRow = scratch.rows[2];
+
+        for (int j = 0; j <= n; j++) {
+            previousRow[j] = j <= max ? j : outside;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            // Cells further than max from the diagonal can't be within max
+            int from = Math.max(1, i - max);
+            int to = Math.min(n, i + max);
+            int rowMin = outside;
+
+            currentRow[from - 1] = from == 1 && i <= max ? i : outside;
+            if (from - 1 == 0) {
+                rowMin = currentRow[0];
+            }
+
+            char patternChar = pattern.charAt(i - 1);
+
+            for (int j = from; j <= to; j++) {
+                int cost = patternChar == text.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previousRow[j - 1] + cost, Math.min(previousRow[j] + 1, currentRow[j - 1] + 1));
+
+                if (i > 1 && j > 1 && patternChar == text.charAt(j - 2) && pattern.charAt(i - 2) == text.charAt(j - 1)) {
+                    value = Math.min(value, previousRow2[j - 2] + cost);
+                }
+
+                currentRow[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, currentRow[j]);
+            }
+
+            if (to < n) {
+                currentRow[to + 1] = outside;
+            }
+
+            if (rowMin > max) {
+                return outside;
+            }
+
+            int[] tmp = previousRow2;
+            previousRow2 = previousRow;
+            previousRow = currentRow;
+            currentRow = tmp;
+        }
+
+        return Math.min(previousRow[n], outside);
+    }
+
     public static float getPercentageDifference(String word, String wordToMatch, int editDistance) {
-        int longestWordLength = Math.max(word.length(), wordToMatch.length());
+        return getPercentageDifference(word.length(), wordToMatch.length(), editDistance);
+    }
+
+    /**
+     * @return the same as {@link #getPercentageDifference(String, String, int)} for words of the given lengths,
+     * so it can be known before a word is built.
+     */
+    public static float getPercentageDifference(int wordLength, int wordToMatchLength, int editDistance) {
+        int longestWordLength = Math.max(wordLength, wordToMatchLength);
         return 100.0f - (((float) editDistance / longestWordLength) * 100.0f);
     }
 
+    /**
+     * @return the highest percentage (see {@link #getPercentageDifference(String, String, int)}) a word at the edit
+     * distance or further from the given one may have, as it's at most that many characters longer.
+     */
+    public static float getMaxPercentageDifference(String word, int editDistance) {
+        return 100.0f - (((float) editDistance / (word.length() + editDistance)) * 100.0f);
+    }
+
     public static int convertPercentageToEditDistance(String keyword, float matchPercentage) {
         return keyword.length() - (Math.round((keyword.length() * matchPercentage) / 100.0f));
     }
@@ -114,4 +379,125 @@ public class DamerauLevenshteinDistance {
     private static int min(final int a, final int b, final int c, final int d) {
         return Math.min(a, Math.min(b, Math.min(c, d)));
     }
+
+    private static final ThreadLocal<Scratch> scratchState = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Match masks of the pattern characters, in a small open addressing table stamped with the call
+     * it belongs to, so it's never cleared, matrix rows for the banded computation, and the matrix and
+     * the last row of each character of the unrestricted computation, in a table stamped the same way.
+     */
+    private static final class Scratch {
+        private static final int TABLE_SIZE = 128;
+
+        private final char[] keys = new char[TABLE_SIZE];
+        private final long[] masks = new long[TABLE_SIZE];
+        private final int[] stamps = new int[TABLE_SIZE];
+        private int stamp;
+        private int[][] rows = new int[3][0];
+
+        private int[] matrix = new int[0];
+        private char[] lastRowKeys = new char[0];
+        private int[] lastRows = new int[0];
+        private int[] lastRowStamps = new int[0];
+        private int lastRowStamp;
+
+        void setPattern(String pattern) {
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int slot = slot(c);
+
+                if (stamps[slot] != stamp) {
+                    stamps[slot] = stamp;
+                    keys[slot] = c;
+                    masks[slot] = 0;
+                }
+
+                masks[slot] |= 1L << i;
+            }
+        }
+
+        long matches(char c) {
+            int slot = slot(c);
+            return stamps[slot] == stamp ? masks[slot] : 0;
+        }
+
+        /**
+         * @return slot holding the character in the current call, or a free one. At most 64 characters
+         * are stored, so the table is never more than half full.
+         */
+        private int slot(char c) {
+            int slot = (c ^ (c >>> 7)) & (TABLE_SIZE - 1);
+
+            while (stamps[slot] == stamp && keys[slot] != c) {
+                slot = (slot + 1) & (TABLE_SIZE - 1);
+            }
+
+            return slot;
+        }
+
+        void ensureRows(int length) {
+            if (rows[0].length < length) {
+                rows = new int[3][length];
+            }
+        }
+
+        int[] matrix(int size) {
+            if (matrix.length < size) {
+                matrix = new int[size];
+            }
+
+            return matrix;
+        }
+
+        /**
+         * Forgets the rows of the previous call, making room for the given number of distinct characters
+         * while keeping the table at most half full.
+         */
+        void clearLastRows(int characters) {
+            if (lastRowKeys.length < characters * 2) {
+                int size = Integer.highestOneBit(Math.max(8, characters * 4) - 1) << 1;
+                lastRowKeys = new char[size];
+                lastRows = new int[size];
+                lastRowStamps = new int[size];
+                lastRowStamp = 0;
+            }
+
+            if (++lastRowStamp == 0) {
+                Arrays.fill(lastRowStamps, 0);
+                lastRowStamp = 1;
+            }
+        }
+
+        /**
+         * @return the last row of the first string the character was at, 0 if it wasn't there yet.
+         */
+        int lastRow(char c) {
+            int slot = lastRowSlot(c);
+            return lastRowStamps[slot] == lastRowStamp ? lastRows[slot] : 0;
+        }
+
+        void setLastRow(char c, int row) {
+            int slot = lastRowSlot(c);
+            lastRowStamps[slot] = lastRowStamp;
+            lastRowKeys[slot] = c;
+            lastRows[slot] = row;
+        }
+
+        private int lastRowSlot(char c) {
+            int mask = lastRowKeys.length - 1;
+            int slot = (c ^ (c >>> 7)) & mask;
+
+            while (lastRowStamps[slot] == lastRowStamp && lastRowKeys[slot] != c) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+    }
 }
@@ -1,20 +1,19 @@
 package com.filter.textcorrector.spellchecking.util;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Improved SoundEx algorithm implementation for comparing words phonetics.
  */
-
-//TODO: load resources once on initialization.
 public class Soundex {
+    private static final char NO_CODE = '\0';
 
     /**
-     * Language codes for comparing.
+     * Language codes for comparing, indexed by letter - 'A'. Vowels, H, W and Y are ignored.
      */
-    private static Map<Character, Character> encoding;
+    private static final char[] englishCodes = "01230120022455012623010202".toCharArray();
+
+    private Soundex() {
+        throw new AssertionError("This class is not meant to be instantiated.");
+    }
 
     /**
      * Generates phonetic code for word.
@@ -23,26 +22,19 @@ public class Soundex {
      * @return phonetic code of the word.
      */
     public static String translate(String word) {
-        encoding = englishCodes();
         return soundexEnglish(word);
     }
 
+    /**
+     * Compares codes as numbers: the first letter's char code followed by the digits, the shorter code padded with zeros.
+     *
+     * @return difference in percents of the smaller number.
+     */
     public static float difference(String code1, String code2) {
+        int length = Math.max(code1.length(), code2.length());
 
-        int lengthDiff = Math.abs(code1.length() - code2.length());
-
-        if (code1.length() > code2.length()) {
-            for (int i = 0; i < lengthDiff; i++) {
-                code2 = code2 + "0";
-            }
-        } else {
-            for (int i = 0; i < lengthDiff; i++) {
-                code1 = code1 + "0";
-            }
-        }
-
-        float firstCode1 = Float.parseFloat((int) code1.charAt(0) + code1.substring(1, code1.length()));
-        float firstCode2 = Float.parseFloat((int) code2.charAt(0) + code2.substring(1, code2.length()));
+        float firstCode1 = codeValue(code1, length);
+        float firstCode2 = codeValue(code2, length);
 
         float biggerNew = Math.max(firstCode1, firstCode2);
         float smallerOriginal = Math.min(firstCode1, firstCode2);
@@ -53,6 +45,47 @@ public class Soundex {
         return percentage;
     }
 
+    /**
+     * @return number the code padded to the length reads as. Computed exactly in a long and rounded once,
+     * which gives the same float as parsing its decimal string, unless it doesn't fit.
+     */
+    private static float codeValue(String code, int length) {
+        int letter = code.charAt(0);
+        int letterDigits = letter < 10 ? 1 : letter < 100 ? 2 : letter < 1000 ? 3 : letter < 10000 ? 4 : 5;
+
+        if (letterDigits + length - 1 > 18) {
+            return parseCodeValue(code, length);
+        }
+
+        long value = letter;
+
+        for (int i = 1; i < length; i++) {
+            if (i < code.length()) {
+                char digit = code.charAt(i);
+
+                if (digit < '0' || digit > '9') {
+                    return parseCodeValue(code, length);
+                }
+
+                value = value * 10 + (digit - '0');
+            } else {
+                value *= 10;
+            }
+        }
+
+        return (float) value;
+    }
+
+    private static float parseCodeValue(String code, int length) {
+        StringBuilder number = new StringBuilder().append((int) code.charAt(0)).append(code, 1, code.length());
+
+        for (int i = code.length(); i < length; i++) {
+            number.append('0');
+        }
+
+        return Float.parseFloat(number.toString());
+    }
+
     private static String soundexEnglish(String word) {
         if (word.isEmpty() || word == null) {
             return "000";
@@ -60,9 +93,11 @@ public class Soundex {
 
         String casedString = word.toUpperCase();
         int length = word.length();
-        String letter = String.valueOf(casedString.charAt(0));
-        String code = letter + "", soundex;
+        char letter = casedString.charAt(0);
 
+        // Number of times each digit is in the code, digits are sorted anyway
+        int[] digitCounts = new int[10];
+        int codeLength = 1;
 
         char previousCode = '-';
 
@@ -75,62 +110,24 @@ public class Soundex {
 
             char currentCode = getCode(currentLetter);
 
-            if (currentCode != '\0' && !sameAdjacentCodes(previousCode, currentCode)) {
-                code = code + currentCode;
+            if (currentCode != NO_CODE && !sameAdjacentCodes(previousCode, currentCode)) {
+                digitCounts[currentCode - '0']++;
+                codeLength++;
             }
 
             previousCode = currentCode;
         }
 
-        soundex = code;
-        return convertToScramble(soundex.substring(1, code.length()), letter);
-    }
-
-    private static Map<Character, Character> englishCodes() {
-        Map<Character, Character> englishCodes = new HashMap<>();
-
-        /* Consonants*/
-        englishCodes.put('B', '1');
-        englishCodes.put('F', '1');
-        englishCodes.put('P', '1');
-        englishCodes.put('V', '1');
-
-        englishCodes.put('C', '2');
-        englishCodes.put('G', '2');
-        englishCodes.put('J', '2');
-        englishCodes.put('K', '2');
-        englishCodes.put('Q', '2');
-        englishCodes.put('S', '2');
-        englishCodes.put('X', '2');
-        englishCodes.put('Z', '2');
-
-        englishCodes.put('D', '3');
-        englishCodes.put('T', '3');
-
-        englishCodes.put('L', '4');
-
-        englishCodes.put('M', '5');
-        englishCodes.put('N', '5');
-
-        englishCodes.put('R', '6');
-
-     /*    Ignore List
-         Vowels*/
-        englishCodes.put('A', '\0');
-        englishCodes.put('E', '\0');
-        englishCodes.put('I', '\0');
-        englishCodes.put('O', '\0');
-        englishCodes.put('U', '\0');
-        englishCodes.put('Y', '\0');
-        englishCodes.put('H', '\0');
-        englishCodes.put('W', '\0');
-
-        return englishCodes;
+        return convertToScramble(digitCounts, codeLength, letter);
     }
 
     private static char getCode(char letterPattern) {
-        Character letterCode = encoding.get(letterPattern);
-        return letterCode == null ? '\0' : letterCode;
+        if (letterPattern < 'A' || letterPattern > 'Z') {
+            return NO_CODE;
+        }
+
+        char letterCode = englishCodes[letterPattern - 'A'];
+        return letterCode == '0' ? NO_CODE : letterCode;
     }
 
     private static boolean sameAdjacentCodes(char previousCode, char currentCode) {
@@ -138,18 +135,21 @@ public class Soundex {
     }
 
     /**
-     * Improvement for phonetic code generation, that produces more generic code.
+     * Improvement for phonetic code generation, that produces more generic code:
+     * the first letter followed by the digits in descending order.
      */
-    private static String convertToScramble(String token, String letter) {
-        char[] soundexChars = Arrays.copyOf(token.toCharArray(), token.length());
-
-        Arrays.sort(soundexChars);
-        StringBuilder soundexToken = new StringBuilder();
-        soundexToken.append(soundexChars);
-        soundexToken.append(letter);
-        soundexToken.reverse();
+    private static String convertToScramble(int[] digitCounts, int codeLength, char letter) {
+        char[] soundexChars = new char[codeLength];
+        soundexChars[0] = letter;
+
+        int position = 1;
+        for (int digit = 9; digit >= 0; digit--) {
+            for (int i = 0; i < digitCounts[digit]; i++) {
+                soundexChars[position++] = (char) ('0' + digit);
+            }
+        }
 
-        return soundexToken.toString();
+        return new String(soundexChars);
     }
 
     public static void main(String[] args) {
@@ -1,24 +1,33 @@
 package com.filter.textcorrector.text_preproccessing;
 
+import it.unimi.dsi.fastutil.ints.Int2CharOpenHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Scanner;
 
 public class SymbolMapper {
     private static final String PATH = "/dictionaries/UnicodeToASCIIAppearance.txt";
+    private static final int BMP_SIZE = Character.MAX_VALUE + 1;
+    private static final char NONE = 0;
 
     private static Logger LOGGER = LoggerFactory.getLogger(SymbolMapper.class);
 
-    private Map<Integer, Character> codes;
-    private Map<Integer, Character> numberCodes;
+    // Only read once loaded, so a mapper can be shared by threads.
+    // Chars of the BMP index the tables directly and map to themselves when they aren't look-alikes,
+    // the few code points of supplementary planes are kept in maps.
+    private final char[] numberTable;
+    private final char[] characterTable;
+    private final Int2CharOpenHashMap supplementaryNumbers;
+    private final Int2CharOpenHashMap supplementaryCharacters;
 
     public SymbolMapper() {
-        codes = new HashMap<>();
-        numberCodes = new HashMap<>();
+        numberTable = new char[BMP_SIZE];
+        characterTable = new char[BMP_SIZE];
+        supplementaryNumbers = new Int2CharOpenHashMap();
+        supplementaryCharacters = new Int2CharOpenHashMap();
+        supplementaryNumbers.defaultReturnValue(NONE);
+        supplementaryCharacters.defaultReturnValue(NONE);
         loadCodes();
     }
 
@@ -39,10 +48,13 @@ public class SymbolMapper {
                     asciiSymbol++;
                 } else {
                     int decimalUnicode = Integer.parseInt(code);
+                    boolean isNumber = asciiSymbol >= 48 && asciiSymbol <= 57;
 
-                    if (asciiSymbol >= 48 && asciiSymbol <= 57) {
-                        numberCodes.put(decimalUnicode, asciiSymbol);
-                    } else codes.put(decimalUnicode, asciiSymbol);
+                    if (decimalUnicode < BMP_SIZE) {
+                        (isNumber ? numberTable : characterTable)[decimalUnicode] = asciiSymbol;
+                    } else {
+                        (isNumber ? supplementaryNumbers : supplementaryCharacters).put(decimalUnicode, asciiSymbol);
+                    }
                 }
             }
         } finally {
@@ -50,9 +62,17 @@ public class SymbolMapper {
                 scanner.close();
             }
 
+            int codeCount = supplementaryNumbers.size() + supplementaryCharacters.size();
+
+            for (int i = 0; i < BMP_SIZE; i++) {
+                codeCount += (numberTable[i] == NONE ? 0 : 1) + (characterTable[i] == NONE ? 0 : 1);
+                numberTable[i] = numberTable[i] == NONE ? (char) i : numberTable[i];
+                characterTable[i] = Character.toLowerCase(characterTable[i] == NONE ? (char) i : characterTable[i]);
+            }
+
             long endProccessingTime = System.nanoTime();
 
-            LOGGER.debug("Symbol mapper loaded. Contains - " + codes.size() + numberCodes.size() + " codes.");
+            LOGGER.debug("Symbol mapper loaded. Contains - " + codeCount + " codes.");
             LOGGER.debug("Symbol mapper loading took time: " + (endProccessingTime - startProccessingTime) / (double) 1000000 + " ms");
         }
     }
@@ -60,100 +80,120 @@ public class SymbolMapper {
     public String mapNumbers(String text) {
         char[] characterArray = text.toCharArray();
 
-        char previous = '\0';
-        int startIndex = -1;
-        int position = 0;
+        if (unchangedPrefix(characterArray, 0, characterArray.length, numberTable) == characterArray.length) {
+            return text;
+        }
 
-        int length = characterArray.length;
+        int length = mapNumbers(characterArray, 0, characterArray.length);
+        return new String(characterArray, 0, length);
+    }
 
-        while (position < length) {
+    /**
+     * Replaces look-alikes of digits with the digits in place, a surrogate pair takes one char then.
+     * Nothing is written before the first look-alike, so plain ASCII text is only read.
+     *
+     * @return end of the mapped text, which is never after the given end.
+     */
+    public int mapNumbers(char[] text, int from, int to) {
+        int i = unchangedPrefix(text, from, to, numberTable);
+        int position = i;
 
-            char current = characterArray[position];
-            int code = (int) current;
+        while (i < to) {
+            char current = text[i];
 
-            if (Character.isSurrogatePair(previous, current)) {
-                code = Character.toCodePoint(previous, current);
-                startIndex = position - 1;
-            }
+            if (i + 1 < to && Character.isSurrogatePair(current, text[i + 1])) {
+                char replacement = supplementaryNumbers.get(Character.toCodePoint(current, text[i + 1]));
 
-            char replacement = numberCodes.get(code) == null ? (char) code : numberCodes.get(code);
-
-            if (Character.isDigit(replacement)) {
-                characterArray[position] = replacement;
+                if (replacement == NONE) {
+                    replacement = (char) Character.toCodePoint(current, text[i + 1]);
+                }
 
-                if (startIndex != -1) {
-                    move(characterArray, startIndex, characterArray.length);
-                    characterArray = Arrays.copyOf(characterArray, length - 1);
-                    startIndex = -1;
-                    length--;
+                if (Character.isDigit(replacement)) {
+                    text[position++] = replacement;
                 } else {
-                    position++;
+                    text[position++] = current;
+                    text[position++] = text[i + 1];
                 }
+
+                i += 2;
             } else {
-                startIndex = -1;
-                position++;
+                text[position++] = numberTable[current];
+                i++;
             }
-
-            previous = current;
         }
 
-        return new String(characterArray);
+        return position;
     }
 
-
     public String mapCharacters(String text) {
-        if (textIsNumber(text)) {
+        char[] textArray = text.toCharArray();
+
+        if (textIsNumber(textArray, 0, textArray.length)
+                || unchangedPrefix(textArray, 0, textArray.length, characterTable) == textArray.length) {
             return text;
         }
 
-        char[] textArray = text.toCharArray();
-        int length = textArray.length;
+        int length = mapCharacters(textArray, 0, textArray.length);
+        return new String(textArray, 0, length);
+    }
 
-        char previous = '\0';
-        int startIndex = -1;
+    /**
+     * Replaces look-alikes of ASCII symbols with the symbols and lowercases the text in place,
+     * a surrogate pair takes one char then. Numbers are left as they are.
+     * Nothing is written before the first char that changes, so lowercase ASCII text is only read.
+     *
+     * @return end of the mapped text, which is never after the given end.
+     */
+    public int mapCharacters(char[] text, int from, int to) {
+        if (textIsNumber(text, from, to)) {
+            return to;
+        }
+
+        int i = unchangedPrefix(text, from, to, characterTable);
+        int position = i;
 
-        int position = 0;
+        while (i < to) {
+            char current = text[i];
 
-        while (position < length) {
+            if (i + 1 < to && Character.isSurrogatePair(current, text[i + 1])) {
+                char replacement = supplementaryCharacters.get(Character.toCodePoint(current, text[i + 1]));
 
-            char current = textArray[position];
-            int code = (int) current;
+                if (replacement == NONE) {
+                    replacement = (char) Character.toCodePoint(current, text[i + 1]);
+                }
 
-            if (Character.isSurrogatePair(previous, current)) {
-                code = Character.toCodePoint(previous, current);
-                startIndex = position - 1;
+                text[position++] = Character.toLowerCase(replacement);
+                i += 2;
+            } else {
+                text[position++] = characterTable[current];
+                i++;
             }
+        }
 
-            char replacement = codes.get(code) == null ? (char) code : codes.get(code);
-            textArray[position] = Character.toLowerCase(replacement);
+        return position;
+    }
 
-            if (startIndex != -1) {
-                move(textArray, startIndex, textArray.length);
-                textArray = Arrays.copyOf(textArray, length - 1);
-                startIndex = -1;
-                length--;
-            } else position++;
+    /**
+     * @return index of the first char the table changes or that starts a surrogate pair, the end if there's none.
+     */
+    private static int unchangedPrefix(char[] text, int from, int to, char[] table) {
+        int i = from;
 
-            previous = current;
+        while (i < to && table[text[i]] == text[i] && !Character.isHighSurrogate(text[i])) {
+            i++;
         }
 
-        return new String(textArray);
+        return i;
     }
 
-    private static boolean textIsNumber(String text) {
-        for (int i = 0; i < text.length(); i++) {
-            if (!Character.isDigit(text.charAt(i)))
+    private static boolean textIsNumber(char[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(text[i]))
                 return false;
         }
         return true;
     }
 
-    private static void move(char[] array, int startIndex, int endIndex) {
-        for (int i = startIndex; i < endIndex - 1; i++) {
-            array[i] = array[i + 1];
-        }
-    }
-
     public static void main(String... args) {
         SymbolMapper symbolMapper = new SymbolMapper();
 
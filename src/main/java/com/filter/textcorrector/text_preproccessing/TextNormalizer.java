@@ -0,0 +1,450 @@
+package com.filter.textcorrector.text_preproccessing;
+
+import com.filter.textcorrector.text_preproccessing.util.CleanTextType;
+import com.filter.textcorrector.text_preproccessing.util.TextUtils;
+
+/**
+ * Normalizes a text as the {@link CleanTextType} rules of {@link TextUtils} do, without regular expressions.
+ * Every rule is one pass of a small state machine over a char buffer: it reads the text once, copies it
+ * to the other buffer and skips what the rule removes. Lookarounds of a rule look at the text of its own pass,
+ * like the regular expression did, and where a rule had to backtrack, the furthest place a run of chars may end
+ * is found once per run. So a text takes a few linear passes and two buffers however many words it has.
+ * <p>
+ * Letters, word characters and word boundaries are the ones of Java 8 regular expressions.
+ */
+final class TextNormalizer {
+    // String.toLowerCase() turns a char into at most 3 ones
+    private static final int MAX_LOWER_CASE_EXPANSION = 3;
+
+    private final SymbolMapper symbolMapper;
+
+    TextNormalizer(SymbolMapper symbolMapper) {
+        this.symbolMapper = symbolMapper;
+    }
+
+    /**
+     * Maps look-alike symbols and removes the noise between and within words, the steps are:
+     * <ol>
+     * <li>look-alikes of digits are mapped to digits;</li>
+     * <li>{@link CleanTextType#SPACES_BETWEEN_SINGLE_LETTERS};</li>
+     * <li>look-alikes in words are mapped to letters and words are lowercased, see {@link #mapWords};</li>
+     * <li>{@link CleanTextType#PUNCTUATION_BETWEEN_SINGLE_LETTERS};</li>
+     * <li>{@link CleanTextType#WHITE_SPACES};</li>
+     * <li>{@link CleanTextType#SYMBOLS_IN_WORDS};</li>
+     * <li>{@link CleanTextType#DIGITS_IN_WORDS}.</li>
+     * </ol>
+     */
+    String normalize(String text, boolean removeRepeatedLetters) {
+        int capacity = removeRepeatedLetters ? text.length() * MAX_LOWER_CASE_EXPANSION : text.length();
+        char[] input = new char[capacity];
+        char[] output = new char[capacity];
+        char[] swap;
+
+        text.getChars(0, text.length(), input, 0);
+        int length = symbolMapper.mapNumbers(input, 0, text.length());
+
+        length = removeSpacesBetweenSingleLetters(input, length, output);
+        swap = input; input = output; output = swap;
+
+        length = mapWords(input, length, output, removeRepeatedLetters);
+        swap = input; input = output; output = swap;
+
+        length = removePunctuationBetweenSingleLetters(input, length, output);
+        swap = input; input = output; output = swap;
+
+        length = collapseWhiteSpaces(input, length, output);
+        swap = input; input = output; output = swap;
+
+        length = removeSymbolsInWords(input, length, output);
+        swap = input; input = output; output = swap;
+
+        length = removeDigitsInWords(input, length, output);
+
+        return new String(output, 0, length);
+    }
+
+    /**
+     * Whitespace between two single letters, as in "n i c e": {@code (?<=\b\p{L})\s+(?=\p{L}\b)}.
+     */
+    static int removeSpacesBetweenSingleLetters(char[] text, int length, char[] output) {
+        int position = 0;
+        int i = 0;
+
+        while (i < length) {
+            if (!isWhitespace(text[i])) {
+                output[position++] = text[i++];
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < length && isWhitespace(text[end])) {
+                end++;
+            }
+
+            boolean singleLetterBefore = i > 0 && Character.isLetter(text[i - 1]) && !isWordBefore(text, length, i - 1);
+            boolean singleLetterAfter = end < length && Character.isLetter(Character.codePointAt(text, end, length))
+                    && !isWordAt(text, length, end + Character.charCount(Character.codePointAt(text, end, length)));
+
+            if (!singleLetterBefore || !singleLetterAfter) {
+                while (i < end) {
+                    output[position++] = text[i++];
+                }
+            }
+
+            i = end;
+        }
+
+        return position;
+    }
+
+    /**
+     * Maps look-alike symbols of every word and lowercases it, numbers are left as they are.
+     * Words are split as by {@link CleanTextType#SPLIT_WITHOUT_CLEANING}: at whitespace, at punctuation followed
+     * by whitespace, at a run of punctuation between whitespace and at the punctuation ending the text.
+     * A word is kept as it is if its letters and digits but the last one form a number, e.g. "9'9" or "3rd".
+     */
+    private int mapWords(char[] text, int length, char[] output, boolean removeRepeatedLetters) {
+        // \s*\p{Punct}+\s*$, where $ is also before a line separator ending the text
+        int end = length > 0 && isLineSeparator(text[length - 1]) ? length - 1 : length;
+        int punctuationEnd = end;
+        while (punctuationEnd > 0 && isWhitespace(text[punctuationEnd - 1])) {
+            punctuationEnd--;
+        }
+        int punctuationStart = punctuationEnd;
+        while (punctuationStart > 0 && isPunctuation(text[punctuationStart - 1])) {
+            punctuationStart--;
+        }
+        int trailingStart = punctuationStart;
+        while (trailingStart > 0 && isWhitespace(text[trailingStart - 1])) {
+            trailingStart--;
+        }
+        if (punctuationStart == punctuationEnd) {
+            trailingStart = length;
+        }
+
+        int position = 0;
+        int wordStart = -1;
+        int i = 0;
+
+        while (i < length) {
+            int separatorEnd = i;
+
+            if (isPunctuation(text[i]) && i + 1 < length && isWhitespace(text[i + 1])) {
+                separatorEnd = i + 2;
+            } else if (isPunctuation(text[i]) && i > 0 && isWhitespace(text[i - 1])) {
+                int run = i;
+                while (run < length && isPunctuation(text[run])) {
+                    run++;
+                }
+                if (run - i > 1 && run < length && isWhitespace(text[run])) {
+                    separatorEnd = run + 1;
+                }
+            }
+
+            if (separatorEnd == i && i >= trailingStart && i < punctuationEnd) {
+                separatorEnd = end;
+            }
+
+            if (separatorEnd == i && !isWhitespace(text[i])) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+                i++;
+                continue;
+            }
+
+            if (wordStart >= 0) {
+                position = mapWord(text, wordStart, i, output, position, removeRepeatedLetters);
+                wordStart = -1;
+            }
+
+            separatorEnd = Math.max(separatorEnd, i + 1);
+            while (i < separatorEnd) {
+                output[position++] = text[i++];
+            }
+        }
+
+        if (wordStart >= 0) {
+            position = mapWord(text, wordStart, length, output, position, removeRepeatedLetters);
+        }
+
+        return position;
+    }
+
+    /**
+     * @return end of the word in the output.
+     */
+    private int mapWord(char[] text, int start, int end, char[] output, int position, boolean removeRepeatedLetters) {
+        if (isNumberWithSuffix(text, start, end)) {
+            System.arraycopy(text, start, output, position, end - start);
+            return position + end - start;
+        }
+
+        if (removeRepeatedLetters) {
+            String word = TextUtils.removeRepeatedLetters(new String(text, start, end - start));
+            word.getChars(0, word.length(), output, position);
+            return symbolMapper.mapCharacters(output, position, position + word.length());
+        }
+
+        System.arraycopy(text, start, output, position, end - start);
+        return symbolMapper.mapCharacters(output, position, position + end - start);
+    }
+
+    /**
+     * @return true if the word has at least 2 ASCII letters, digits and underscores, and all of them but the last one are digits.
+     */
+    private static boolean isNumberWithSuffix(char[] text, int start, int end) {
+        int count = 0;
+        int firstNonDigit = -1;
+
+        for (int i = start; i < end; i++) {
+            char c = text[i];
+
+            if (isAsciiLetterOrDigit(c) || c == '_') {
+                if (firstNonDigit < 0 && !isAsciiDigit(c)) {
+                    firstNonDigit = count;
+                }
+                count++;
+            }
+        }
+
+        return count > 1 && (firstNonDigit < 0 || firstNonDigit == count - 1);
+    }
+
+    /**
+     * Whatever is between two single letters but ASCII letters and digits, as in "f-u-c-k":
+     * {@code (?<=(?<!\p{L})\p{L})[^a-zA-Z0-9]+(?=\p{L}(?!\p{L}))}.
+     */
+    static int removePunctuationBetweenSingleLetters(char[] text, int length, char[] output) {
+        int position = 0;
+        // Run of chars that may be removed and the furthest place a removal in it may end
+        int runEnd = -1;
+        int lastSingleLetter = -1;
+        int i = 0;
+
+        while (i < length) {
+            char c = text[i];
+
+            if (!isAsciiLetterOrDigit(c) && i > 0 && Character.isLetter(text[i - 1])
+                    && (i < 2 || !Character.isLetter(text[i - 2]))) {
+                if (i >= runEnd) {
+                    runEnd = i;
+                    while (runEnd < length && !isAsciiLetterOrDigit(text[runEnd])) {
+                        runEnd++;
+                    }
+
+                    lastSingleLetter = -1;
+                    for (int j = runEnd; j > i; j--) {
+                        if (isSingleLetterAt(text, length, j)) {
+                            lastSingleLetter = j;
+                            break;
+                        }
+                    }
+                }
+
+                if (lastSingleLetter > i) {
+                    i = lastSingleLetter;
+                    continue;
+                }
+            }
+
+            output[position++] = c;
+            i++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Every run of whitespace becomes one space: {@code \s+}.
+     */
+    static int collapseWhiteSpaces(char[] text, int length, char[] output) {
+        int position = 0;
+        int i = 0;
+
+        while (i < length) {
+            if (isWhitespace(text[i])) {
+                output[position++] = ' ';
+                while (i < length && isWhitespace(text[i])) {
+                    i++;
+                }
+            } else {
+                output[position++] = text[i++];
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Symbols between word boundaries, as in "bec;ause": {@code (?<=\b)[^a-zA-Z0-9',-. ]+(?=\b)}.
+     */
+    static int removeSymbolsInWords(char[] text, int length, char[] output) {
+        int position = 0;
+        // Run of chars that may be removed and the furthest place a removal in it may end
+        int runEnd = -1;
+        int lastBoundary = -1;
+        int i = 0;
+
+        while (i < length) {
+            char c = text[i];
+
+            if (isSymbol(c) && isBoundary(text, length, i)) {
+                if (i >= runEnd) {
+                    runEnd = i;
+                    while (runEnd < length && isSymbol(text[runEnd])) {
+                        runEnd++;
+                    }
+
+                    lastBoundary = -1;
+                    for (int j = runEnd; j > i; j--) {
+                        if (isBoundary(text, length, j)) {
+                            lastBoundary = j;
+                            break;
+                        }
+                    }
+                }
+
+                if (lastBoundary > i) {
+                    i = lastBoundary;
+                    continue;
+                }
+            }
+
+            output[position++] = c;
+            i++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Digits ending a word, as in "hello0,": {@code (?<=\p{L})[0-9]+(?=\W)}.
+     */
+    static int removeDigitsInWords(char[] text, int length, char[] output) {
+        int position = 0;
+        int i = 0;
+
+        while (i < length) {
+            if (!isAsciiDigit(text[i]) || i == 0 || !Character.isLetter(text[i - 1])) {
+                output[position++] = text[i++];
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < length && isAsciiDigit(text[end])) {
+                end++;
+            }
+
+            if (end == length || isAsciiLetterOrDigit(text[end]) || text[end] == '_') {
+                while (i < end) {
+                    output[position++] = text[i++];
+                }
+            }
+
+            i = end;
+        }
+
+        return position;
+    }
+
+    /**
+     * @return true if a letter starts at the position and no letter follows it: {@code \p{L}(?!\p{L})}.
+     */
+    private static boolean isSingleLetterAt(char[] text, int length, int position) {
+        if (position >= length) {
+            return false;
+        }
+
+        int letter = Character.codePointAt(text, position, length);
+        int next = position + Character.charCount(letter);
+
+        return Character.isLetter(letter) && (next >= length || !Character.isLetter(Character.codePointAt(text, next, length)));
+    }
+
+    /**
+     * Word boundary {@code \b}: a word character is on one side of the position only.
+     */
+    private static boolean isBoundary(char[] text, int length, int position) {
+        return isWordBefore(text, length, position) != isWordAt(text, length, position);
+    }
+
+    private static boolean isWordBefore(char[] text, int length, int position) {
+        if (position == 0) {
+            return false;
+        }
+
+        int codePoint = Character.codePointBefore(text, position);
+        return isWordCharacter(codePoint)
+                || Character.getType(codePoint) == Character.NON_SPACING_MARK && hasBaseCharacter(text, length, position - 1);
+    }
+
+    private static boolean isWordAt(char[] text, int length, int position) {
+        if (position >= length) {
+            return false;
+        }
+
+        int codePoint = Character.codePointAt(text, position, length);
+        return isWordCharacter(codePoint)
+                || Character.getType(codePoint) == Character.NON_SPACING_MARK && hasBaseCharacter(text, length, position);
+    }
+
+    /**
+     * A non-spacing mark is a word character if it follows a letter or digit, maybe through other marks.
+     */
+    private static boolean hasBaseCharacter(char[] text, int length, int position) {
+        for (int i = position; i >= 0; i--) {
+            int codePoint = Character.codePointAt(text, i, length);
+
+            if (Character.isLetterOrDigit(codePoint)) {
+                return true;
+            }
+
+            if (Character.getType(codePoint) != Character.NON_SPACING_MARK) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isWordCharacter(int codePoint) {
+        return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+
+    /**
+     * Chars {@link CleanTextType#SYMBOLS_IN_WORDS} removes: {@code [^a-zA-Z0-9',-. ]}.
+     */
+    private static boolean isSymbol(char c) {
+        return !isAsciiLetterOrDigit(c) && c != '\'' && c != ',' && c != '-' && c != '.' && c != ' ';
+    }
+
+    /**
+     * {@code \s}
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Line terminators that are not {@code \s}.
+     */
+    private static boolean isLineSeparator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * {@code \p{Punct}}, ASCII punctuation.
+     */
+    private static boolean isPunctuation(char c) {
+        return c >= '!' && c <= '/' || c >= ':' && c <= '@' || c >= '[' && c <= '`' || c >= '{' && c <= '~';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || isAsciiDigit(c);
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -48,7 +48,8 @@ public class TextUtils {
     }
 
     public static String replaceWord(String source, String word, String replacement) {
-        return source.replaceAll("\\b" + word + "\\b", replacement);
+        // Quoted, so words with regex symbols are matched literally
+        return source.replaceAll("\\b" + Pattern.quote(word) + "\\b", Matcher.quoteReplacement(replacement));
     }
 
     public static boolean isWordDigit(String word) {
@@ -0,0 +1,88 @@
+package com.filter.textcorrector.text_preproccessing.util;
+
+import java.util.Arrays;
+
+/**
+ * Positions of words in a text, found in a single pass. A word is a run of letters and digits,
+ * apostrophes and hyphens between them are kept inside (e.g. "don't", "well-known").
+ * Everything else separates words and isn't part of any of them.
+ * Letters outside the BMP are whole code points, a surrogate pair is never split between a word and a separator.
+ */
+public final class WordSpans {
+    private final String text;
+    // Word i takes text.substring(starts[i], ends[i])
+    private int[] starts;
+    private int[] ends;
+    private int size;
+
+    private WordSpans(String text) {
+        this.text = text;
+        int capacity = Math.max(4, text.length() / 6);
+        starts = new int[capacity];
+        ends = new int[capacity];
+    }
+
+    public static WordSpans of(String text) {
+        WordSpans spans = new WordSpans(text);
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            int codePoint = text.codePointAt(i);
+
+            if (!Character.isLetterOrDigit(codePoint)) {
+                i += Character.charCount(codePoint);
+                continue;
+            }
+
+            int start = i;
+
+            while (i < length) {
+                codePoint = text.codePointAt(i);
+
+                if (Character.isLetterOrDigit(codePoint)) {
+                    i += Character.charCount(codePoint);
+                } else if (isJoiner(codePoint) && i + 1 < length && Character.isLetterOrDigit(text.codePointAt(i + 1))) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+
+            spans.add(start, i);
+        }
+
+        return spans;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getStart(int index) {
+        return starts[index];
+    }
+
+    public int getEnd(int index) {
+        return ends[index];
+    }
+
+    public String getWord(int index) {
+        return text.substring(starts[index], ends[index]);
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    private static boolean isJoiner(int c) {
+        return c == '\'' || c == '-';
+    }
+}
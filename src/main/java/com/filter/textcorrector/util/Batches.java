@@ -0,0 +1,76 @@
+package com.filter.textcorrector.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Runs a function over many items on an executor, a few chunks of items per available processor.
+ */
+public final class Batches {
+    // Chunks per processor, so a slow chunk doesn't keep the others idle
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private Batches() {
+        throw new AssertionError("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Applies the function to every item in parallel.
+     *
+     * @param items    items to process.
+     * @param function function to apply, called from executor threads.
+     * @param executor executor running the chunks.
+     * @return results in order of items.
+     */
+    public static <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function, Executor executor) {
+        int size = items.size();
+        int chunks = Math.min(size, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+
+        if (chunks <= 1) {
+            List<R> results = new ArrayList<>(size);
+
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+
+            return results;
+        }
+
+        Object[] results = new Object[size];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = (int) ((long) size * chunk / chunks);
+            int to = (int) ((long) size * (chunk + 1) / chunks);
+
+            futures[chunk] = CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = function.apply(items.get(i));
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw e;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+}
@@ -0,0 +1,113 @@
+package com.filter.textcorrector.util;
+
+/**
+ * Set of strings that answers "definitely not there" or "maybe there" (blocked Bloom filter).
+ * Each string sets one bit in each of the 8 longs of one 512-bit block, so a lookup reads a single cache line.
+ * With at least 16 bits per string (the size is rounded up to a power of two) fewer than 0.1% of absent strings
+ * are reported as maybe there.
+ * Strings are added while the filter is built and it's read-only afterwards, so it can be shared between threads.
+ * Its bits can be saved with {@link #toBits()} and restored with {@link #fromBits(long[])}.
+ */
+public class BloomFilter {
+    private static final int BLOCK_LONGS = 8;
+    private static final int BITS_PER_ELEMENT = 16;
+    // Block index takes the 16 hash bits left over by the bit shifts
+    private static final int MAX_BLOCKS = 1 << 16;
+
+    private final long[] bits;
+    private final int blockMask;
+
+    /**
+     * @param expectedElements number of strings that will be added.
+     */
+    public BloomFilter(int expectedElements) {
+        long blocks = (long) expectedElements * BITS_PER_ELEMENT / (BLOCK_LONGS * Long.SIZE);
+        int blockCount = Integer.highestOneBit((int) Math.max(2, Math.min(blocks, MAX_BLOCKS)) - 1) << 1;
+        bits = new long[blockCount * BLOCK_LONGS];
+        blockMask = blockCount - 1;
+    }
+
+    private BloomFilter(long[] bits) {
+        this.bits = bits;
+        blockMask = bits.length / BLOCK_LONGS - 1;
+    }
+
+    /**
+     * Restores a filter from its bits, so it isn't built again from the strings.
+     *
+     * @param bits bits returned by {@link #toBits()}, used without copying.
+     * @return filter answering as the saved one did.
+     */
+    public static BloomFilter fromBits(long[] bits) {
+        int blockCount = bits.length / BLOCK_LONGS;
+
+        if (bits.length % BLOCK_LONGS != 0 || blockCount < 2 || blockCount > MAX_BLOCKS
+                || Integer.bitCount(blockCount) != 1) {
+            throw new IllegalArgumentException("Not bits of a Bloom filter: " + bits.length + " longs.");
+        }
+
+        return new BloomFilter(bits);
+    }
+
+    /**
+     * @return copy of the bits of the filter.
+     */
+    public long[] toBits() {
+        return bits.clone();
+    }
+
+    public void add(CharSequence element) {
+        long hash = hash(element);
+        int block = blockOf(hash);
+
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            bits[block + i] |= 1L << (hash >>> (i * 6));
+        }
+    }
+
+    /**
+     * @return false if the string was never added, true if it probably was.
+     */
+    public boolean mightContain(CharSequence element) {
+        long hash = hash(element);
+        int block = blockOf(hash);
+
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            if ((bits[block + i] & (1L << (hash >>> (i * 6)))) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return size of the filter in bytes.
+     */
+    public long getSizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * The lower 48 bits of the hash pick a bit in each long of the block, 6 bits each, the upper ones pick the block.
+     */
+    private int blockOf(long hash) {
+        return ((int) (hash >>> 48) & blockMask) * BLOCK_LONGS;
+    }
+
+    /**
+     * 64-bit hash of the chars, mixed so every bit depends on all of them (String.hashCode is too short).
+     */
+    private static long hash(CharSequence element) {
+        long hash = 0x9e3779b97f4a7c15L ^ element.length();
+
+        for (int i = 0; i < element.length(); i++) {
+            hash = (hash ^ element.charAt(i)) * 0xff51afd7ed558ccdL;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
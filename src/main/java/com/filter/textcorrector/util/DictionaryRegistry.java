@@ -0,0 +1,232 @@
+package com.filter.textcorrector.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Holds one shared instance of a dictionary per key (usually a language).
+ * A dictionary is loaded by the first caller that needs it, while concurrent callers wait for the same load.
+ * Dictionaries can be preloaded in background and dropped after they haven't been used for a while;
+ * a dropped dictionary is loaded again on next use.
+ *
+ * @param <K> key of a dictionary.
+ * @param <D> dictionary type, must be safe to share between threads.
+ */
+public class DictionaryRegistry<K, D> {
+    private static Logger LOGGER = LoggerFactory.getLogger(DictionaryRegistry.class);
+
+    // Access time is updated at most once per this period, so hot dictionaries don't contend on it
+    private static final long ACCESS_TIME_GRANULARITY = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ScheduledExecutorService evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dictionary-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Loads block on reading big files, so they don't take threads of the common pool batch work runs on
+    private static final ExecutorService loadExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dictionary-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<K, D> loader;
+    private final Predicate<D> evictable;
+    private final ConcurrentMap<K, Entry<D>> entries = new ConcurrentHashMap<>();
+
+    private volatile long idleTimeout;
+    private ScheduledFuture<?> evictionTask;
+
+    /**
+     * @param loader creates the dictionary for a key, may take a while.
+     */
+    public DictionaryRegistry(Function<K, D> loader) {
+        this(loader, dictionary -> true);
+    }
+
+    /**
+     * @param loader    creates the dictionary for a key, may take a while.
+     * @param evictable tells if an idle dictionary may be dropped, e.g. not if it was changed since it was loaded.
+     */
+    public DictionaryRegistry(Function<K, D> loader, Predicate<D> evictable) {
+        this.loader = loader;
+        this.evictable = evictable;
+    }
+
+    /**
+     * Returns the dictionary for the key, loading it if this is the first request.
+     *
+     * @param key key of the dictionary.
+     * @return shared dictionary instance.
+     */
+    public D get(K key) {
+        // computeIfAbsent locks the bin even if the key is there, a plain read doesn't
+        Entry<D> entry = entries.get(key);
+
+        if (entry == null) {
+            entry = entries.computeIfAbsent(key, k -> new Entry<>(() -> load(k)));
+        }
+
+        entry.touch();
+
+        try {
+            return entry.get();
+        } catch (RuntimeException e) {
+            // Don't keep failed loads, next request tries again
+            entries.remove(key, entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Loads dictionaries in background on the registry's own daemon threads.
+     *
+     * @param keys keys of dictionaries to load.
+     * @return future completed when all of them are loaded.
+     */
+    public CompletableFuture<Void> preload(Collection<K> keys) {
+        return preload(keys, loadExecutor);
+    }
+
+    /**
+     * Loads dictionaries in background.
+     *
+     * @param keys     keys of dictionaries to load.
+     * @param executor executor to run the loads on.
+     * @return future completed when all of them are loaded.
+     */
+    public CompletableFuture<Void> preload(Collection<K> keys, Executor executor) {
+        return CompletableFuture.allOf(keys.stream()
+                .map(key -> CompletableFuture.runAsync(() -> get(key), executor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Sets how long a dictionary may stay unused before it's dropped. Zero disables eviction (default).
+     *
+     * @param timeout idle time.
+     * @param unit    unit of the idle time.
+     */
+    public synchronized void setIdleTimeout(long timeout, TimeUnit unit) {
+        idleTimeout = unit.toNanos(timeout);
+
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+            evictionTask = null;
+        }
+
+        if (idleTimeout > 0) {
+            long period = Math.max(idleTimeout / 2, ACCESS_TIME_GRANULARITY);
+            evictionTask = evictionExecutor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Drops loaded dictionaries that haven't been used for longer than the idle timeout and may be dropped.
+     */
+    public void evictIdle() {
+        long timeout = idleTimeout;
+
+        if (timeout <= 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        entries.forEach((key, entry) -> {
+            if (entry.isLoaded() && now - entry.lastAccess > timeout && isEvictable(entry)
+                    && entries.remove(key, entry)) {
+                // It may have been changed between the check and the removal, then it's kept
+                if (!isEvictable(entry)) {
+                    entries.putIfAbsent(key, entry);
+                } else {
+                    LOGGER.debug("Dictionary " + key + " evicted after being idle.");
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the dictionary, so it's loaded again on next use.
+     */
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public boolean isLoaded(K key) {
+        Entry<D> entry = entries.get(key);
+        return entry != null && entry.isLoaded();
+    }
+
+    private boolean isEvictable(Entry<D> entry) {
+        try {
+            return evictable.test(entry.get());
+        } catch (RuntimeException e) {
+            // A failed load is dropped on next request anyway
+            return true;
+        }
+    }
+
+    private D load(K key) {
+        long startTime = System.nanoTime();
+        D dictionary = loader.apply(key);
+        long endTime = System.nanoTime();
+        LOGGER.debug("Dictionary " + key + " loaded in time: " + (endTime - startTime) / (double) 1000000 + " ms");
+        return dictionary;
+    }
+
+    private static final class Entry<D> {
+        private final FutureTask<D> task;
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(Callable<D> loader) {
+            task = new FutureTask<>(loader);
+        }
+
+        void touch() {
+            long now = System.nanoTime();
+            if (now - lastAccess > ACCESS_TIME_GRANULARITY) {
+                lastAccess = now;
+            }
+        }
+
+        boolean isLoaded() {
+            return task.isDone();
+        }
+
+        D get() {
+            // Only the first caller actually runs the load, the others wait for it
+            task.run();
+
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading a dictionary.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Can't load a dictionary.", cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.filter.textcorrector.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate number of recent occurrences of elements (count-min sketch with 4-bit counters).
+ * Each element is counted in 4 counters and its frequency is the smallest of them, so it's never underestimated
+ * except by lost concurrent increments. All counters are halved periodically, so old popularity fades away.
+ *
+ * @param <E> type of counted elements.
+ */
+public class FrequencySketch<E> {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    // 16 counters of 4 bits per element
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param maximumSize expected number of distinct elements that matter, e.g. cache capacity.
+     */
+    public FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        table = new AtomicLongArray(length);
+        tableMask = length - 1;
+        sampleSize = 10 * Math.max(16, maximumSize);
+    }
+
+    /**
+     * @return estimated number of occurrences of the element, at most 15.
+     */
+    public int frequency(E element) {
+        int hash = spread(element.hashCode());
+        int frequency = MAX_COUNT;
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            long index = indexOf(hash, i);
+            int count = (int) ((table.get((int) index) >>> (index >>> 32)) & MAX_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Counts one occurrence of the element.
+     */
+    public void increment(E element) {
+        int hash = spread(element.hashCode());
+        boolean added = false;
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            long index = indexOf(hash, i);
+            added |= incrementAt((int) index, (int) (index >>> 32));
+        }
+
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Increments a counter unless it's saturated. Gives up if another thread changes the same word of the table,
+     * as losing an increment now and then only makes the estimate a bit lower.
+     */
+    private boolean incrementAt(int index, int shift) {
+        long value = table.get(index);
+        long count = (value >>> shift) & MAX_COUNT;
+
+        if (count == MAX_COUNT) {
+            return false;
+        }
+
+        return table.compareAndSet(index, value, value + (1L << shift));
+    }
+
+    /**
+     * Halves all counters, so the sketch reflects recent popularity.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long value;
+            do {
+                value = table.get(i);
+            } while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+        }
+
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    /**
+     * @return index of the table word in lower 32 bits and shift of the counter within the word in upper ones.
+     */
+    private long indexOf(int hash, int i) {
+        long combined = (hash + SEEDS[i]) * SEEDS[i];
+        combined += combined >>> 32;
+        long index = (int) combined & tableMask;
+        long shift = ((combined >>> 40) & 15) << 2;
+        return (shift << 32) | index;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.filter.textcorrector.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Reads a text in pieces of about the given size, so a document of any length can be processed piece by piece.
+ * A piece ends only where the boundary allows, so a word or phrase processed as a whole is never split.
+ * At most a few chunks of text are buffered at a time.
+ */
+public class TextChunks {
+    private static Logger LOGGER = LoggerFactory.getLogger(TextChunks.class);
+
+    // Buffered text may grow to this many chunks while looking for a boundary, then it's cut anyway
+    private static final int MAX_CHUNKS_BUFFERED = 4;
+
+    /**
+     * Tells where a piece of text may end. A position refused while more text may follow is checked again
+     * after the next read only if it's among the chars of the last read (up to the chunk size or 8192),
+     * so a boundary shouldn't need more text after it than that.
+     */
+    @FunctionalInterface
+    public interface Boundary {
+        /**
+         * @param text       buffered text.
+         * @param position   candidate end of a piece, 0 < position < text length.
+         * @param endOfInput true if the text holds the rest of input, false if more text may follow it.
+         * @return true if text before and after the position can be processed separately.
+         */
+        boolean isCut(CharSequence text, int position, boolean endOfInput);
+    }
+
+    private final Readable input;
+    private final int chunkSize;
+    private final Boundary boundary;
+    private final StringBuilder buffer;
+    private final CharBuffer readBuffer;
+    private boolean endOfInput;
+
+    /**
+     * @param input     text source, e.g. a {@link java.io.Reader} or {@link CharBuffer}.
+     * @param chunkSize preferred number of chars in a piece.
+     * @param boundary  tells where pieces may end.
+     */
+    public TextChunks(Readable input, int chunkSize, Boundary boundary) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.input = input;
+        this.chunkSize = chunkSize;
+        this.boundary = boundary;
+        buffer = new StringBuilder(chunkSize * 2);
+        readBuffer = CharBuffer.allocate(Math.min(chunkSize, 8192));
+    }
+
+    /**
+     * @return next piece of text, or null when the input is over.
+     */
+    public String next() throws IOException {
+        while (!endOfInput && buffer.length() < chunkSize) {
+            read();
+        }
+
+        if (buffer.length() == 0) {
+            return null;
+        }
+
+        if (endOfInput && buffer.length() <= chunkSize) {
+            return take(buffer.length());
+        }
+
+        // The last allowed cut within the chunk
+        for (int position = Math.min(buffer.length(), chunkSize) - 1; position > 0; position--) {
+            if (boundary.isCut(buffer, position, endOfInput)) {
+                return take(position);
+            }
+        }
+
+        // Or the first one after it
+        int position = chunkSize;
+
+        while (true) {
+            for (; position < buffer.length(); position++) {
+                if (boundary.isCut(buffer, position, endOfInput)) {
+                    return take(position);
+                }
+            }
+
+            if (endOfInput || buffer.length() >= chunkSize * MAX_CHUNKS_BUFFERED) {
+                LOGGER.debug("No boundary found in " + buffer.length() + " chars, text is cut anyway.");
+                return take(Math.min(buffer.length(), chunkSize * MAX_CHUNKS_BUFFERED));
+            }
+
+            // A check near the end may have needed the text not read yet, so the last read's positions are checked
+            // again, but no earlier ones: the scan stays linear in the buffered text
+            position = Math.max(1, buffer.length() - readBuffer.capacity());
+            read();
+        }
+    }
+
+    private void read() throws IOException {
+        if (input.read(readBuffer) < 0) {
+            endOfInput = true;
+        }
+
+        readBuffer.flip();
+        buffer.append(readBuffer);
+        readBuffer.clear();
+    }
+
+    private String take(int length) {
+        String piece = buffer.substring(0, length);
+        buffer.delete(0, length);
+        return piece;
+    }
+}
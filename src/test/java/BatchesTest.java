@@ -0,0 +1,103 @@
+import com.filter.textcorrector.util.Batches;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that results of parallel batches keep the order of items and that exceptions thrown by the function
+ * reach the caller as they were thrown.
+ */
+public class BatchesTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void resultsKeepOrderOfItems() {
+        for (int size : new int[]{0, 1, 2, 7, 1000, 100000}) {
+            List<String> results = Batches.map(range(size), item -> "#" + item, executor);
+
+            assertEquals(size, results.size());
+
+            for (int i = 0; i < size; i++) {
+                assertEquals("#" + i, results.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void runtimeExceptionIsPassedThrough() {
+        IllegalStateException thrown = new IllegalStateException("Can't map 500");
+
+        try {
+            Batches.map(range(1000), item -> {
+                if (item == 500) {
+                    throw thrown;
+                }
+                return item;
+            }, executor);
+            fail("The exception should reach the caller.");
+        } catch (IllegalStateException e) {
+            assertSame(thrown, e);
+        }
+    }
+
+    @Test
+    public void errorIsPassedThrough() {
+        AssertionError thrown = new AssertionError("Can't map 999");
+
+        try {
+            Batches.map(range(1000), item -> {
+                if (item == 999) {
+                    throw thrown;
+                }
+                return item;
+            }, executor);
+            fail("The error should reach the caller.");
+        } catch (AssertionError e) {
+            assertSame(thrown, e);
+        }
+    }
+
+    @Test
+    public void exceptionOfSingleItemIsPassedThrough() {
+        IllegalArgumentException thrown = new IllegalArgumentException("Can't map 0");
+
+        try {
+            Batches.map(Collections.singletonList(0), item -> {
+                throw thrown;
+            }, Runnable::run);
+            fail("The exception should reach the caller.");
+        } catch (IllegalArgumentException e) {
+            assertSame(thrown, e);
+        }
+    }
+
+    private static List<Integer> range(int size) {
+        List<Integer> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+
+        return items;
+    }
+}
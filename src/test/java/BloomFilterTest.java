@@ -0,0 +1,94 @@
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.SuggestionEngine;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.DictionaryFactory;
+import com.filter.textcorrector.util.BloomFilter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the Bloom filter never rejects an added word and rarely lets an absent one through,
+ * and that dictionaries checking it first answer the same as a set of their words.
+ */
+public class BloomFilterTest {
+    private static List<String> words;
+    private static Set<String> wordSet;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_80K);
+        wordSet = new HashSet<>(words);
+    }
+
+    @Test
+    public void addedWordsAreNeverRejected() {
+        for (String wordList : new String[]{TestWords.ENGLISH_80K, "/dictionaries/pl_dictionary_290k.txt"}) {
+            List<String> listWords = TestWords.read(wordList);
+            BloomFilter filter = new BloomFilter(listWords.size());
+
+            listWords.forEach(filter::add);
+
+            for (String word : listWords) {
+                assertTrue(word, filter.mightContain(word));
+            }
+        }
+    }
+
+    @Test
+    public void fewAbsentWordsAreLetThrough() {
+        BloomFilter filter = new BloomFilter(words.size());
+        words.forEach(filter::add);
+
+        Random random = new Random(18);
+        int absent = 0;
+        int letThrough = 0;
+
+        for (int i = 0; i < 200000; i++) {
+            String token = TestWords.randomLetters(random, 3 + random.nextInt(10));
+
+            if (!wordSet.contains(token)) {
+                absent++;
+
+                if (filter.mightContain(token)) {
+                    letThrough++;
+                }
+            }
+        }
+
+        assertTrue(letThrough + " of " + absent, letThrough < absent * 0.001);
+        assertTrue(filter.getSizeInBytes() >= words.size() * 2L);
+    }
+
+    @Test
+    public void emptyFilterRejectsEverything() {
+        BloomFilter filter = new BloomFilter(0);
+
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("word"));
+    }
+
+    @Test
+    public void dictionaryContainsExactlyItsWords() {
+        for (SuggestionEngine engine : new SuggestionEngine[]{SuggestionEngine.TRIE, SuggestionEngine.DAWG}) {
+            Dictionary dictionary = DictionaryFactory.create(Language.ENGLISH, engine);
+
+            for (String word : words) {
+                assertTrue(engine + " " + word, dictionary.contains(word));
+            }
+
+            for (String query : TestWords.queries(words, 20000, 19)) {
+                assertEquals(engine + " " + query, wordSet.contains(query), dictionary.contains(query));
+                assertEquals(engine + " " + query, wordSet.contains(query), dictionary.contains(query.toUpperCase()));
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import com.filter.textcorrector.TextFilter;
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.text_preproccessing.TextPreproccessor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Hammers one shared filter from many threads and checks every result against the one computed by a single thread.
+ */
+public class ConcurrencyStressTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 300;
+
+    private static final String[] WORDS = {"catn", "belive", "helo", "wrold", "accomodate", "darknes", "mayself", "frend"};
+    private static final String[] TEXTS = {
+            "hello, darknes, my old frend!",
+            "i can liift a car all by mayself",
+            "Little piece of shit and silly cunt",
+            "seee you later, aaligator.",
+            "Hello fucking world holy cow"
+    };
+
+    private static TextFilter textFilter;
+
+    private static final Map<String, List<String>> expectedWords = new HashMap<>();
+    private static final Map<String, String> expectedTexts = new HashMap<>();
+    private static final Map<String, String> expectedCensored = new HashMap<>();
+    private static final Map<String, String> expectedPreproccessed = new HashMap<>();
+    private static final Map<String, String> expectedPreproccessedWithoutRepeats = new HashMap<>();
+
+    @BeforeClass
+    public static void setUp() {
+        textFilter = new TextFilter(Language.ENGLISH);
+
+        for (String word : WORDS) {
+            expectedWords.put(word, textFilter.checkWord(word));
+        }
+
+        for (String text : TEXTS) {
+            expectedTexts.put(text, textFilter.checkText(text));
+            expectedCensored.put(text, textFilter.censor(text));
+            expectedPreproccessed.put(text, textFilter.preproccess(text, false));
+            expectedPreproccessedWithoutRepeats.put(text, textFilter.preproccess(text, true));
+        }
+    }
+
+    @Test
+    public void sharedFilterGivesSameResultsAsSingleThread() throws Exception {
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                String text = TEXTS[random.nextInt(TEXTS.length)];
+
+                assertEquals(expectedWords.get(word), textFilter.checkWord(word));
+                assertEquals(expectedCensored.get(text), textFilter.censor(text));
+
+                if (i % 10 == 0) {
+                    assertEquals(expectedTexts.get(text), textFilter.checkText(text));
+                }
+            }
+
+            return null;
+        });
+    }
+
+    @Test
+    public void preproccessOptionsDontLeakBetweenCalls() throws Exception {
+        TextPreproccessor textPreproccessor = TextPreproccessor.getInstance();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int i = 0; i < ITERATIONS * 10; i++) {
+                String text = TEXTS[random.nextInt(TEXTS.length)];
+                boolean removeRepeatedLetters = random.nextBoolean();
+
+                String expected = removeRepeatedLetters ?
+                        expectedPreproccessedWithoutRepeats.get(text) :
+                        expectedPreproccessed.get(text);
+
+                assertEquals(expected, textPreproccessor.preproccess(text, removeRepeatedLetters));
+            }
+
+            return null;
+        });
+    }
+
+    @Test
+    public void settingsAreSwappedAtomically() throws Exception {
+        Spellchecker spellchecker = new Spellchecker.Builder(Language.ENGLISH)
+                .withSuggestionLimit(5)
+                .build();
+
+        Map<String, List<String>> allSuggestions = new HashMap<>();
+        for (String word : WORDS) {
+            allSuggestions.put(word, spellchecker.checkWord(word));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread configurer = new Thread(() -> {
+            while (running.get()) {
+                spellchecker.setSuggestionLimit(1);
+                spellchecker.setSuggestionLimit(5);
+            }
+        });
+        configurer.start();
+
+        try {
+            runConcurrently(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < ITERATIONS; i++) {
+                    String word = WORDS[random.nextInt(WORDS.length)];
+                    List<String> expected = allSuggestions.get(word);
+                    List<String> suggestions = spellchecker.checkWord(word);
+
+                    // One limit or the other, never a mix
+                    assertTrue(suggestions.size() == 1 || suggestions.size() == expected.size());
+                    assertEquals(expected.subList(0, suggestions.size()), suggestions);
+                }
+
+                return null;
+            });
+        } finally {
+            running.set(false);
+            configurer.join();
+        }
+    }
+
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+
+            start.countDown();
+
+            // Rethrows assertion errors of the workers
+            for (Future<Void> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
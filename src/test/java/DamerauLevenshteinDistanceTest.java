@@ -0,0 +1,145 @@
+import com.filter.textcorrector.spellchecking.util.DamerauLevenshteinDistance;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the bounded distances against ones computed over the full matrix.
+ */
+public class DamerauLevenshteinDistanceTest {
+    private static final String[] ALPHABETS = {"ab", "abc", "abcdefgh", "абвгд", "aбcé中"};
+
+    /**
+     * Short strings take the bit-parallel path, strings of more than 64 chars the banded one.
+     */
+    @Test
+    public void boundedDistanceIsReferenceClampedToMaxPlusOne() {
+        Random random = new Random(9);
+
+        for (int i = 0; i < 100000; i++) {
+            String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+            String s1 = randomString(random, alphabet, random.nextInt(i % 10 == 0 ? 150 : 14));
+            String s2 = random.nextBoolean()
+                    ? edit(random, s1, alphabet, random.nextInt(5))
+                    : randomString(random, alphabet, Math.max(0, s1.length() + random.nextInt(7) - 3));
+            int max = random.nextInt(7);
+            int reference = TestWords.osa(s1, s2);
+
+            assertEquals(s1 + " " + s2 + " at " + max, Math.min(reference, max + 1),
+                    DamerauLevenshteinDistance.osaDistance(s1, s2, max));
+        }
+    }
+
+    @Test
+    public void boundAtLongerLengthIsExact() {
+        Random random = new Random(10);
+
+        for (int i = 0; i < 20000; i++) {
+            String s1 = randomString(random, "abcd", random.nextInt(80));
+            String s2 = edit(random, s1, "abcd", random.nextInt(8));
+            int reference = TestWords.osa(s1, s2);
+
+            assertEquals(s1 + " " + s2, reference,
+                    DamerauLevenshteinDistance.osaDistance(s1, s2, Math.max(s1.length(), s2.length())));
+            assertTrue(s1 + " " + s2, DamerauLevenshteinDistance.distance(s1, s2) <= reference);
+        }
+    }
+
+    @Test
+    public void boundedUnrestrictedDistanceIsFullClampedToMaxPlusOne() {
+        Random random = new Random(12);
+
+        for (int i = 0; i < 100000; i++) {
+            String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+            String s1 = randomString(random, alphabet, random.nextInt(i % 10 == 0 ? 100 : 12));
+            String s2 = random.nextBoolean()
+                    ? edit(random, s1, alphabet, random.nextInt(5))
+                    : randomString(random, alphabet, Math.max(0, s1.length() + random.nextInt(7) - 3));
+            int max = random.nextInt(8);
+            int reference = DamerauLevenshteinDistance.distance(s1, s2);
+
+            assertEquals(s1 + " " + s2 + " at " + max, Math.min(reference, max + 1),
+                    DamerauLevenshteinDistance.distance(s1, s2, max));
+            assertEquals(s1 + " " + s2, reference,
+                    DamerauLevenshteinDistance.distance(s1, s2, Math.max(s1.length(), s2.length())));
+        }
+    }
+
+    @Test
+    public void restrictedDistanceDiffersOnlyWhereTranspositionIsEdited() {
+        assertEquals(3, DamerauLevenshteinDistance.osaDistance("ca", "abc", 5));
+        assertEquals(2, DamerauLevenshteinDistance.distance("ca", "abc"));
+        assertEquals(2, DamerauLevenshteinDistance.distance("ca", "abc", 5));
+        assertEquals(1, DamerauLevenshteinDistance.osaDistance("recieve", "receive", 1));
+        assertEquals(2, DamerauLevenshteinDistance.osaDistance("", "ab", 3));
+        assertEquals(0, DamerauLevenshteinDistance.osaDistance("same", "same", 0));
+    }
+
+    @Test
+    public void negativeMaxIsRejected() {
+        try {
+            DamerauLevenshteinDistance.osaDistance("ab", "cd", -1);
+            fail("A negative maximum should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            DamerauLevenshteinDistance.distance("ab", "cd", -1);
+            fail("A negative maximum should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder string = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            string.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+
+        return string.toString();
+    }
+
+    /**
+     * @return the string with a few random edits, transpositions more often than the others.
+     */
+    private static String edit(Random random, String string, String alphabet, int edits) {
+        StringBuilder edited = new StringBuilder(string);
+
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(edited.length() + 1);
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+
+            switch (random.nextInt(5)) {
+                case 0:
+                    edited.insert(position, c);
+                    break;
+                case 1:
+                    if (position < edited.length()) {
+                        edited.deleteCharAt(position);
+                    }
+                    break;
+                case 2:
+                    if (position < edited.length()) {
+                        edited.setCharAt(position, c);
+                    }
+                    break;
+                default:
+                    if (position + 1 < edited.length()) {
+                        char swapped = edited.charAt(position);
+                        edited.setCharAt(position, edited.charAt(position + 1));
+                        edited.setCharAt(position + 1, swapped);
+                    }
+                    break;
+            }
+        }
+
+        return edited.toString();
+    }
+}
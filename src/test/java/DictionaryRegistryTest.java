@@ -0,0 +1,149 @@
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.EnglishDictionary;
+import com.filter.textcorrector.util.DictionaryRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that a registry loads each dictionary once however many threads ask for it, loads a failed one again
+ * on next request and drops idle spellchecking dictionaries.
+ */
+public class DictionaryRegistryTest {
+    private static final int THREADS = 8;
+
+    @Test
+    public void concurrentRequestsLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch requested = new CountDownLatch(THREADS);
+        DictionaryRegistry<String, Object> registry = new DictionaryRegistry<>(key -> {
+            loads.incrementAndGet();
+            // Keeps the load running until every thread has asked for it
+            await(requested);
+            return new Object();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    requested.countDown();
+                    return registry.get("en");
+                }));
+            }
+
+            Object dictionary = results.get(0).get(10, TimeUnit.SECONDS);
+
+            for (Future<Object> result : results) {
+                assertSame(dictionary, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertTrue(registry.isLoaded("en"));
+    }
+
+    @Test
+    public void failedLoadIsRetried() {
+        AtomicInteger loads = new AtomicInteger();
+        DictionaryRegistry<String, String> registry = new DictionaryRegistry<>(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("Can't read " + key);
+            }
+            return key;
+        });
+
+        try {
+            registry.get("en");
+            fail("The first load should fail.");
+        } catch (IllegalStateException e) {
+            assertFalse(registry.isLoaded("en"));
+        }
+
+        assertEquals("en", registry.get("en"));
+        assertEquals("en", registry.get("en"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void preloadedDictionariesAreShared() {
+        AtomicInteger loads = new AtomicInteger();
+        DictionaryRegistry<String, Object> registry = new DictionaryRegistry<>(key -> {
+            loads.incrementAndGet();
+            return new Object();
+        });
+
+        registry.preload(Arrays.asList("en", "ru")).join();
+
+        assertTrue(registry.isLoaded("en"));
+        assertTrue(registry.isLoaded("ru"));
+        registry.get("en");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void idleSpellcheckingDictionariesAreEvicted() throws InterruptedException {
+        DictionaryRegistry<Language, Dictionary> registry = new DictionaryRegistry<>(language -> new EnglishDictionary());
+        Dictionary loaded = registry.get(Language.ENGLISH);
+
+        registry.setIdleTimeout(1, TimeUnit.MILLISECONDS);
+
+        try {
+            Thread.sleep(10);
+            registry.evictIdle();
+
+            assertFalse(registry.isLoaded(Language.ENGLISH));
+            Dictionary reloaded = registry.get(Language.ENGLISH);
+            assertNotSame(loaded, reloaded);
+            assertTrue(reloaded.contains("hello"));
+        } finally {
+            registry.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void dictionariesInUseAreNotEvicted() {
+        DictionaryRegistry<Language, Dictionary> registry = new DictionaryRegistry<>(language -> new EnglishDictionary());
+        Dictionary loaded = registry.get(Language.ENGLISH);
+
+        registry.setIdleTimeout(1, TimeUnit.HOURS);
+
+        try {
+            registry.evictIdle();
+
+            assertTrue(registry.isLoaded(Language.ENGLISH));
+            assertSame(loaded, registry.get(Language.ENGLISH));
+        } finally {
+            registry.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import com.filter.textcorrector.spellchecking.dictionary.AbstractDictionary;
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.DictionarySnapshot;
+import com.filter.textcorrector.util.BloomFilter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Writes tries as snapshots, reads them back and checks they hold the same words and give the same suggestions,
+ * and that a dictionary mapped from a snapshot takes its filter from it.
+ */
+public class DictionarySnapshotTest {
+    private static List<String> words;
+    private static WordSuggester trie;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_10K);
+        trie = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : words) {
+            trie.add(word);
+        }
+
+        trie.compact();
+    }
+
+    @Test
+    public void snapshotRoundTripKeepsTrie() throws IOException {
+        WordSuggester restored = WordSuggester.fromSnapshot(ByteBuffer.wrap(snapshot(trie)), StandardCharsets.UTF_8);
+
+        assertSameTrie(trie, restored);
+    }
+
+    @Test
+    public void mappedSnapshotFileKeepsWords() throws IOException {
+        Path file = Files.createTempFile("en_dictionary_10k", DictionarySnapshot.SNAPSHOT_EXTENSION);
+
+        try {
+            DictionarySnapshot.write(TestWords.ENGLISH_10K, file);
+            DictionarySnapshot.Mapping mapping = DictionarySnapshot.map(file);
+
+            assertSameTrie(trie, mapping.getWordSuggester());
+
+            for (String word : words) {
+                assertTrue(word, mapping.getFilter().mightContain(word.toLowerCase()));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * The snapshot is written with a filter nothing was added to. Had the dictionary refilled the filter
+     * from the words of the trie, it would know them; taking the filter from the snapshot, it knows none.
+     */
+    @Test
+    public void mappedDictionaryDoesNotWalkItsWords() throws IOException {
+        Path directory = Files.createTempDirectory("snapshots");
+        Path file = directory.resolve("en_dictionary_10k" + DictionarySnapshot.SNAPSHOT_EXTENSION);
+        String previousDirectory = System.getProperty(DictionarySnapshot.SNAPSHOT_DIRECTORY_PROPERTY);
+
+        try {
+            DictionarySnapshot.write(trie, new BloomFilter(trie.getNumberOfWords()), file);
+            System.setProperty(DictionarySnapshot.SNAPSHOT_DIRECTORY_PROPERTY, directory.toString());
+
+            Dictionary dictionary = new AbstractDictionary(TestWords.ENGLISH_10K);
+
+            assertEquals(words.size(), dictionary.getSize());
+
+            for (String word : words) {
+                assertFalse(word, dictionary.contains(word));
+            }
+        } finally {
+            restoreProperty(previousDirectory);
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void snapshotsOfOtherVersionsAreRejected() throws IOException {
+        Path file = Files.createTempFile("en_dictionary_10k", DictionarySnapshot.SNAPSHOT_EXTENSION);
+
+        try {
+            // A version 1 file, which held the trie only
+            Files.write(file, snapshot(trie), StandardOpenOption.TRUNCATE_EXISTING);
+
+            try {
+                DictionarySnapshot.map(file);
+                fail("Snapshot of another version was read.");
+            } catch (IllegalArgumentException expected) {
+                // The dictionary falls back to its word list
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void restoredTrieIsReadOnly() throws IOException {
+        WordSuggester restored = WordSuggester.fromSnapshot(ByteBuffer.wrap(snapshot(trie)), StandardCharsets.UTF_8);
+
+        try {
+            restored.add("qwxzvb");
+            fail("Snapshot trie accepted a word.");
+        } catch (UnsupportedOperationException expected) {
+            assertFalse(restored.search("qwxzvb"));
+        }
+    }
+
+    @Test
+    public void caseSensitivityIsKept() throws IOException {
+        WordSuggester caseSensitive = new WordSuggester(true, StandardCharsets.UTF_8);
+        caseSensitive.add("Paris");
+        caseSensitive.compact();
+
+        WordSuggester restored = WordSuggester.fromSnapshot(ByteBuffer.wrap(snapshot(caseSensitive)), StandardCharsets.UTF_8);
+
+        assertTrue(restored.isCaseSensitive());
+        assertTrue(restored.search("Paris"));
+        assertFalse(restored.search("paris"));
+    }
+
+    @Test
+    public void damagedSnapshotsAreRejected() throws IOException {
+        byte[] snapshot = snapshot(trie);
+
+        byte[] wrongMagic = snapshot.clone();
+        wrongMagic[0] ^= 1;
+        assertRejected(wrongMagic);
+
+        byte[] wrongVersion = snapshot.clone();
+        wrongVersion[4] ^= 1;
+        assertRejected(wrongVersion);
+
+        assertRejected(Arrays.copyOf(snapshot, snapshot.length / 2));
+        assertRejected(new byte[3]);
+    }
+
+    private static void assertSameTrie(WordSuggester expected, WordSuggester actual) {
+        assertEquals(expected.getNumberOfWords(), actual.getNumberOfWords());
+        assertEquals(expected.getMaxWordLength(), actual.getMaxWordLength());
+        assertEquals(allWords(expected), allWords(actual));
+
+        for (String query : TestWords.queries(words, 200, 6)) {
+            assertEquals(query, expected.search(query), actual.search(query));
+
+            List<String> expectedSuggestions = TestWords.describe(expected.getSuggestions(query, 2));
+            List<String> actualSuggestions = TestWords.describe(actual.getSuggestions(query, 2));
+            expectedSuggestions.sort(null);
+            actualSuggestions.sort(null);
+
+            assertEquals(query, expectedSuggestions, actualSuggestions);
+        }
+    }
+
+    private static void restoreProperty(String previousDirectory) {
+        if (previousDirectory == null) {
+            System.clearProperty(DictionarySnapshot.SNAPSHOT_DIRECTORY_PROPERTY);
+        } else {
+            System.setProperty(DictionarySnapshot.SNAPSHOT_DIRECTORY_PROPERTY, previousDirectory);
+        }
+    }
+
+    private static List<String> allWords(WordSuggester wordSuggester) {
+        List<String> allWords = new ArrayList<>();
+        wordSuggester.forEachWord(allWords::add);
+        return allWords;
+    }
+
+    private static byte[] snapshot(WordSuggester wordSuggester) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        wordSuggester.writeSnapshot(Channels.newChannel(output));
+        return output.toByteArray();
+    }
+
+    private static void assertRejected(byte[] snapshot) {
+        try {
+            WordSuggester.fromSnapshot(ByteBuffer.wrap(snapshot), StandardCharsets.UTF_8);
+            fail("Damaged snapshot was read.");
+        } catch (IllegalArgumentException expected) {
+            // Reported as not a snapshot, of another version or truncated
+        }
+    }
+}
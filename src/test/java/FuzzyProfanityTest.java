@@ -0,0 +1,131 @@
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import com.filter.textcorrector.profanity_filtering.dictionary.Dictionary;
+import com.filter.textcorrector.profanity_filtering.dictionary.DictionaryFactory;
+import com.filter.textcorrector.spellchecking.Language;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks misspelled profanity is matched to the same phrase as by comparing the word with every phrase.
+ */
+public class FuzzyProfanityTest {
+    private static final String PROFANITY_LIST = "/dictionaries/en_profanity_list.txt";
+
+    // Phrase without spaces in lower case -> phrase, the last of equal ones wins like in the dictionary
+    private static Map<String, String> compounds;
+    private static Dictionary dictionary;
+
+    @BeforeClass
+    public static void setUp() {
+        compounds = new LinkedHashMap<>();
+
+        new BufferedReader(new InputStreamReader(FuzzyProfanityTest.class.getResourceAsStream(PROFANITY_LIST),
+                StandardCharsets.UTF_8)).lines()
+                .forEach(phrase -> compounds.put(phrase.replace(" ", "").toLowerCase(), phrase));
+
+        compounds.remove("");
+        dictionary = DictionaryFactory.create(Language.ENGLISH, "");
+    }
+
+    @Test
+    public void closestPhraseIsSameAsLinearSearch() {
+        List<String> queries = new ArrayList<>(TestWords.queries(new ArrayList<>(compounds.keySet()), 3000, 23));
+        queries.addAll(TestWords.queries(TestWords.read(TestWords.ENGLISH_10K), 1000, 24));
+
+        for (String query : queries) {
+            for (int maxEditDistance = 0; maxEditDistance <= 2; maxEditDistance++) {
+                assertEquals(query + " at " + maxEditDistance, closestPhrase(query, maxEditDistance),
+                        dictionary.findSimilar(query, maxEditDistance));
+            }
+        }
+    }
+
+    @Test
+    public void onlyLettersAndDigitsAreMatched() {
+        assertNull(dictionary.findSimilar("shi t", 2));
+        assertNull(dictionary.findSimilar("shiité", 2));
+        assertEquals(closestPhrase("shiit", 1), dictionary.findSimilar("SHIIT", 1));
+    }
+
+    /**
+     * The first phrase of the lexicon is at index zero of the automaton.
+     */
+    @Test
+    public void firstPhraseOfLexiconIsFound() {
+        String compound = compounds.keySet().iterator().next();
+        String phrase = compounds.get(compound);
+
+        for (int maxEditDistance = 0; maxEditDistance <= 2; maxEditDistance++) {
+            assertEquals(phrase + " at " + maxEditDistance, phrase, dictionary.findSimilar(compound, maxEditDistance));
+        }
+
+        assertTrue(dictionary.isProfane(phrase));
+        assertTrue(dictionary.isProfane(compound.toUpperCase()));
+        assertEquals(Collections.singleton(phrase), dictionary.search(phrase));
+    }
+
+    @Test
+    public void filterCensorsMisspellingsButNotKnownWords() {
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder()
+                .withMaxEditDistance(2)
+                .build();
+
+        assertTrue(profanityFilter.isProfane("shiit"));
+        assertTrue(profanityFilter.isProfane("sh1t"));
+        assertTrue(profanityFilter.isProfane("fcuking"));
+        assertFalse(profanityFilter.isProfane("shirt"));
+        assertFalse(profanityFilter.isProfane("hello"));
+
+        assertEquals("Nice shirt, [censored] [censored]!", profanityFilter.censor("Nice shirt, fcuking shiit!"));
+        assertEquals("Nice shirt, shiit!", new ProfanityFilter.Builder().build().censor("Nice shirt, shiit!"));
+    }
+
+    /**
+     * @return phrase of the closest compound, the first in alphabetical order of the equally close ones.
+     */
+    private static String closestPhrase(String word, int maxEditDistance) {
+        String letters = word.toLowerCase();
+
+        if (!letters.matches("[a-z0-9]*")) {
+            return null;
+        }
+
+        if (compounds.containsKey(letters)) {
+            return compounds.get(letters);
+        }
+
+        int distance = Math.min(maxEditDistance, letters.length() / 4);
+        String closest = null;
+        int closestDistance = Integer.MAX_VALUE;
+
+        for (String compound : compounds.keySet()) {
+            if (distance <= 0 || Math.abs(compound.length() - letters.length()) > distance) {
+                continue;
+            }
+
+            int compoundDistance = TestWords.osa(letters, compound);
+
+            if (compoundDistance <= distance && (compoundDistance < closestDistance
+                    || (compoundDistance == closestDistance && compound.compareTo(closest) < 0))) {
+                closest = compound;
+                closestDistance = compoundDistance;
+            }
+        }
+
+        return closest == null ? null : compounds.get(closest);
+    }
+}
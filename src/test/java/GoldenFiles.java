@@ -0,0 +1,63 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tab-separated files of inputs and the outputs an earlier implementation gave for them.
+ */
+final class GoldenFiles {
+    private GoldenFiles() {
+    }
+
+    /**
+     * @return fields of every line but the header.
+     */
+    static List<String[]> read(String path, int columns) throws IOException {
+        List<String[]> cases = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                GoldenFiles.class.getResourceAsStream(path), StandardCharsets.UTF_8))) {
+
+            // Header
+            reader.readLine();
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                assertEquals(line, columns, fields.length);
+
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = unescape(fields[i]);
+                }
+
+                cases.add(fields);
+            }
+        }
+
+        return cases;
+    }
+
+    /**
+     * Golden files write tabs, line breaks, backslashes and other invisible chars as \\uXXXX.
+     */
+    private static String unescape(String text) {
+        StringBuilder unescaped = new StringBuilder(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            if (text.startsWith("\\u", i)) {
+                unescaped.append((char) Integer.parseInt(text.substring(i + 2, i + 6), 16));
+                i += 5;
+            } else {
+                unescaped.append(text.charAt(i));
+            }
+        }
+
+        return unescaped.toString();
+    }
+}
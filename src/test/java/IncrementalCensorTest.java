@@ -0,0 +1,172 @@
+import com.filter.textcorrector.profanity_filtering.IncrementalCensor;
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Feeds generated texts to the incremental censor in chunks of random size and checks that the output put together
+ * is the one of censoring the whole text at once.
+ */
+public class IncrementalCensorTest {
+    private static final int TEXTS = 400;
+
+    private static final String[] CLEAN = {"hello", "world", "the", "class", "assess", "Scunthorpe", "pass", "glass",
+            "button", "cocktail", "hi", "you", "are", "so", "a", "I", "shitake", "analysis", "peacock"};
+    private static final String[] SEPARATORS = {" ", "  ", ", ", ". ", "!", "\n", " - ", "_", "", "'", "\t", "é"};
+
+    private static List<String> profanity;
+    private static String generatedText;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                IncrementalCensorTest.class.getResourceAsStream("/dictionaries/en_profanity_list.txt"),
+                StandardCharsets.UTF_8))) {
+            profanity = reader.lines().collect(Collectors.toList());
+        }
+
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < TEXTS; i++) {
+            text.append(generateText(random)).append(' ');
+        }
+
+        generatedText = text.toString();
+    }
+
+    @Test
+    public void chunkedOutputIsSameAsWholeText() {
+        for (int maxEditDistance = 0; maxEditDistance <= 1; maxEditDistance++) {
+            ProfanityFilter profanityFilter = new ProfanityFilter.Builder().withMaxEditDistance(maxEditDistance).build();
+            String expected = profanityFilter.censor(generatedText);
+            Random random = new Random(maxEditDistance);
+
+            for (int maxChunk : new int[]{3, 20, 200}) {
+                assertEquals("Chunks up to " + maxChunk, expected,
+                        censorInChunks(profanityFilter.startCensoring(), generatedText, maxChunk, random));
+            }
+        }
+    }
+
+    @Test
+    public void onlyLastWordsAreHeld() {
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder().build();
+        IncrementalCensor censor = profanityFilter.startCensoring();
+
+        for (int i = 0; i < generatedText.length(); i += 5) {
+            censor.append(generatedText.substring(i, Math.min(generatedText.length(), i + 5)));
+            assertTrue(censor.getPendingLength() < 100);
+        }
+
+        censor.finish();
+        assertEquals(0, censor.getPendingLength());
+    }
+
+    @Test
+    public void censorCanBeUsedForNextText() {
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder().build();
+        IncrementalCensor censor = profanityFilter.startCensoring();
+
+        assertEquals(profanityFilter.censor("You fucking idiot"),
+                censor.append("You fuck") + censor.append("ing idiot") + censor.finish());
+        assertEquals(profanityFilter.censor("Hello world"), censor.append("Hello world") + censor.finish());
+    }
+
+    /**
+     * Text without any boundary is given out in bounded pieces, cut after whitespace where there is some.
+     */
+    @Test
+    public void textWithoutBoundaryIsCutAfterWhitespace() {
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder().build();
+        IncrementalCensor censor = profanityFilter.startCensoring();
+        StringBuilder text = new StringBuilder();
+
+        while (text.length() < 100000) {
+            text.append("abcdefghij");
+        }
+
+        text.append(" klmnop");
+
+        while (text.length() < 140000) {
+            text.append("qrstuvwxyz");
+        }
+
+        StringBuilder output = new StringBuilder();
+        int maxPending = 0;
+
+        for (int i = 0; i < text.length(); i += 7) {
+            String piece = censor.append(text.subSequence(i, Math.min(text.length(), i + 7)));
+            output.append(piece);
+            maxPending = Math.max(maxPending, censor.getPendingLength());
+
+            if (i > 100000 && piece.length() > 0) {
+                assertTrue(output.toString().endsWith(" "));
+            }
+        }
+
+        output.append(censor.finish());
+
+        assertEquals(text.toString(), output.toString());
+        assertTrue(maxPending < 64 * 1024);
+    }
+
+    private static String censorInChunks(IncrementalCensor censor, String text, int maxChunk, Random random) {
+        StringBuilder output = new StringBuilder();
+
+        for (int i = 0; i < text.length(); ) {
+            int end = Math.min(text.length(), i + 1 + random.nextInt(maxChunk));
+            output.append(censor.append(text.substring(i, end)));
+            i = end;
+        }
+
+        return output.append(censor.finish()).toString();
+    }
+
+    /**
+     * @return a few clean and profane words, some upper case or spelled with spaces, between random separators.
+     */
+    private static String generateText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(8);
+
+        for (int i = 0; i < words; i++) {
+            String word = random.nextInt(3) == 0
+                    ? profanity.get(random.nextInt(profanity.size()))
+                    : CLEAN[random.nextInt(CLEAN.length)];
+
+            switch (random.nextInt(6)) {
+                case 0:
+                    word = word.toUpperCase();
+                    break;
+                case 1:
+                    word = String.join(" ", word.split(""));
+                    break;
+                case 2:
+                    word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                    break;
+                default:
+                    break;
+            }
+
+            text.append(word);
+
+            if (i < words - 1) {
+                text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            }
+        }
+
+        return text.toString();
+    }
+}
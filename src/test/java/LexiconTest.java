@@ -0,0 +1,97 @@
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import com.filter.textcorrector.profanity_filtering.dictionary.Dictionary;
+import com.filter.textcorrector.profanity_filtering.dictionary.DictionaryFactory;
+import com.filter.textcorrector.profanity_filtering.dictionary.PlainDictionary;
+import com.filter.textcorrector.profanity_filtering.model.LexiconStats;
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.util.DictionaryRegistry;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Changes profanity lexicons at runtime and checks their stats, what is censored after each change
+ * and that a changed dictionary isn't unloaded when idle. Uses word lists of its own, as dictionaries are shared.
+ */
+public class LexiconTest {
+    private static final String LEXICON = "profanity/lexicon.txt";
+    private static final String UNCHANGED_LEXICON = "profanity/lexicon_unchanged.txt";
+    private static final String TEXT = "Darn, what the heck, dang it, frick, oh gosh!";
+
+    @Test
+    public void changesAreCensoredOnceApplied() throws IOException {
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder()
+                .withDictionary(LEXICON)
+                .build();
+
+        LexiconStats reloaded = profanityFilter.reloadProfanity(new StringReader("darn\nheck\ndang it\nfrick")).join();
+        assertEquals(4, reloaded.getSize());
+        assertEquals(reloaded, profanityFilter.getLexiconStats());
+        assertEquals(new HashSet<>(Arrays.asList("darn", "heck", "dang it", "frick")), phrasesOf(profanityFilter));
+
+        LexiconStats added = profanityFilter.addProfanity(Collections.singletonList("oh gosh")).join();
+        assertEquals(reloaded.getVersion() + 1, added.getVersion());
+        assertEquals(5, added.getSize());
+        assertEquals("[censored], what the [censored], [censored], [censored], [censored]!", profanityFilter.censor(TEXT));
+
+        LexiconStats removed = profanityFilter.removeProfanity(Arrays.asList("darn", "dang it", "not there")).join();
+        assertEquals(added.getVersion() + 1, removed.getVersion());
+        assertEquals(3, removed.getSize());
+        assertEquals(new HashSet<>(Arrays.asList("heck", "frick", "oh gosh")), phrasesOf(profanityFilter));
+        assertEquals("Darn, what the [censored], dang it, [censored], [censored]!", profanityFilter.censor(TEXT));
+        assertTrue(profanityFilter.isProfane("OH GOSH"));
+        assertFalse(profanityFilter.isProfane("darn"));
+    }
+
+    /**
+     * The dictionary counts as changed as soon as a change is submitted, so it can't be unloaded
+     * and loaded again from its list while the change is still being built.
+     */
+    @Test
+    public void dictionaryIsModifiedBeforeChangeIsApplied() {
+        Dictionary dictionary = DictionaryFactory.create(Language.ENGLISH, LEXICON);
+        CompletableFuture<LexiconStats> added = dictionary.addPhrases(Collections.singletonList("shoot"));
+
+        assertTrue(dictionary.isModified());
+        added.join();
+        assertTrue(dictionary.isProfane("shoot"));
+    }
+
+    @Test
+    public void onlyUnchangedDictionariesAreEvicted() throws InterruptedException {
+        DictionaryRegistry<String, Dictionary> registry = new DictionaryRegistry<>(PlainDictionary::new,
+                dictionary -> !dictionary.isModified());
+        Dictionary changed = registry.get(LEXICON);
+        registry.get(UNCHANGED_LEXICON);
+        changed.addPhrases(Collections.singletonList("shoot")).join();
+
+        registry.setIdleTimeout(1, TimeUnit.MILLISECONDS);
+
+        try {
+            Thread.sleep(10);
+            registry.evictIdle();
+
+            assertFalse(registry.isLoaded(UNCHANGED_LEXICON));
+            assertTrue(registry.isLoaded(LEXICON));
+            assertSame(changed, registry.get(LEXICON));
+        } finally {
+            registry.setIdleTimeout(0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Set<String> phrasesOf(ProfanityFilter profanityFilter) {
+        return new HashSet<>(profanityFilter.searchForProfanity(TEXT).getBadWordList());
+    }
+}
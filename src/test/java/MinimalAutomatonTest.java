@@ -0,0 +1,105 @@
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the minimal automaton holds the same words as the trie and gives the same answers.
+ */
+public class MinimalAutomatonTest {
+    private static List<String> words;
+    private static WordSuggester trie;
+    private static WordSuggester automaton;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_80K);
+        trie = trie(words);
+        automaton = WordSuggester.minimal(words, false, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void wordSetIsSameAsTrie() {
+        assertEquals(trie.getNumberOfWords(), automaton.getNumberOfWords());
+        assertEquals(trie.getMaxWordLength(), automaton.getMaxWordLength());
+        assertEquals(allWords(trie), allWords(automaton));
+    }
+
+    @Test
+    public void answersAreSameAsTrie() {
+        for (String query : TestWords.queries(words, 300, 7)) {
+            assertEquals(query, trie.search(query), automaton.search(query));
+            assertArrayEquals(query, trie.findWordEnds(query + "the", 0), automaton.findWordEnds(query + "the", 0));
+
+            List<String> expected = TestWords.describe(trie.getSuggestions(query, 2));
+            List<String> actual = TestWords.describe(automaton.getSuggestions(query, 2));
+            expected.sort(null);
+            actual.sort(null);
+
+            assertEquals(query, expected, actual);
+        }
+    }
+
+    /**
+     * Random words share many prefixes and endings, in any order of insertion, and some are prefixes of others.
+     */
+    @Test
+    public void randomWordSetsAreKept() {
+        Random random = new Random(8);
+
+        for (int round = 0; round < 20; round++) {
+            List<String> randomWords = new ArrayList<>();
+
+            for (int i = 0; i < 2000; i++) {
+                String word = TestWords.randomLetters(random, 1 + random.nextInt(6)).replaceAll("[f-z]", "a");
+                randomWords.add(random.nextBoolean() ? word : word.toUpperCase());
+            }
+
+            Collections.shuffle(randomWords, random);
+
+            assertEquals(allWords(trie(randomWords)), allWords(WordSuggester.minimal(randomWords, false, StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void automatonIsReadOnly() {
+        WordSuggester minimal = WordSuggester.minimal(Arrays.asList("tap", "taps", "top", "tops"), false, StandardCharsets.UTF_8);
+
+        assertEquals(Arrays.asList("tap", "taps", "top", "tops"), allWords(minimal));
+
+        try {
+            minimal.add("tip");
+            fail("Minimal automaton accepted a word.");
+        } catch (UnsupportedOperationException expected) {
+            assertFalse(minimal.search("tip"));
+        }
+    }
+
+    private static WordSuggester trie(List<String> trieWords) {
+        WordSuggester wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : trieWords) {
+            wordSuggester.add(word);
+        }
+
+        wordSuggester.compact();
+        return wordSuggester;
+    }
+
+    private static List<String> allWords(WordSuggester wordSuggester) {
+        List<String> allWords = new ArrayList<>();
+        wordSuggester.forEachWord(allWords::add);
+        return allWords;
+    }
+}
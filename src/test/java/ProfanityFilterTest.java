@@ -0,0 +1,141 @@
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import com.filter.textcorrector.profanity_filtering.model.Censored;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks censoring against outputs of the version that matched phrases with a regular expression each.
+ * generated.tsv holds random mixes of profane and clean words, spaced out letters and separators: the first 500
+ * texts generated, followed by every text of the first 20000 where the outputs differ. They differ on purpose
+ * for phrases joined by hyphens, which the regex version reported as found in the whole text without censoring
+ * ("son-of-a-bitch"); the words inside are censored now. The last two columns hold the current output there.
+ */
+public class ProfanityFilterTest {
+    private static ProfanityFilter profanityFilter;
+
+    @BeforeClass
+    public static void setUp() {
+        profanityFilter = new ProfanityFilter.Builder().build();
+    }
+
+    /**
+     * The regex version censored a lower case copy of the text, so only the case of the output may differ.
+     */
+    @Test
+    public void generatedTextsAreCensoredAsBefore() throws IOException {
+        List<String[]> cases = GoldenFiles.read("/profanity/generated.tsv", 5);
+        int changed = 0;
+
+        for (String[] golden : cases) {
+            String expectedText = golden[1];
+            String expectedPhrases = golden[2];
+
+            if (!golden[3].isEmpty()) {
+                assertNotEquals(golden[0], golden[1], golden[3]);
+                expectedText = golden[3];
+                expectedPhrases = golden[4];
+                changed++;
+            }
+
+            assertEquals(golden[0], expectedText, profanityFilter.censor(golden[0]).toLowerCase());
+
+            Censored censored = profanityFilter.searchForProfanity(golden[0]);
+            List<String> phrases = new ArrayList<>(censored.getBadWordList());
+            Collections.sort(phrases);
+
+            assertEquals(golden[0], expectedPhrases, String.join(", ", phrases));
+            assertEquals(golden[0], !phrases.isEmpty(), censored.isContainsProfanity());
+        }
+
+        // Texts after the first 500 are there because they differ
+        assertEquals(cases.size() - 500, changed);
+    }
+
+    @Test
+    public void caseOfTheRestIsKept() {
+        assertEquals("Hello [censored] World!", profanityFilter.censor("Hello FUCKING World!"));
+        assertEquals("Scunthorpe, Cocktail and a [censored].", profanityFilter.censor("Scunthorpe, Cocktail and a S h i t."));
+        assertEquals("Nothing to see here", profanityFilter.censor("Nothing to see here"));
+    }
+
+    /**
+     * The whole text used to be reported as a match without being replaced.
+     */
+    @Test
+    public void hyphenatedPhraseIsCensored() {
+        Censored censored = profanityFilter.searchForProfanity("butt-fuck");
+
+        assertTrue(censored.isContainsProfanity());
+        assertFalse(censored.getCensoredText().contains("fuck"));
+        assertEquals(censored.getCensoredText(), profanityFilter.censor("butt-fuck"));
+        assertTrue(censored.getBadWordList().containsAll(Arrays.asList("butt", "fuck")));
+    }
+
+    /**
+     * Hit buffers are kept per thread, one grown by a text with thousands of hits is dropped on the next search.
+     */
+    @Test
+    public void textsAfterHugeOneAreCensoredAsAlone() {
+        StringBuilder huge = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 6000; i++) {
+            huge.append(i % 3 == 0 ? "Shit, " : "hello asshole ");
+            expected.append(i % 3 == 0 ? "[censored], " : "hello [censored] ");
+        }
+
+        assertEquals("You [censored]!", profanityFilter.censor("You bitch!"));
+        assertEquals(expected.toString(), profanityFilter.censor(huge.toString()));
+        assertEquals("Nothing to see here", profanityFilter.censor("Nothing to see here"));
+        assertEquals("You [censored]!", profanityFilter.censor("You bitch!"));
+    }
+
+    @Test
+    public void textsCensoredInParallelAreSameAsOneByOne() throws Exception {
+        List<String> texts = new ArrayList<>();
+
+        for (String[] golden : GoldenFiles.read("/profanity/generated.tsv", 5)) {
+            texts.add(golden[0]);
+        }
+
+        texts.add(String.join(" ", Collections.nCopies(5000, "fuck")));
+        texts.add(String.join(" ", Collections.nCopies(5000, "s h i t")));
+
+        Map<String, String> expected = new HashMap<>();
+
+        for (String text : texts) {
+            expected.put(text, profanityFilter.censor(text));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            for (int round = 0; round < 5; round++) {
+                Collections.shuffle(texts, new Random(round));
+                List<String> censored = profanityFilter.censorAll(texts, executor);
+
+                for (int i = 0; i < texts.size(); i++) {
+                    assertEquals(texts.get(i), expected.get(texts.get(i)), censored.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
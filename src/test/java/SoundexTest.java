@@ -0,0 +1,172 @@
+import com.filter.textcorrector.spellchecking.PhoneticIndex;
+import com.filter.textcorrector.spellchecking.util.Soundex;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the table-driven Soundex against the map-based version it replaced, on the words of all bundled lists,
+ * and the phonetic index against codes computed one by one.
+ */
+public class SoundexTest {
+    private static final String[] WORD_LISTS = {
+            "/dictionaries/en_dictionary_80k.txt",
+            "/dictionaries/de_dictionary_160k.txt",
+            "/dictionaries/es_dictionary_70k.txt",
+            "/dictionaries/fr_dictionary_80k.txt",
+            "/dictionaries/pl_dictionary_290k.txt",
+            "/dictionaries/ru_dictionary_130k.txt",
+            "/dictionaries/uk_dictionary_110k.txt"
+    };
+
+    private static List<String> words;
+
+    @BeforeClass
+    public static void setUp() {
+        words = new ArrayList<>();
+
+        for (String wordList : WORD_LISTS) {
+            words.addAll(TestWords.read(wordList));
+        }
+    }
+
+    @Test
+    public void codesAreSameAsBefore() {
+        for (String word : words) {
+            assertEquals(word, LegacySoundex.translate(word), Soundex.translate(word));
+        }
+
+        for (String word : new String[]{"", "a", "H", "hw", "Ashcraft", "Tymczak", "ß", "straße", "'s", "o'neil", "9to5"}) {
+            assertEquals(word, LegacySoundex.translate(word), Soundex.translate(word));
+        }
+    }
+
+    @Test
+    public void differencesAreSameAsBefore() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 300000; i++) {
+            String code1 = Soundex.translate(words.get(random.nextInt(words.size())));
+            String code2 = Soundex.translate(i % 3 == 0 ? TestWords.misspell(code1, random) : words.get(random.nextInt(words.size())));
+
+            assertEquals(code1 + " " + code2, LegacySoundex.difference(code1, code2), Soundex.difference(code1, code2), 0);
+        }
+    }
+
+    @Test
+    public void indexGroupsWordsByCode() {
+        String[] indexed = TestWords.read(TestWords.ENGLISH_80K).toArray(new String[0]);
+        PhoneticIndex phoneticIndex = new PhoneticIndex(indexed);
+        Map<String, List<Integer>> expected = new HashMap<>();
+
+        for (int i = 0; i < indexed.length; i++) {
+            String code = Soundex.translate(indexed[i]);
+            assertEquals(indexed[i], code, phoneticIndex.getCode(i));
+            expected.computeIfAbsent(code, key -> new ArrayList<>()).add(i);
+        }
+
+        assertEquals(expected.size(), phoneticIndex.getNumberOfCodes());
+
+        for (Map.Entry<String, List<Integer>> bucket : expected.entrySet()) {
+            List<Integer> actual = new ArrayList<>();
+            phoneticIndex.forEachWord(bucket.getKey(), actual::add);
+            assertEquals(bucket.getKey(), bucket.getValue(), actual);
+        }
+
+        assertEquals(expected.get(Soundex.translate("robert")).size(), phoneticIndex.getWords("robert").size());
+    }
+
+    /**
+     * Soundex as it was before the codes were looked up in a table, kept as the reference.
+     */
+    private static final class LegacySoundex {
+        private static final Map<Character, Character> encoding = englishCodes();
+
+        static String translate(String word) {
+            if (word.isEmpty()) {
+                return "000";
+            }
+
+            String casedString = word.toUpperCase();
+            int length = word.length();
+            String letter = String.valueOf(casedString.charAt(0));
+            String code = letter;
+            char previousCode = '-';
+
+            for (int i = 1; i < length; i++) {
+                char currentLetter = casedString.charAt(i);
+
+                if (currentLetter == 'H' || currentLetter == 'W') {
+                    currentLetter = casedString.charAt((i + 1) % length);
+                }
+
+                char currentCode = getCode(currentLetter);
+
+                if (currentCode != '\0' && currentCode != previousCode) {
+                    code = code + currentCode;
+                }
+
+                previousCode = currentCode;
+            }
+
+            char[] soundexChars = code.substring(1).toCharArray();
+            Arrays.sort(soundexChars);
+
+            return new StringBuilder().append(soundexChars).append(letter).reverse().toString();
+        }
+
+        static float difference(String code1, String code2) {
+            int lengthDiff = Math.abs(code1.length() - code2.length());
+
+            for (int i = 0; i < lengthDiff; i++) {
+                if (code1.length() > code2.length()) {
+                    code2 = code2 + "0";
+                } else {
+                    code1 = code1 + "0";
+                }
+            }
+
+            float firstCode1 = Float.parseFloat((int) code1.charAt(0) + code1.substring(1));
+            float firstCode2 = Float.parseFloat((int) code2.charAt(0) + code2.substring(1));
+
+            float bigger = Math.max(firstCode1, firstCode2);
+            float smaller = Math.min(firstCode1, firstCode2);
+
+            return ((bigger - smaller) / smaller) * 100;
+        }
+
+        private static char getCode(char letter) {
+            Character letterCode = encoding.get(letter);
+            return letterCode == null ? '\0' : letterCode;
+        }
+
+        private static Map<Character, Character> englishCodes() {
+            Map<Character, Character> codes = new HashMap<>();
+
+            for (char c : "BFPV".toCharArray()) {
+                codes.put(c, '1');
+            }
+
+            for (char c : "CGJKQSXZ".toCharArray()) {
+                codes.put(c, '2');
+            }
+
+            codes.put('D', '3');
+            codes.put('T', '3');
+            codes.put('L', '4');
+            codes.put('M', '5');
+            codes.put('N', '5');
+            codes.put('R', '6');
+
+            return codes;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks checkText against outputs of the regular expression version it replaced, with each group of settings.
+ * generated.tsv holds random mixes of words, typos, punctuation, symbols between words, apostrophes, hyphens,
+ * digits and surrogates. Where the outputs differ on purpose, the last column keeps what the regex version gave:
+ * it took a run of non-whitespace for a word and cleaned it of symbols, so words joined by a symbol
+ * ("puzlze&beast", "You#are") or with a non-ASCII letter ("café") were looked up as a word that isn't in the text
+ * and were left as they were. Each of them is checked now.
+ * Texts checked together by checkTexts must come out the same as checked one by one.
+ */
+public class SpellcheckerGoldenTest {
+    private static Map<String, Spellchecker> spellcheckers;
+
+    @BeforeClass
+    public static void setUp() {
+        spellcheckers = new HashMap<>();
+        spellcheckers.put("default", new Spellchecker.Builder(Language.ENGLISH).build());
+        spellcheckers.put("not_keeping_unrecognized", new Spellchecker.Builder(Language.ENGLISH)
+                .withKeepingUnrecognized(false).build());
+        spellcheckers.put("checking_compounds", new Spellchecker.Builder(Language.ENGLISH)
+                .withCheckingCompounds(true).build());
+        spellcheckers.put("removing_repeated_letters", new Spellchecker.Builder(Language.ENGLISH)
+                .withRemovingRepeatedLetters(true).build());
+        spellcheckers.put("no_preproccessing", new Spellchecker.Builder(Language.ENGLISH)
+                .withPreproccessing(false).build());
+    }
+
+    @Test
+    public void generatedTextsAreCheckedAsBefore() throws IOException {
+        List<String[]> cases = GoldenFiles.read("/spellchecking/generated.tsv", 4);
+        assertTrue(cases.size() > 0);
+
+        for (String[] golden : cases) {
+            Spellchecker spellchecker = spellcheckers.get(golden[0]);
+            String message = golden[0] + ": " + golden[1];
+
+            assertEquals(message, golden[2], spellchecker.checkText(golden[1]));
+
+            if (!golden[3].isEmpty()) {
+                assertNotEquals(message, golden[3], golden[2]);
+            }
+        }
+    }
+
+    @Test
+    public void textsCheckedInParallelAreSameAsOneByOne() throws IOException {
+        Map<String, List<String>> texts = new HashMap<>();
+
+        for (String[] golden : GoldenFiles.read("/spellchecking/generated.tsv", 4)) {
+            texts.computeIfAbsent(golden[0], setting -> new ArrayList<>()).add(golden[1]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            for (Map.Entry<String, List<String>> setting : texts.entrySet()) {
+                Spellchecker spellchecker = spellcheckers.get(setting.getKey());
+                List<String> settingTexts = setting.getValue();
+                // Repeated texts and words are checked once for the whole batch
+                settingTexts.addAll(settingTexts.subList(0, settingTexts.size() / 2));
+                settingTexts.add("");
+
+                Map<String, String> expected = new HashMap<>();
+
+                for (String text : settingTexts) {
+                    expected.put(text, spellchecker.checkText(text));
+                }
+
+                for (int round = 0; round < 3; round++) {
+                    Collections.shuffle(settingTexts, new Random(round));
+                    List<String> checked = spellchecker.checkTexts(settingTexts, executor);
+
+                    assertEquals(settingTexts.size(), checked.size());
+
+                    for (int i = 0; i < settingTexts.size(); i++) {
+                        String text = settingTexts.get(i);
+                        assertEquals(setting.getKey() + ": " + text, expected.get(text), checked.get(i));
+                    }
+                }
+
+                assertEquals(expected.get(settingTexts.get(0)),
+                        spellchecker.checkTexts(settingTexts.subList(0, 1)).get(0));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void wordsJoinedBySymbolsAreCheckedEach() {
+        Spellchecker spellchecker = spellcheckers.get("no_preproccessing");
+
+        assertEquals("Hello#world", spellchecker.checkText("Helo#wrold"));
+        assertEquals("Thou&smaller? disclaimers  juan.", spellchecker.checkText("Thou&samller? disclaimers  juan."));
+    }
+}
@@ -0,0 +1,129 @@
+import com.filter.textcorrector.profanity_filtering.ProfanityFilter;
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Spellchecks and censors a generated text read piece by piece and checks the output is the one of
+ * the whole text at once, whatever the size of the pieces.
+ */
+public class StreamingTest {
+    private static final int[] CHUNK_SIZES = {40, 200, 1000, 100000};
+
+    private static final String[] SPECIAL = {"a", "I", "s h i t", "f u c k i n g", "don't", "well-known", "You#are",
+            "fuck", "shit", "assess", "Scunthorpe", "12.56cm", "hellllo", "d0uch3"};
+    private static final String[] SEPARATORS = {" ", " ", " ", "  ", ", ", ". ", "! ", "\n", " - ", "\t", "#"};
+
+    private static String text;
+
+    @BeforeClass
+    public static void setUp() {
+        List<String> words = TestWords.read(TestWords.ENGLISH_10K);
+        Random random = new Random(14);
+        StringBuilder generated = new StringBuilder("Hello");
+
+        while (generated.length() < 20000) {
+            generated.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+
+            int kind = random.nextInt(10);
+
+            if (kind == 0) {
+                generated.append(SPECIAL[random.nextInt(SPECIAL.length)]);
+            } else if (kind < 3) {
+                generated.append(TestWords.misspell(words.get(random.nextInt(words.size())), random));
+            } else {
+                generated.append(words.get(random.nextInt(words.size())));
+            }
+        }
+
+        text = generated.toString();
+    }
+
+    @Test
+    public void spellcheckedStreamIsSameAsWholeText() throws IOException {
+        for (Spellchecker spellchecker : new Spellchecker[]{
+                new Spellchecker.Builder(Language.ENGLISH).build(),
+                new Spellchecker.Builder(Language.ENGLISH).withPreproccessing(false).build()}) {
+
+            String expected = spellchecker.checkText(text);
+
+            for (int chunkSize : CHUNK_SIZES) {
+                StringWriter output = new StringWriter();
+                spellchecker.checkText(new StringReader(text), output, chunkSize);
+
+                assertEquals("Chunk size " + chunkSize, expected, output.toString());
+            }
+        }
+    }
+
+    @Test
+    public void censoredStreamIsSameAsWholeText() throws IOException {
+        for (int maxEditDistance = 0; maxEditDistance <= 1; maxEditDistance++) {
+            ProfanityFilter profanityFilter = new ProfanityFilter.Builder().withMaxEditDistance(maxEditDistance).build();
+            String expected = profanityFilter.censor(text);
+
+            for (int chunkSize : CHUNK_SIZES) {
+                StringWriter output = new StringWriter();
+                profanityFilter.censor(new StringReader(text), output, chunkSize);
+
+                assertEquals("Chunk size " + chunkSize + ", distance " + maxEditDistance, expected, output.toString());
+            }
+        }
+    }
+
+    @Test
+    public void charBufferIsReadToTheEnd() throws IOException {
+        Spellchecker spellchecker = new Spellchecker.Builder(Language.ENGLISH).build();
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder().build();
+
+        StringWriter checked = new StringWriter();
+        spellchecker.checkText(CharBuffer.wrap(text), checked, 200);
+        assertEquals(spellchecker.checkText(text), checked.toString());
+
+        StringWriter censored = new StringWriter();
+        profanityFilter.censor(CharBuffer.wrap(text), censored, 200);
+        assertEquals(profanityFilter.censor(text), censored.toString());
+    }
+
+    @Test
+    public void emptyInputGivesEmptyOutput() throws IOException {
+        StringWriter checked = new StringWriter();
+        new Spellchecker.Builder(Language.ENGLISH).build().checkText(new StringReader(""), checked);
+        assertEquals("", checked.toString());
+
+        StringWriter censored = new StringWriter();
+        new ProfanityFilter.Builder().build().censor(CharBuffer.allocate(0), censored);
+        assertEquals("", censored.toString());
+    }
+
+    /**
+     * A word longer than the pieces may grow to is cut, the rest of the text is the same as if it wasn't.
+     */
+    @Test
+    public void textWithoutBoundaryIsCut() throws IOException {
+        StringBuilder longWord = new StringBuilder();
+
+        while (longWord.length() < 1000) {
+            longWord.append("abcdefghij");
+        }
+
+        String cutText = "Fuck you. " + longWord + " fuck you";
+        ProfanityFilter profanityFilter = new ProfanityFilter.Builder().build();
+        StringWriter output = new StringWriter();
+
+        profanityFilter.censor(new StringReader(cutText), output, 40);
+
+        assertEquals(profanityFilter.censor(cutText), output.toString());
+        assertEquals("[censored]. " + longWord + " [censored]", output.toString());
+    }
+}
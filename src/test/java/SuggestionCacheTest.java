@@ -0,0 +1,183 @@
+import com.filter.textcorrector.spellchecking.Language;
+import com.filter.textcorrector.spellchecking.Spellchecker;
+import com.filter.textcorrector.spellchecking.SuggestionCache;
+import com.filter.textcorrector.spellchecking.model.CacheStats;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import com.filter.textcorrector.util.FrequencySketch;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a word asked for once doesn't push a popular one out of the suggestion cache, that entries are
+ * dropped with the dictionary they were found in, that the counters add up and that cached suggestions are
+ * the same as searched ones.
+ */
+public class SuggestionCacheTest {
+    private static final Object DICTIONARY = new Object();
+
+    @Test
+    public void oneOffWordDoesNotEvictPopularOne() {
+        SuggestionCache cache = new SuggestionCache(1);
+        SuggestionCache.Key popular = key("helo");
+        SuggestionCache.Key oneOff = key("wrold");
+
+        lookUp(cache, popular);
+        lookUp(cache, popular);
+        lookUp(cache, popular);
+        lookUp(cache, oneOff);
+
+        assertNotNull(cache.get(DICTIONARY, popular));
+        assertNull(cache.get(DICTIONARY, oneOff));
+        assertEquals(0, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void wordAskedForMoreOftenEvictsOldest() {
+        SuggestionCache cache = new SuggestionCache(1);
+        SuggestionCache.Key old = key("helo");
+        SuggestionCache.Key frequent = key("wrold");
+
+        lookUp(cache, old);
+
+        for (int i = 0; i < 3; i++) {
+            lookUp(cache, frequent);
+        }
+
+        assertNotNull(cache.get(DICTIONARY, frequent));
+        assertNull(cache.get(DICTIONARY, old));
+        assertEquals(1, cache.getStats().getEvictionCount());
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    public void entriesAreDroppedWithTheirDictionary() {
+        SuggestionCache cache = new SuggestionCache(10);
+        Object other = new Object();
+
+        lookUp(cache, key("helo"));
+        assertNotNull(cache.get(DICTIONARY, key("helo")));
+
+        assertNull(cache.get(other, key("helo")));
+        assertEquals(0, cache.getStats().getSize());
+
+        // Suggestions found in the replaced dictionary are not cached
+        cache.put(DICTIONARY, key("helo"), suggestions("hello"));
+        assertNull(cache.get(other, key("helo")));
+    }
+
+    @Test
+    public void zeroSizeDisablesCaching() {
+        SuggestionCache cache = new SuggestionCache(0);
+
+        lookUp(cache, key("helo"));
+
+        assertNull(cache.get(DICTIONARY, key("helo")));
+        assertEquals(new CacheStats(0, 2, 0, 0), cache.getStats());
+    }
+
+    @Test
+    public void countersAddUp() {
+        Spellchecker spellchecker = new Spellchecker.Builder(Language.ENGLISH).build();
+        List<String> misspelled = Arrays.asList("helo", "wrold", "helo", "helo", "wrold", "frend", "hello");
+
+        for (String word : misspelled) {
+            spellchecker.checkWord(word);
+        }
+
+        // Dictionary words are not looked up in the cache
+        CacheStats stats = spellchecker.getCacheStats();
+        assertEquals(3, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(0, stats.getEvictionCount());
+        assertEquals(3, stats.getSize());
+        assertEquals(0.5, stats.getHitRate(), 0);
+    }
+
+    @Test
+    public void changingLanguageDropsEntries() {
+        Spellchecker spellchecker = new Spellchecker.Builder(Language.ENGLISH).build();
+        List<String> suggestions = spellchecker.checkWord("helo");
+
+        spellchecker.changeLanguage(Language.SPANISH);
+        assertEquals(0, spellchecker.getCacheStats().getSize());
+
+        spellchecker.changeLanguage(Language.ENGLISH);
+        assertEquals(suggestions, spellchecker.checkWord("helo"));
+
+        CacheStats stats = spellchecker.getCacheStats();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void cachedSuggestionsAreSameAsSearched() {
+        Spellchecker cached = new Spellchecker.Builder(Language.ENGLISH).withSuggestionCache(100).build();
+        Spellchecker uncached = new Spellchecker.Builder(Language.ENGLISH).withSuggestionCache(0).build();
+        List<String> queries = TestWords.queries(TestWords.read(TestWords.ENGLISH_10K), 500, 42);
+
+        // Second round is served from the cache, partly, as it holds fewer words than asked for
+        for (int round = 0; round < 2; round++) {
+            for (String query : queries) {
+                assertEquals(query, uncached.checkWord(query), cached.checkWord(query));
+            }
+        }
+
+        CacheStats stats = cached.getCacheStats();
+        assertTrue(stats.getHitCount() > 0);
+        assertTrue(stats.getEvictionCount() > 0);
+        assertTrue(stats.getSize() <= 100);
+        assertEquals(0, uncached.getCacheStats().getHitCount());
+        assertEquals(uncached.getCacheStats().getMissCount(), stats.getHitCount() + stats.getMissCount());
+    }
+
+    @Test
+    public void sketchCountsUpTo15() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(16);
+
+        assertEquals(0, sketch.frequency("helo"));
+
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment("helo");
+            assertEquals(Math.min(i, 15), sketch.frequency("helo"));
+        }
+    }
+
+    @Test
+    public void sketchHalvesOldCounts() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(16);
+
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(-1);
+        }
+
+        // Sample size of 160 additions is reached
+        for (int i = 0; i < 160; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency(-1) < 8);
+    }
+
+    private static void lookUp(SuggestionCache cache, SuggestionCache.Key key) {
+        if (cache.get(DICTIONARY, key) == null) {
+            cache.put(DICTIONARY, key, suggestions("hello"));
+        }
+    }
+
+    private static SuggestionCache.Key key(String word) {
+        return new SuggestionCache.Key(word, 40, 5);
+    }
+
+    private static List<Suggestion> suggestions(String word) {
+        return Collections.singletonList(new Suggestion(word, 1, 1, 90));
+    }
+}
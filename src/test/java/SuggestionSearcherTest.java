@@ -0,0 +1,105 @@
+import com.filter.textcorrector.spellchecking.SuggestionSearcher;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the BK-tree against a linear scan by the restricted distance: it must find exactly the same words,
+ * also among short strings of few letters, where the restricted distance breaks triangle inequality most often.
+ */
+public class SuggestionSearcherTest {
+    private static final Comparator<Suggestion> RANKING = Comparator.<Suggestion>naturalOrder()
+            .thenComparingDouble(Suggestion::getSoundexCodeDistance);
+
+    private static List<String> words;
+    private static SuggestionSearcher tree;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_10K);
+        tree = new SuggestionSearcher(words);
+    }
+
+    @Test
+    public void matchesAreFoundByLinearSearch() {
+        for (String query : TestWords.queries(words, 400, 15)) {
+            for (int threshold = 0; threshold <= 2; threshold++) {
+                assertEquals(query + " at " + threshold, TestWords.linearSearch(words, query, threshold),
+                        TestWords.wordsAndDistances(tree.search(query, threshold)));
+            }
+        }
+    }
+
+    /**
+     * "ca" is 3 edits from "abc" by the restricted distance, but 1 from "ac", which is 1 from "abc". A tree
+     * built with it could put "abc" where a search for "ca" never looks.
+     */
+    @Test
+    public void matchesAmongStringsOfFewLettersAreFoundByLinearSearch() {
+        Random random = new Random(18);
+
+        for (int round = 0; round < 20; round++) {
+            Set<String> wordSet = new HashSet<>();
+
+            while (wordSet.size() < 300) {
+                StringBuilder word = new StringBuilder();
+
+                for (int i = random.nextInt(6); i >= 0; i--) {
+                    word.append((char) ('a' + random.nextInt(3)));
+                }
+
+                wordSet.add(word.toString());
+            }
+
+            List<String> smallWords = new ArrayList<>(wordSet);
+            SuggestionSearcher smallTree = new SuggestionSearcher(smallWords);
+
+            for (String query : smallWords.subList(0, 50)) {
+                for (int threshold = 0; threshold <= 3; threshold++) {
+                    assertEquals(query + " at " + threshold, TestWords.linearSearch(smallWords, query, threshold),
+                            TestWords.wordsAndDistances(smallTree.search(query, threshold)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void topIsSortedFullSearch() {
+        for (String query : TestWords.queries(words, 300, 16)) {
+            List<Suggestion> all = tree.search(query, 2);
+
+            for (int limit : new int[]{1, 3, 10}) {
+                List<Suggestion> expected = all.stream()
+                        .sorted(RANKING.thenComparing(Suggestion::getWord))
+                        .limit(limit)
+                        .collect(Collectors.toList());
+
+                assertEquals(query + " limit " + limit, TestWords.describe(expected),
+                        TestWords.describe(tree.search(query, 2, limit, RANKING)));
+            }
+        }
+    }
+
+    @Test
+    public void treeHoldsTheWords() {
+        Set<String> wordSet = new HashSet<>(words);
+
+        assertEquals(words.size(), tree.getSize());
+        assertEquals(words.stream().mapToInt(String::length).max().getAsInt(), tree.getMaxWordLength());
+
+        for (String query : TestWords.queries(words, 2000, 17)) {
+            assertEquals(query, wordSet.contains(query), tree.contains(query));
+            assertEquals(query, wordSet.contains(query), tree.contains(query.toUpperCase()));
+        }
+    }
+}
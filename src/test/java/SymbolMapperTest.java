@@ -0,0 +1,288 @@
+import com.filter.textcorrector.text_preproccessing.SymbolMapper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks the table-driven symbol mapper against the map-based version it replaced, on every char of the BMP,
+ * every mapped code point of supplementary planes and random texts of both, mapped in place within larger arrays.
+ */
+public class SymbolMapperTest {
+    // Unmapped code points of supplementary planes, both versions write them as one char cut to 16 bits
+    private static final int[] UNMAPPED = {0x1F600, 0x1F4A9, 0x10030, 0x10041, 0x2070E, 0x1D400 + 26 * 40};
+
+    private static SymbolMapper symbolMapper;
+    private static LegacySymbolMapper legacySymbolMapper;
+    private static int[] supplementaryCodes;
+    private static List<Integer> bmpCodes;
+
+    @BeforeClass
+    public static void setUp() {
+        symbolMapper = new SymbolMapper();
+        legacySymbolMapper = new LegacySymbolMapper();
+        supplementaryCodes = legacySymbolMapper.codes.keySet().stream()
+                .mapToInt(Integer::intValue)
+                .filter(Character::isSupplementaryCodePoint)
+                .toArray();
+
+        bmpCodes = new ArrayList<>(legacySymbolMapper.numberCodes.keySet());
+
+        for (int code : legacySymbolMapper.codes.keySet()) {
+            if (!Character.isSupplementaryCodePoint(code)) {
+                bmpCodes.add(code);
+            }
+        }
+    }
+
+    @Test
+    public void everyBmpCharIsMappedAsBefore() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            for (String text : new String[]{String.valueOf((char) c), "a" + (char) c + "B", (char) c + "7"}) {
+                assertSameAsBefore(text);
+            }
+        }
+    }
+
+    @Test
+    public void supplementaryCodePointsAreMappedAsBefore() {
+        for (int code : supplementaryCodes) {
+            assertSameAsBefore(new String(Character.toChars(code)));
+            assertSameAsBefore("x" + new String(Character.toChars(code)) + "Y1");
+        }
+
+        for (int code : legacySymbolMapper.numberCodes.keySet()) {
+            assertSameAsBefore(new String(Character.toChars(code)) + "o");
+        }
+
+        for (int code : UNMAPPED) {
+            assertSameAsBefore(new String(Character.toChars(code)));
+            assertSameAsBefore("hi " + new String(Character.toChars(code)) + " there");
+        }
+    }
+
+    @Test
+    public void unmappedEmojiIsCutAsBefore() {
+        String emoji = new String(Character.toChars(0x1F600));
+
+        assertEquals(emoji, symbolMapper.mapNumbers(emoji));
+        assertEquals(String.valueOf((char) 0x1F600), symbolMapper.mapCharacters(emoji));
+        // Cut to 16 bits it's a digit
+        assertEquals("0", symbolMapper.mapNumbers(new String(Character.toChars(0x10030))));
+    }
+
+    @Test
+    public void randomTextsAreMappedInPlaceAsBefore() {
+        Random random = new Random(20);
+
+        for (int i = 0; i < 20000; i++) {
+            char[] text = randomText(random, random.nextInt(30)).toCharArray();
+            int from = random.nextInt(text.length + 1);
+            int to = from + random.nextInt(text.length - from + 1);
+
+            char[] expected = text.clone();
+            char[] actual = text.clone();
+            int expectedEnd = legacySymbolMapper.mapNumbers(expected, from, to);
+            int actualEnd = symbolMapper.mapNumbers(actual, from, to);
+            assertMappedAsBefore(text, from, to, expected, expectedEnd, actual, actualEnd);
+
+            expected = text.clone();
+            actual = text.clone();
+            expectedEnd = legacySymbolMapper.mapCharacters(expected, from, to);
+            actualEnd = symbolMapper.mapCharacters(actual, from, to);
+            assertMappedAsBefore(text, from, to, expected, expectedEnd, actual, actualEnd);
+
+            assertSameAsBefore(new String(text));
+        }
+    }
+
+    /**
+     * Text the tables don't change is only read and given back as it was.
+     */
+    @Test
+    public void unchangedTextIsReturnedAsItWas() {
+        String plain = "hello, world! 42 times";
+        String lowercase = "hello world";
+        String number = "0123456789";
+
+        assertSame(plain, symbolMapper.mapNumbers(plain));
+        assertSame(lowercase, symbolMapper.mapCharacters(lowercase));
+        assertSame(number, symbolMapper.mapCharacters(number));
+        assertSame("", symbolMapper.mapNumbers(""));
+
+        assertEquals("hello", symbolMapper.mapCharacters("HeLLo"));
+        assertEquals("hello, worldi a2 times", symbolMapper.mapCharacters(plain));
+        assertEquals("h3ll0", symbolMapper.mapNumbers("h" + (char) 0x0417 + "ll" + (char) 0x2080));
+
+        char[] text = "already lowercase".toCharArray();
+        assertEquals(text.length, symbolMapper.mapCharacters(text, 0, text.length));
+        assertEquals("already lowercase", new String(text));
+    }
+
+    private static void assertSameAsBefore(String text) {
+        assertEquals(text, legacySymbolMapper.mapNumbers(text), symbolMapper.mapNumbers(text));
+        assertEquals(text, legacySymbolMapper.mapCharacters(text), symbolMapper.mapCharacters(text));
+    }
+
+    /**
+     * Mapped part must be the same, chars before it untouched, and so the ones after the given range.
+     */
+    private static void assertMappedAsBefore(char[] text, int from, int to, char[] expected, int expectedEnd,
+                                             char[] actual, int actualEnd) {
+        String message = new String(text) + " [" + from + ", " + to + ")";
+
+        assertEquals(message, expectedEnd, actualEnd);
+        assertArrayEquals(message, Arrays.copyOfRange(expected, from, expectedEnd), Arrays.copyOfRange(actual, from, actualEnd));
+        assertArrayEquals(message, Arrays.copyOfRange(text, 0, from), Arrays.copyOfRange(actual, 0, from));
+        assertArrayEquals(message, Arrays.copyOfRange(text, to, text.length), Arrays.copyOfRange(actual, to, text.length));
+    }
+
+    /**
+     * @return ASCII, mapped BMP chars, surrogate pairs mapped and not, lone surrogates and digits.
+     */
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(7)) {
+                case 0:
+                    text.append((char) (' ' + random.nextInt(95)));
+                    break;
+                case 1:
+                    text.appendCodePoint(bmpCodes.get(random.nextInt(bmpCodes.size())));
+                    break;
+                case 2:
+                    text.appendCodePoint(supplementaryCodes[random.nextInt(supplementaryCodes.length)]);
+                    break;
+                case 3:
+                    text.appendCodePoint(UNMAPPED[random.nextInt(UNMAPPED.length)]);
+                    break;
+                case 4:
+                    text.append((char) (Character.MIN_SURROGATE + random.nextInt(0x800)));
+                    break;
+                case 5:
+                    text.append((char) ('0' + random.nextInt(10)));
+                    break;
+                default:
+                    text.append((char) random.nextInt(Character.MAX_VALUE + 1));
+                    break;
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Symbol mapper as it was before look-alikes were looked up in tables, kept as the reference.
+     */
+    private static final class LegacySymbolMapper {
+        private static final String PATH = "/dictionaries/UnicodeToASCIIAppearance.txt";
+
+        private final Map<Integer, Character> codes = new HashMap<>();
+        private final Map<Integer, Character> numberCodes = new HashMap<>();
+
+        LegacySymbolMapper() {
+            try (Scanner scanner = new Scanner(SymbolMapperTest.class.getResourceAsStream(PATH))) {
+                char asciiSymbol = 33;
+
+                while (scanner.hasNextLine()) {
+                    String code = scanner.nextLine();
+
+                    if (code.equals("")) {
+                        asciiSymbol++;
+                    } else {
+                        int decimalUnicode = Integer.parseInt(code);
+
+                        if (asciiSymbol >= 48 && asciiSymbol <= 57) {
+                            numberCodes.put(decimalUnicode, asciiSymbol);
+                        } else codes.put(decimalUnicode, asciiSymbol);
+                    }
+                }
+            }
+        }
+
+        String mapNumbers(String text) {
+            char[] characterArray = text.toCharArray();
+            int length = mapNumbers(characterArray, 0, characterArray.length);
+            return new String(characterArray, 0, length);
+        }
+
+        int mapNumbers(char[] text, int from, int to) {
+            int position = from;
+
+            for (int i = from; i < to; ) {
+                char current = text[i];
+                int code = current;
+                int width = 1;
+
+                if (i + 1 < to && Character.isSurrogatePair(current, text[i + 1])) {
+                    code = Character.toCodePoint(current, text[i + 1]);
+                    width = 2;
+                }
+
+                char replacement = numberCodes.get(code) == null ? (char) code : numberCodes.get(code);
+
+                if (Character.isDigit(replacement)) {
+                    text[position++] = replacement;
+                } else {
+                    for (int j = 0; j < width; j++) {
+                        text[position++] = text[i + j];
+                    }
+                }
+
+                i += width;
+            }
+
+            return position;
+        }
+
+        String mapCharacters(String text) {
+            char[] textArray = text.toCharArray();
+            int length = mapCharacters(textArray, 0, textArray.length);
+            return new String(textArray, 0, length);
+        }
+
+        int mapCharacters(char[] text, int from, int to) {
+            if (textIsNumber(text, from, to)) {
+                return to;
+            }
+
+            int position = from;
+
+            for (int i = from; i < to; ) {
+                char current = text[i];
+                int code = current;
+                int width = 1;
+
+                if (i + 1 < to && Character.isSurrogatePair(current, text[i + 1])) {
+                    code = Character.toCodePoint(current, text[i + 1]);
+                    width = 2;
+                }
+
+                char replacement = codes.get(code) == null ? (char) code : codes.get(code);
+                text[position++] = Character.toLowerCase(replacement);
+                i += width;
+            }
+
+            return position;
+        }
+
+        private static boolean textIsNumber(char[] text, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (!Character.isDigit(text[i]))
+                    return false;
+            }
+            return true;
+        }
+    }
+}
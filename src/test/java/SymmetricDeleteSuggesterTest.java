@@ -0,0 +1,81 @@
+import com.filter.textcorrector.spellchecking.SymmetricDeleteSuggester;
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the delete index against the trie it is an alternative to and against a linear scan of the words.
+ */
+public class SymmetricDeleteSuggesterTest {
+    private static List<String> words;
+    private static SymmetricDeleteSuggester suggester;
+    private static WordSuggester trie;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_10K);
+        suggester = new SymmetricDeleteSuggester(words);
+        trie = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : words) {
+            trie.add(word);
+        }
+
+        trie.compact();
+    }
+
+    @Test
+    public void suggestionsAreSameAsTrie() {
+        for (String query : TestWords.queries(words, 600, 1)) {
+            for (int maxDistance = 0; maxDistance <= SymmetricDeleteSuggester.DEFAULT_MAX_EDIT_DISTANCE; maxDistance++) {
+                List<String> expected = sorted(TestWords.describe(trie.getSuggestions(query, maxDistance)));
+
+                assertEquals(query + " at " + maxDistance, expected,
+                        sorted(TestWords.describe(suggester.getSuggestions(query, maxDistance))));
+            }
+        }
+    }
+
+    /**
+     * Deletes are made of the first chars of the words only, so long words are checked in full too.
+     */
+    @Test
+    public void longWordsAreFoundAsByLinearSearch() {
+        for (String query : TestWords.queries(words, 300, 2)) {
+            if (query.length() > SymmetricDeleteSuggester.DEFAULT_PREFIX_LENGTH) {
+                assertEquals(query, TestWords.linearSearch(words, query, 2),
+                        TestWords.wordsAndDistances(suggester.getSuggestions(query, 2)));
+            }
+        }
+    }
+
+    @Test
+    public void distanceIsLoweredToIndexedOne() {
+        assertEquals(TestWords.wordsAndDistances(suggester.getSuggestions("acommodate", 2)),
+                TestWords.wordsAndDistances(suggester.getSuggestions("acommodate", 5)));
+    }
+
+    @Test
+    public void wordsAreFoundIgnoringCase() {
+        assertEquals(words.size(), suggester.getNumberOfWords());
+
+        for (String word : words) {
+            assertTrue(word, suggester.search(word));
+        }
+
+        assertTrue(suggester.search(words.get(0).toUpperCase()));
+        assertFalse(suggester.search("qwxzvb"));
+    }
+
+    private static List<String> sorted(List<String> list) {
+        list.sort(null);
+        return list;
+    }
+}
@@ -0,0 +1,192 @@
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Word lists, misspellings and the plain implementations the search engines are checked against.
+ */
+final class TestWords {
+    static final String ENGLISH_10K = "/dictionaries/en_dictionary_10k.txt";
+    static final String ENGLISH_80K = "/dictionaries/en_dictionary_80k.txt";
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    private TestWords() {
+    }
+
+    /**
+     * @return unique words of a word list on the classpath in lower case, in the order of the list.
+     */
+    static List<String> read(String path) {
+        Set<String> words = new LinkedHashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                TestWords.class.getResourceAsStream(path), StandardCharsets.UTF_8))) {
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    words.add(line.toLowerCase());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * @return words of the list with one or two random edits, the words themselves and random letters.
+     */
+    static List<String> queries(List<String> words, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> queries = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String word = words.get(random.nextInt(words.size()));
+
+            switch (i % 5) {
+                case 0:
+                    queries.add(word);
+                    break;
+                case 1:
+                    queries.add(randomLetters(random, 1 + random.nextInt(10)));
+                    break;
+                case 2:
+                    queries.add(misspell(misspell(word, random), random));
+                    break;
+                default:
+                    queries.add(misspell(word, random));
+                    break;
+            }
+        }
+
+        return queries;
+    }
+
+    /**
+     * @return the word with a letter deleted, inserted, replaced or two neighbours swapped.
+     */
+    static String misspell(String word, Random random) {
+        StringBuilder misspelled = new StringBuilder(word);
+        int position = random.nextInt(word.length() + 1);
+        char letter = LETTERS.charAt(random.nextInt(LETTERS.length()));
+
+        switch (random.nextInt(4)) {
+            case 0:
+                if (position < misspelled.length()) {
+                    misspelled.deleteCharAt(position);
+                }
+                break;
+            case 1:
+                misspelled.insert(position, letter);
+                break;
+            case 2:
+                if (position < misspelled.length()) {
+                    misspelled.setCharAt(position, letter);
+                }
+                break;
+            default:
+                if (position + 1 < misspelled.length()) {
+                    char swapped = misspelled.charAt(position);
+                    misspelled.setCharAt(position, misspelled.charAt(position + 1));
+                    misspelled.setCharAt(position + 1, swapped);
+                }
+                break;
+        }
+
+        return misspelled.toString();
+    }
+
+    static String randomLetters(Random random, int length) {
+        StringBuilder letters = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            letters.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+
+        return letters.toString();
+    }
+
+    /**
+     * Restricted Damerau-Levenshtein (optimal string alignment) distance over the full matrix.
+     */
+    static int osa(String s1, String s2) {
+        int[][] d = new int[s1.length() + 1][s2.length() + 1];
+
+        for (int i = 0; i <= s1.length(); i++) {
+            d[i][0] = i;
+        }
+
+        for (int j = 0; j <= s2.length(); j++) {
+            d[0][j] = j;
+        }
+
+        for (int i = 1; i <= s1.length(); i++) {
+            for (int j = 1; j <= s2.length(); j++) {
+                int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+
+                if (i > 1 && j > 1 && s1.charAt(i - 1) == s2.charAt(j - 2) && s1.charAt(i - 2) == s2.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + cost);
+                }
+            }
+        }
+
+        return d[s1.length()][s2.length()];
+    }
+
+    /**
+     * @return words of the list not further than the distance from the word, with their distances, sorted.
+     */
+    static List<String> linearSearch(List<String> words, String word, int maxDistance) {
+        List<String> matches = new ArrayList<>();
+
+        for (String candidate : words) {
+            if (Math.abs(candidate.length() - word.length()) <= maxDistance) {
+                int distance = osa(word, candidate);
+
+                if (distance <= maxDistance) {
+                    matches.add(candidate + ":" + distance);
+                }
+            }
+        }
+
+        matches.sort(null);
+        return matches;
+    }
+
+    /**
+     * Suggestion doesn't compare by value, so suggestions are compared by their words and distances.
+     *
+     * @return "word:distance" of every suggestion, sorted.
+     */
+    static List<String> wordsAndDistances(List<Suggestion> suggestions) {
+        return suggestions.stream()
+                .map(suggestion -> suggestion.getWord() + ":" + suggestion.getEditDistance())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return every field of every suggestion, in the order of the list.
+     */
+    static List<String> describe(List<Suggestion> suggestions) {
+        return suggestions.stream()
+                .map(suggestion -> suggestion.getWord() + ":" + suggestion.getEditDistance() + ":"
+                        + suggestion.getSoundexCodeDistance() + ":" + suggestion.getMatchPercentage())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,175 @@
+import com.filter.textcorrector.util.TextChunks;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks where a text is cut into pieces and that the pieces put together are the text.
+ */
+public class TextChunksTest {
+    // Cut after a space only
+    private static final TextChunks.Boundary AFTER_SPACE = (text, position, endOfInput) -> text.charAt(position - 1) == ' ';
+    private static final TextChunks.Boundary NEVER = (text, position, endOfInput) -> false;
+
+    @Test
+    public void emptyInputHasNoPieces() throws IOException {
+        assertNull(new TextChunks(new StringReader(""), 10, AFTER_SPACE).next());
+        assertNull(new TextChunks(CharBuffer.allocate(0), 10, AFTER_SPACE).next());
+    }
+
+    @Test
+    public void shortTextIsOnePiece() throws IOException {
+        assertEquals(Collections.singletonList("hello world"), pieces(new StringReader("hello world"), 100, AFTER_SPACE));
+    }
+
+    @Test
+    public void pieceEndsAtLastBoundaryWithinChunk() throws IOException {
+        assertEquals(Arrays.asList("aaa bbb ", "ccc ddd ", "eee"),
+                pieces(new StringReader("aaa bbb ccc ddd eee"), 10, AFTER_SPACE));
+    }
+
+    @Test
+    public void pieceEndsAtFirstBoundaryAfterChunkIfNoneWithin() throws IOException {
+        assertEquals(Arrays.asList("aaaaaaaaaaaaaa ", "bb"), pieces(new StringReader("aaaaaaaaaaaaaa bb"), 5, AFTER_SPACE));
+    }
+
+    /**
+     * Without a boundary the buffer grows to four chunks, then it's cut there.
+     */
+    @Test
+    public void textWithoutBoundaryIsCutAtFourChunks() throws IOException {
+        String text = repeat('x', 1000);
+
+        List<String> pieces = pieces(new StringReader(text), 100, NEVER);
+
+        assertEquals(Arrays.asList(400, 400, 200), lengths(pieces));
+        assertEquals(text, String.join("", pieces));
+    }
+
+    @Test
+    public void charBufferIsReadToTheEnd() throws IOException {
+        String text = repeat('a', 5000).replace("aaaaaaa", "aaaaaa ");
+
+        List<String> pieces = pieces(CharBuffer.wrap(text), 300, AFTER_SPACE);
+
+        assertEquals(text, String.join("", pieces));
+
+        for (String piece : pieces.subList(0, pieces.size() - 1)) {
+            assertTrue(piece, piece.endsWith(" ") && piece.length() <= 300);
+        }
+    }
+
+    /**
+     * A boundary that needs text after it holds off until the text is read, the piece then ends there.
+     */
+    @Test
+    public void boundaryNeedingMoreTextIsCheckedAgainAfterRead() throws IOException {
+        // Cut before "b" only once the whole next word is known
+        TextChunks.Boundary beforeWholeWord = (text, position, endOfInput) -> {
+            if (text.charAt(position) != 'b' || text.charAt(position - 1) != ' ') {
+                return false;
+            }
+
+            int end = position;
+
+            while (end < text.length() && text.charAt(end) != ' ') {
+                end++;
+            }
+
+            return end < text.length() || endOfInput;
+        };
+
+        String text = repeat('a', 30) + " " + repeat('b', 10) + " c";
+        List<String> pieces = pieces(new SlowReader(text, 7), 20, beforeWholeWord);
+
+        assertEquals(Arrays.asList(repeat('a', 30) + " ", repeat('b', 10) + " c"), pieces);
+    }
+
+    /**
+     * Every position is checked a bounded number of times however long the search for a boundary goes on.
+     */
+    @Test
+    public void searchForBoundaryIsLinear() throws IOException {
+        AtomicLong checks = new AtomicLong();
+        int chunkSize = 100000;
+        String text = repeat('x', 4 * chunkSize);
+
+        List<String> pieces = pieces(new StringReader(text), chunkSize, (buffer, position, endOfInput) -> {
+            checks.incrementAndGet();
+            return false;
+        });
+
+        assertEquals(Collections.singletonList(text.length()), lengths(pieces));
+        assertTrue(checks.get() + " checks", checks.get() < 3L * text.length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunkSizeMustBePositive() {
+        new TextChunks(new StringReader("text"), 0, AFTER_SPACE);
+    }
+
+    private static List<String> pieces(Readable input, int chunkSize, TextChunks.Boundary boundary) throws IOException {
+        TextChunks chunks = new TextChunks(input, chunkSize, boundary);
+        List<String> pieces = new ArrayList<>();
+        String piece;
+
+        while ((piece = chunks.next()) != null) {
+            pieces.add(piece);
+        }
+
+        return pieces;
+    }
+
+    private static List<Integer> lengths(List<String> pieces) {
+        List<Integer> lengths = new ArrayList<>();
+
+        for (String piece : pieces) {
+            lengths.add(piece.length());
+        }
+
+        return lengths;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    /**
+     * Gives out at most a few chars per read, like a network stream.
+     */
+    private static final class SlowReader implements Readable {
+        private final String text;
+        private final int charsPerRead;
+        private int position;
+
+        SlowReader(String text, int charsPerRead) {
+            this.text = text;
+            this.charsPerRead = charsPerRead;
+        }
+
+        @Override
+        public int read(CharBuffer buffer) {
+            if (position == text.length()) {
+                return -1;
+            }
+
+            int count = Math.min(Math.min(charsPerRead, buffer.remaining()), text.length() - position);
+            buffer.append(text, position, position + count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import com.filter.textcorrector.text_preproccessing.TextPreproccessor;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the preproccessor against outputs of the regular expression version it replaced.
+ * corpus.tsv holds chat-like texts in the supported languages, generated.tsv random mixes of words, leetspeak,
+ * punctuation, whitespace, look-alike symbols, combining marks and surrogates.
+ */
+public class TextPreproccessorGoldenTest {
+    private static TextPreproccessor textPreproccessor;
+
+    @BeforeClass
+    public static void setUp() {
+        textPreproccessor = TextPreproccessor.getInstance();
+    }
+
+    @Test
+    public void corpusIsPreproccessedAsBefore() throws IOException {
+        checkGoldenFile("/preproccessing/corpus.tsv");
+    }
+
+    @Test
+    public void generatedTextsArePreproccessedAsBefore() throws IOException {
+        checkGoldenFile("/preproccessing/generated.tsv");
+    }
+
+    /**
+     * The regex version replaced a word all over the text, so a word containing an earlier one could be changed
+     * by it and then not found and mapped itself. A word followed by an underscore wasn't replaced at all.
+     * Every word is mapped where it is now.
+     */
+    @Test
+    public void everyWordIsMappedInPlace() {
+        assertEquals("i said im fine", textPreproccessor.preproccess("I said I'M fine"));
+        assertEquals("hopiece_", textPreproccessor.preproccess("hop13ce_"));
+    }
+
+    private static void checkGoldenFile(String path) throws IOException {
+        List<String[]> cases = GoldenFiles.read(path, 3);
+        assertTrue(cases.size() > 0);
+
+        for (String[] golden : cases) {
+            assertEquals(golden[0], golden[1], textPreproccessor.preproccess(golden[0], false));
+            assertEquals(golden[0], golden[2], textPreproccessor.preproccess(golden[0], true));
+        }
+    }
+}
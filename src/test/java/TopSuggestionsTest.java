@@ -0,0 +1,78 @@
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the best-first search gives the full search sorted by the ranking and cut to the limit,
+ * in the trie and in the minimal automaton.
+ */
+public class TopSuggestionsTest {
+    private static final int[] LIMITS = {1, 2, 5, 20};
+
+    private static final Comparator<Suggestion> BY_PERCENTAGE = Comparator.naturalOrder();
+    private static final Comparator<Suggestion> BY_PERCENTAGE_AND_SOUNDEX =
+            BY_PERCENTAGE.thenComparingDouble(Suggestion::getSoundexCodeDistance);
+    private static final List<Comparator<Suggestion>> RANKINGS = Arrays.asList(BY_PERCENTAGE, BY_PERCENTAGE_AND_SOUNDEX);
+
+    private static List<String> words;
+    private static WordSuggester trie;
+    private static WordSuggester automaton;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_80K);
+        trie = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : words) {
+            trie.add(word);
+        }
+
+        trie.compact();
+        automaton = WordSuggester.minimal(words, false, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void trieTopIsSortedFullSearch() {
+        assertTopIsSortedFullSearch(trie);
+    }
+
+    @Test
+    public void automatonTopIsSortedFullSearch() {
+        assertTopIsSortedFullSearch(automaton);
+    }
+
+    @Test
+    public void emptyLimitOrDistanceFindsNothing() {
+        assertTrue(trie.getSuggestions("helo", 2, 0, BY_PERCENTAGE).isEmpty());
+        assertTrue(trie.getSuggestions("helo", -1, 5, BY_PERCENTAGE).isEmpty());
+    }
+
+    private static void assertTopIsSortedFullSearch(WordSuggester wordSuggester) {
+        for (String query : TestWords.queries(words, 300, 14)) {
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                List<Suggestion> all = wordSuggester.getSuggestions(query, maxDistance);
+
+                for (Comparator<Suggestion> ranking : RANKINGS) {
+                    Comparator<Suggestion> order = ranking.thenComparing(Suggestion::getWord);
+
+                    for (int limit : LIMITS) {
+                        List<Suggestion> expected = all.stream().sorted(order).limit(limit).collect(Collectors.toList());
+
+                        assertEquals(query + " at " + maxDistance + " limit " + limit, TestWords.describe(expected),
+                                TestWords.describe(wordSuggester.getSuggestions(query, maxDistance, limit, ranking)));
+                    }
+                }
+            }
+        }
+    }
+}
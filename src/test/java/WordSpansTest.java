@@ -0,0 +1,95 @@
+import com.filter.textcorrector.text_preproccessing.util.WordSpans;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks which parts of a text are taken for words and that the positions point at them.
+ */
+public class WordSpansTest {
+
+    @Test
+    public void emptyTextHasNoWords() {
+        assertEquals(Collections.emptyList(), words(""));
+        assertEquals(Collections.emptyList(), words(" \n\t"));
+        assertEquals(Collections.emptyList(), words("?! - ... '' #"));
+    }
+
+    @Test
+    public void wordsAreSplitByAnyOtherSymbol() {
+        assertEquals(Arrays.asList("You", "are", "here"), words("You#are   here!"));
+        assertEquals(Arrays.asList("a", "b", "S", "M"), words("a.b S&M"));
+        assertEquals(Arrays.asList("12", "56cm", "x2"), words("12.56cm x2"));
+        assertEquals(Collections.singletonList("word"), words("word"));
+    }
+
+    @Test
+    public void innerApostrophesAndHyphensAreKept() {
+        assertEquals(Arrays.asList("don't", "well-known", "rock'n'roll"), words("don't well-known rock'n'roll"));
+    }
+
+    @Test
+    public void apostrophesAndHyphensAtWordEdgesAreNot() {
+        assertEquals(Arrays.asList("quoted", "dash", "word", "it's"), words("'quoted' -dash word- it's'"));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), words("a--b c''d"));
+        assertEquals(Arrays.asList("x", "y"), words("x-'y"));
+    }
+
+    @Test
+    public void surrogatePairsAreNeverSplit() {
+        // Mathematical script capital A is a letter outside the BMP
+        assertEquals(Arrays.asList("𝒜bc", "d𝒜e"), words("𝒜bc d𝒜e"));
+        assertEquals(Collections.singletonList("well-𝒜"), words("well-𝒜"));
+        // An emoji isn't a letter, so it separates words
+        assertEquals(Arrays.asList("a", "b"), words("a😀b"));
+        assertEquals(Collections.emptyList(), words("😀 😀"));
+        // Unpaired surrogates are not letters either
+        assertEquals(Arrays.asList("a", "b"), words("a\ud835 \udc9cb"));
+    }
+
+    @Test
+    public void positionsPointAtWords() {
+        String text = "  Hello, wor'ld-wide 𝒜!";
+        WordSpans spans = WordSpans.of(text);
+
+        assertEquals(3, spans.size());
+
+        for (int i = 0; i < spans.size(); i++) {
+            assertEquals(text.substring(spans.getStart(i), spans.getEnd(i)), spans.getWord(i));
+        }
+
+        assertEquals(2, spans.getStart(0));
+        assertEquals(7, spans.getEnd(0));
+        assertEquals(text.length() - 1, spans.getEnd(2));
+    }
+
+    @Test
+    public void manyWordsAreAllKept() {
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < 1000; i++) {
+            text.append("w").append(i).append(i % 2 == 0 ? " " : ", ");
+        }
+
+        List<String> words = words(text.toString());
+
+        assertEquals(1000, words.size());
+        assertEquals("w999", words.get(999));
+    }
+
+    private static List<String> words(String text) {
+        WordSpans spans = WordSpans.of(text);
+        List<String> words = new ArrayList<>();
+
+        for (int i = 0; i < spans.size(); i++) {
+            words.add(spans.getWord(i));
+        }
+
+        return words;
+    }
+}
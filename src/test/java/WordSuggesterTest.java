@@ -0,0 +1,105 @@
+import com.filter.textcorrector.spellchecking.WordSuggester;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the trie in flat arrays against a set of its words and a linear scan of them.
+ */
+public class WordSuggesterTest {
+    private static List<String> words;
+    private static Set<String> wordSet;
+    private static WordSuggester trie;
+
+    @BeforeClass
+    public static void setUp() {
+        words = TestWords.read(TestWords.ENGLISH_10K);
+        wordSet = new HashSet<>(words);
+        trie = new WordSuggester(false, StandardCharsets.UTF_8);
+
+        for (String word : words) {
+            trie.add(word);
+        }
+
+        trie.compact();
+    }
+
+    @Test
+    public void suggestionsAreSameAsLinearSearch() {
+        for (String query : TestWords.queries(words, 400, 3)) {
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                assertEquals(query + " at " + maxDistance, TestWords.linearSearch(words, query, maxDistance),
+                        TestWords.wordsAndDistances(trie.getSuggestions(query, maxDistance)));
+            }
+        }
+    }
+
+    @Test
+    public void searchFindsExactlyTheAddedWords() {
+        assertEquals(words.size(), trie.getNumberOfWords());
+
+        for (String word : words) {
+            assertTrue(word, trie.search(word));
+            assertTrue(word, trie.search(word.toUpperCase()));
+        }
+
+        for (String query : TestWords.queries(words, 2000, 4)) {
+            assertEquals(query, wordSet.contains(query), trie.search(query));
+        }
+
+        assertFalse(trie.search(""));
+    }
+
+    @Test
+    public void wordsAreAddedOnce() {
+        WordSuggester wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
+        wordSuggester.add("hello");
+        wordSuggester.add("HELLO");
+        wordSuggester.add("help");
+        wordSuggester.add("");
+
+        assertEquals(2, wordSuggester.getNumberOfWords());
+        assertEquals(5, wordSuggester.getMaxWordLength());
+        assertTrue(wordSuggester.search("hello"));
+        assertFalse(wordSuggester.search("hel"));
+    }
+
+    @Test
+    public void caseSensitiveTrieKeepsCase() {
+        WordSuggester wordSuggester = new WordSuggester(true, StandardCharsets.UTF_8);
+        wordSuggester.add("Paris");
+        wordSuggester.compact();
+
+        assertTrue(wordSuggester.search("Paris"));
+        assertFalse(wordSuggester.search("paris"));
+        assertEquals(1, wordSuggester.getSuggestions("paris", 1).size());
+    }
+
+    @Test
+    public void wordsCanBeAddedAfterGrowing() {
+        WordSuggester wordSuggester = new WordSuggester(false, StandardCharsets.UTF_8);
+        Random random = new Random(5);
+        Set<String> added = new HashSet<>();
+
+        for (int i = 0; i < 5000; i++) {
+            String word = TestWords.randomLetters(random, 1 + random.nextInt(12));
+            wordSuggester.add(word);
+            added.add(word);
+        }
+
+        assertEquals(added.size(), wordSuggester.getNumberOfWords());
+
+        for (String word : added) {
+            assertTrue(word, wordSuggester.search(word));
+        }
+    }
+}
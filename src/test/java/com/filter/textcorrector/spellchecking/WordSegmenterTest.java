@@ -0,0 +1,161 @@
+package com.filter.textcorrector.spellchecking;
+
+import com.filter.textcorrector.spellchecking.dictionary.Dictionary;
+import com.filter.textcorrector.spellchecking.dictionary.DictionaryFactory;
+import com.filter.textcorrector.spellchecking.model.Suggestion;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the one pass split against a memoized search for the fewest words, and the trie walk
+ * finding the words of a position against looking up every prefix.
+ */
+public class WordSegmenterTest {
+    private static List<String> words;
+    private static Set<String> wordSet;
+    private static Dictionary trieDictionary;
+    private static Dictionary setDictionary;
+
+    @BeforeClass
+    public static void setUp() {
+        words = new BufferedReader(new InputStreamReader(WordSegmenterTest.class.getResourceAsStream(
+                "/dictionaries/en_dictionary_80k.txt"), StandardCharsets.UTF_8)).lines()
+                .filter(word -> !word.isEmpty())
+                .map(String::toLowerCase)
+                .distinct()
+                .collect(Collectors.toList());
+        wordSet = new HashSet<>(words);
+        trieDictionary = DictionaryFactory.create(Language.ENGLISH, SuggestionEngine.TRIE);
+        int maxWordLength = words.stream().mapToInt(String::length).max().orElse(0);
+
+        setDictionary = new Dictionary() {
+            @Override
+            public boolean contains(String word) {
+                return wordSet.contains(word.toLowerCase());
+            }
+
+            @Override
+            public List<Suggestion> search(String word, float editDistancePercent) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public int getSize() {
+                return wordSet.size();
+            }
+
+            @Override
+            public int getMaxWordLength() {
+                return maxWordLength;
+            }
+        };
+    }
+
+    @Test
+    public void wordEndsAreSameAsPrefixLookups() {
+        for (String text : texts(500, 12)) {
+            for (int start = 0; start < text.length(); start++) {
+                assertArrayEquals(text + " at " + start, setDictionary.findWordEnds(text, start),
+                        trieDictionary.findWordEnds(text, start));
+            }
+        }
+    }
+
+    /**
+     * Without corrections the cheapest split is the one with the fewest words.
+     */
+    @Test
+    public void exactSplitHasFewestWords() {
+        for (String text : texts(2000, 13)) {
+            int expected = fewestWords(text);
+            WordSegmenter.Segmentation segmentation = WordSegmenter.segment(text, trieDictionary,
+                    part -> Collections.emptyList());
+
+            if (expected == Integer.MAX_VALUE) {
+                assertNull(text, segmentation);
+                continue;
+            }
+
+            assertEquals(text, expected, segmentation.getWords().size());
+            assertEquals(text, 0, segmentation.getDistance());
+            assertEquals(text, text, String.join("", segmentation.getWords()));
+
+            for (String word : segmentation.getWords()) {
+                assertTrue(text + ": " + word, wordSet.contains(word));
+            }
+        }
+    }
+
+    @Test
+    public void misspelledPartIsCorrected() {
+        Spellchecker spellchecker = new Spellchecker.Builder(Language.ENGLISH)
+                .withCheckingCompounds(true)
+                .build();
+
+        assertEquals("son of a bitch", spellchecker.checkCompound("sonofabitch").get(0));
+        assertEquals("believe", spellchecker.checkCompound("belive").get(0));
+        assertEquals("hello world", spellchecker.checkCompound("hellowordl").get(0));
+    }
+
+    /**
+     * @return two to four words run together, sometimes with a letter changed or a few random letters.
+     */
+    private static List<String> texts(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> texts = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+
+            for (int j = 2 + random.nextInt(3); j > 0; j--) {
+                text.append(words.get(random.nextInt(words.size())));
+            }
+
+            if (i % 4 == 0) {
+                text.setCharAt(random.nextInt(text.length()), (char) ('a' + random.nextInt(26)));
+            } else if (i % 4 == 1) {
+                for (int j = 1 + random.nextInt(4); j > 0; j--) {
+                    text.append((char) ('a' + random.nextInt(26)));
+                }
+            }
+
+            texts.add(text.toString());
+        }
+
+        return texts;
+    }
+
+    private static int fewestWords(String text) {
+        // Fewest words text.substring(i) splits into, the whole text must be split in two at least
+        int[] fewest = new int[text.length() + 1];
+
+        for (int start = text.length() - 1; start >= 0; start--) {
+            fewest[start] = Integer.MAX_VALUE;
+
+            for (int end = start + 1; end <= text.length(); end++) {
+                if ((start > 0 || end < text.length()) && fewest[end] != Integer.MAX_VALUE
+                        && wordSet.contains(text.substring(start, end))) {
+                    fewest[start] = Math.min(fewest[start], fewest[end] + 1);
+                }
+            }
+        }
+
+        return fewest[0];
+    }
+}